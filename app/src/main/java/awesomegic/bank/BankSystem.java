@@ -3,91 +3,240 @@
  */
 package awesomegic.bank;
 
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
 import awesomegic.bank.cli.Cli;
 import awesomegic.bank.cli.exceptions.InputException;
-import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.metrics.Metrics;
 import awesomegic.bank.operation.Operation;
 import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationRegistry;
 import awesomegic.bank.operation.OperationResult;
 import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.registry.AccountRegistry;
+import awesomegic.bank.server.BankServer;
+import awesomegic.bank.storage.HistoryFile;
+import awesomegic.bank.storage.Journal;
 
 /**
  * Represents the AwesomeGIC Bank system.
  */
 public class BankSystem {
+    static final String DEFAULT_ACCOUNT_ID = "default";
+    private static final String MESSAGE_LISTENING = "AwesomeGIC Bank is listening on port %d.";
     private final Cli cli;
-    private BankAccount account;
+    private final AccountRegistry registry;
+    private final String accountId;
+    private final Journal journal;
+    private final Metrics metrics;
+    private final Path exportPath;
     private OperationFactory operationFactory;
 
     BankSystem() {
-        this.cli = new Cli();
+        this(new Cli(), new AccountRegistry(), DEFAULT_ACCOUNT_ID, Journal.none());
+    }
+
+    /**
+     * Constructs a bank system that serves the specified account of the registry and records the account's
+     * transactions in the specified journal.
+     *
+     * @param cli The {@link Cli} to interact with the user through, either interactively or in batch mode.
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param accountId The ID of the account the user logs into.
+     * @param journal The {@link Journal} to recover the account from and record transactions to.
+     */
+    BankSystem(Cli cli, AccountRegistry registry, String accountId, Journal journal) {
+        this(cli, registry, accountId, journal, Metrics.getDefault());
+    }
+
+    /**
+     * Constructs a bank system that serves the specified account of the registry, records the account's
+     * transactions in the specified journal and the latencies of its operations in the specified metrics.
+     *
+     * @param cli The {@link Cli} to interact with the user through, either interactively or in batch mode.
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param accountId The ID of the account the user logs into.
+     * @param journal The {@link Journal} to recover the account from and record transactions to.
+     * @param metrics The {@link Metrics} to record the operations in.
+     */
+    BankSystem(Cli cli, AccountRegistry registry, String accountId, Journal journal, Metrics metrics) {
+        this(cli, registry, accountId, journal, metrics, null);
+    }
+
+    /**
+     * Constructs a bank system that serves the specified account of the registry, records the account's
+     * transactions in the specified journal and the latencies of its operations in the specified metrics,
+     * and exports the account's history to the specified file when the user quits.
+     *
+     * @param cli The {@link Cli} to interact with the user through, either interactively or in batch mode.
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param accountId The ID of the account the user logs into.
+     * @param journal The {@link Journal} to recover the account from and record transactions to.
+     * @param metrics The {@link Metrics} to record the operations in.
+     * @param exportPath The file to export the history to with {@link HistoryFile}, or {@code null} to not export it.
+     */
+    BankSystem(Cli cli, AccountRegistry registry, String accountId, Journal journal, Metrics metrics,
+            Path exportPath) {
+        requireNonNull(cli);
+        requireNonNull(registry);
+        requireNonNull(accountId);
+        requireNonNull(journal);
+        requireNonNull(metrics);
+
+        this.cli = cli;
+        this.registry = registry;
+        this.accountId = accountId;
+        this.journal = journal;
+        this.metrics = metrics;
+        this.exportPath = exportPath;
     }
 
     public static void main(String[] args) {
-        BankSystem system = new BankSystem();
+        LaunchOptions options;
+        Cli cli;
+        Journal journal;
+        try {
+            options = LaunchOptions.parse(args);
+            if (options.isServer()) {
+                serve(options.getServerPort());
+                return;
+            }
+            journal = options.createJournal();
+            cli = options.createCli();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LaunchOptions.USAGE);
+            System.exit(1);
+            return;
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        BankSystem system = new BankSystem(cli, new AccountRegistry(), options.getAccountId(),
+            journal, Metrics.getDefault(), options.getExportPath());
         system.start();
     }
 
+    /**
+     * Serves the bank system over the network until the process is stopped.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the server cannot be started.
+     */
+    private static void serve(int port) throws IOException {
+        BankServer server = new BankServer(new AccountRegistry(), new InetSocketAddress(port));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println(String.format(MESSAGE_LISTENING, server.getPort()));
+    }
+
     /**
      * Logs the user into the bank system.
-     * Currently, will just create a new bank account.
+     * The bank account is recovered from the journal, or created if the journal is empty.
+     *
+     * @throws IOException If the journal cannot be read.
      */
-    private void login() {
-        this.account = new BankAccount();
-        this.operationFactory = new OperationFactory(this.cli);
+    private void login() throws IOException {
+        this.registry.register(this.accountId, this.journal.recover());
+        this.operationFactory = new OperationFactory(this.cli, OperationRegistry.withDefaults(this.metrics));
     }
 
     /**
-     * Logs the user out and exit the bank system.
+     * Logs the user out and exit the bank system, exporting the history of the account if requested.
      */
     private void exit() {
-        this.cli.showExitMessage();  
+        this.cli.showExitMessage();
+        if (this.exportPath != null) {
+            try {
+                HistoryFile.export(this.registry.getAccount(this.accountId).getTransactions(), this.exportPath);
+            } catch (IOException e) {
+                this.cli.showStorageError(e);
+            }
+        }
+        try {
+            this.journal.close();
+        } catch (IOException e) {
+            this.cli.showStorageError(e);
+        }
         this.cli.close();
-        this.account = null;
         this.operationFactory = null;
     }
 
     /**
      * Starts the AwesomeGIC Bank system.
+     * In interactive mode the commands are run one at a time. In batch mode on more than one processor they are
+     * run through a {@link CommandPipeline}, which parses, executes and shows them on separate threads.
      */
     public void start() {
-        this.login();
+        try {
+            this.login();
+        } catch (IOException e) {
+            this.cli.showStorageError(e);
+            this.cli.close();
+            return;
+        }
 
         this.cli.showStartupMessage();
 
-        while (true) {
-            boolean shouldExit = this.processOperation();
-            if (shouldExit) {
-                break;
+        if (this.cli.isInteractive() || Runtime.getRuntime().availableProcessors() < 2) {
+            while (true) {
+                boolean shouldExit = this.processOperation();
+                if (shouldExit) {
+                    break;
+                }
+                this.cli.showNewOperationPrompt();
             }
-            this.cli.showNewOperationPrompt();
+        } else {
+            new CommandPipeline(this.cli, this.registry, this.accountId, this.journal, this.metrics,
+                this.operationFactory).run();
         }
 
         this.exit();
     }
 
     /**
-     * Processes a user operation.
+     * Processes a user operation, counting its outcome in the metrics and, if it is sampled, recording how
+     * long it takes to parse, execute and show. In interactive mode the parse time includes waiting for the
+     * user to enter the argument.
      *
      * @return A boolean value indicating whether the system should exit.
      */
     private boolean processOperation() {
         try {
             String option = this.cli.readOperationOption(this.operationFactory);
+            boolean isTimed = this.metrics.shouldTime();
+            long started = isTimed ? System.nanoTime() : 0;
             Operation operation = this.operationFactory.getOperation(option);
+            long parsed = isTimed ? System.nanoTime() : 0;
 
-            OperationResult result = operation.execute(account);
-            this.account = result.updatedAccount;
+            OperationResult result = this.registry.execute(this.accountId, operation, this.journal);
+            long executed = isTimed ? System.nanoTime() : 0;
 
             if (result.exit) {
                 return true;
             }
     
             this.cli.showResult(result);
+            this.metrics.recordSuccess();
+            if (isTimed) {
+                long rendered = System.nanoTime();
+                this.metrics.recordLatencies(
+                    operation.getClass(), parsed - started, executed - parsed, rendered - executed);
+            }
         } catch (InputException e) {
+            this.metrics.recordInputError();
             this.cli.showInputError(e);
         } catch (OperationException e) {
+            this.metrics.recordOperationError();
             this.cli.showOperationError(e);
+        } catch (IOException e) {
+            this.cli.showStorageError(e);
         }
 
         return false;
@@ -0,0 +1,312 @@
+package awesomegic.bank;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.metrics.Metrics;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.QuitOperation;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.registry.AccountRegistry;
+import awesomegic.bank.storage.Journal;
+import awesomegic.bank.utils.RingBuffer;
+
+/**
+ * Represents a batch session run as three stages connected by bounded {@link RingBuffer}s.
+ * <p>
+ * A parser thread reads the commands and turns them into operations, the calling thread executes the
+ * operations one after another as the only writer of the account, and a renderer thread shows their results.
+ * Each stage hands its output to the next in order, so the results are shown in the order of the commands,
+ * exactly as the serial loop shows them, while a slow result such as a long statement is written out as the
+ * next commands are parsed and executed. A full buffer holds the stage before it back until there is room.
+ * <p>
+ * Outcomes are counted in the metrics as they are executed, so that a metrics report counts every command
+ * before it, and timed operations are recorded once their result has been shown. The stages only overlap
+ * on more than one processor; on a single one the serial loop is faster.
+ */
+public final class CommandPipeline {
+    private static final int COMMAND_BUFFER_SIZE = 1 << 10;
+    private static final int OUTCOME_BUFFER_SIZE = 1 << 8;
+    private static final String PARSER_THREAD_NAME = "bank-parser";
+    private static final String RENDERER_THREAD_NAME = "bank-renderer";
+
+    private final Cli cli;
+    private final AccountRegistry registry;
+    private final String accountId;
+    private final Journal journal;
+    private final Metrics metrics;
+    private final OperationFactory operationFactory;
+    private final RingBuffer<Command> commands = new RingBuffer<>(COMMAND_BUFFER_SIZE);
+    private final RingBuffer<Outcome> outcomes = new RingBuffer<>(OUTCOME_BUFFER_SIZE);
+    private volatile RuntimeException renderFailure;
+
+    /**
+     * Constructs a pipeline serving the specified account of the registry.
+     *
+     * @param cli The {@link Cli} to read commands from and show results on.
+     * @param registry The {@link AccountRegistry} holding the account.
+     * @param accountId The ID of the account the commands apply to.
+     * @param journal The {@link Journal} to record transactions to.
+     * @param metrics The {@link Metrics} to record the operations in.
+     * @param operationFactory The {@link OperationFactory} creating operations from the commands.
+     */
+    public CommandPipeline(Cli cli, AccountRegistry registry, String accountId, Journal journal, Metrics metrics,
+            OperationFactory operationFactory) {
+        requireAllNonNull(cli, registry, accountId, journal, metrics, operationFactory);
+
+        this.cli = cli;
+        this.registry = registry;
+        this.accountId = accountId;
+        this.journal = journal;
+        this.metrics = metrics;
+        this.operationFactory = operationFactory;
+    }
+
+    /**
+     * Runs the session until a quit command has been executed and every result before it has been shown.
+     *
+     * @throws RuntimeException If reading the commands or showing the results fails.
+     */
+    public void run() {
+        Thread parser = new Thread(this::parse, PARSER_THREAD_NAME);
+        Thread renderer = new Thread(this::render, RENDERER_THREAD_NAME);
+        parser.setDaemon(true);
+        renderer.setDaemon(true);
+        parser.start();
+        renderer.start();
+
+        RuntimeException failure = null;
+        try {
+            this.execute();
+        } catch (CancellationException e) {
+            // The renderer has failed, and its failure is thrown below.
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        this.commands.abort();
+        try {
+            this.outcomes.put(Outcome.END);
+        } catch (CancellationException e) {
+            // The renderer has already stopped.
+        }
+        joinUninterruptibly(renderer);
+
+        if (this.renderFailure != null) {
+            throw this.renderFailure;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        joinUninterruptibly(parser);
+    }
+
+    /**
+     * Reads commands until the quit command or the end of the input, which is read as quit.
+     */
+    private void parse() {
+        try {
+            while (true) {
+                Command command = this.readCommand();
+                this.commands.put(command);
+                if (command.isLast) {
+                    return;
+                }
+            }
+        } catch (CancellationException e) {
+            // The session has stopped, so the remaining commands are not needed.
+        } catch (RuntimeException e) {
+            try {
+                this.commands.put(Command.failed(e));
+            } catch (CancellationException ignored) {
+                // The session has stopped, so there is no one to report the failure to.
+            }
+        }
+    }
+
+    private Command readCommand() {
+        try {
+            String option = this.cli.readOperationOption(this.operationFactory);
+            boolean isTimed = this.metrics.shouldTime();
+            long started = isTimed ? System.nanoTime() : 0;
+            Operation operation = this.operationFactory.getOperation(option);
+            long parsed = isTimed ? System.nanoTime() : 0;
+            return Command.of(operation, option.equals(QuitOperation.OPERATION_KEY), isTimed, parsed - started);
+        } catch (InputException e) {
+            return Command.rejected(e);
+        }
+    }
+
+    /**
+     * Executes the operations in the order they were parsed, until one of them exits.
+     */
+    private void execute() {
+        while (true) {
+            Command command = this.commands.take();
+            if (command.failure != null) {
+                throw command.failure;
+            }
+            if (command.inputError != null) {
+                this.metrics.recordInputError();
+                this.outcomes.put(Outcome.rejected(command.inputError));
+                continue;
+            }
+
+            long started = command.isTimed ? System.nanoTime() : 0;
+            try {
+                OperationResult result = this.registry.execute(this.accountId, command.operation, this.journal);
+                long executed = command.isTimed ? System.nanoTime() : 0;
+                if (result.exit) {
+                    return;
+                }
+                this.metrics.recordSuccess();
+                this.outcomes.put(Outcome.succeeded(command, result, executed - started));
+            } catch (OperationException e) {
+                this.metrics.recordOperationError();
+                this.outcomes.put(Outcome.failed(e));
+            } catch (IOException e) {
+                this.outcomes.put(Outcome.failedToStore(e));
+            }
+        }
+    }
+
+    /**
+     * Shows the outcomes in the order they were executed, until the end of the session.
+     */
+    private void render() {
+        try {
+            while (true) {
+                Outcome outcome = this.outcomes.take();
+                if (outcome == Outcome.END) {
+                    return;
+                }
+                this.show(outcome);
+            }
+        } catch (RuntimeException e) {
+            this.renderFailure = e;
+            this.outcomes.abort();
+            this.commands.abort();
+        }
+    }
+
+    private void show(Outcome outcome) {
+        if (outcome.inputError != null) {
+            this.cli.showInputError(outcome.inputError);
+        } else if (outcome.operationError != null) {
+            this.cli.showOperationError(outcome.operationError);
+        } else if (outcome.storageError != null) {
+            this.cli.showStorageError(outcome.storageError);
+        } else if (outcome.isTimed) {
+            long started = System.nanoTime();
+            this.cli.showResult(outcome.result);
+            long rendered = System.nanoTime();
+            this.metrics.recordLatencies(
+                outcome.operationType, outcome.parseNanos, outcome.executeNanos, rendered - started);
+        } else {
+            this.cli.showResult(outcome.result);
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Represents a command handed from the parser to the executor: an operation, an invalid input, or a
+     * failure to read the input.
+     */
+    private static final class Command {
+        private final Operation operation;
+        private final boolean isLast;
+        private final boolean isTimed;
+        private final long parseNanos;
+        private final InputException inputError;
+        private final RuntimeException failure;
+
+        private Command(Operation operation, boolean isLast, boolean isTimed, long parseNanos,
+                InputException inputError, RuntimeException failure) {
+            this.operation = operation;
+            this.isLast = isLast;
+            this.isTimed = isTimed;
+            this.parseNanos = parseNanos;
+            this.inputError = inputError;
+            this.failure = failure;
+        }
+
+        private static Command of(Operation operation, boolean isLast, boolean isTimed, long parseNanos) {
+            return new Command(operation, isLast, isTimed, parseNanos, null, null);
+        }
+
+        private static Command rejected(InputException inputError) {
+            return new Command(null, false, false, 0, inputError, null);
+        }
+
+        private static Command failed(RuntimeException failure) {
+            return new Command(null, true, false, 0, null, failure);
+        }
+    }
+
+    /**
+     * Represents an outcome handed from the executor to the renderer: the result of an operation, or the
+     * error it ended with.
+     */
+    private static final class Outcome {
+        private static final Outcome END = new Outcome(null, null, false, 0, 0, null, null, null);
+
+        private final OperationResult result;
+        private final Class<?> operationType;
+        private final boolean isTimed;
+        private final long parseNanos;
+        private final long executeNanos;
+        private final InputException inputError;
+        private final OperationException operationError;
+        private final IOException storageError;
+
+        private Outcome(OperationResult result, Class<?> operationType, boolean isTimed, long parseNanos,
+                long executeNanos, InputException inputError, OperationException operationError,
+                IOException storageError) {
+            this.result = result;
+            this.operationType = operationType;
+            this.isTimed = isTimed;
+            this.parseNanos = parseNanos;
+            this.executeNanos = executeNanos;
+            this.inputError = inputError;
+            this.operationError = operationError;
+            this.storageError = storageError;
+        }
+
+        private static Outcome succeeded(Command command, OperationResult result, long executeNanos) {
+            return new Outcome(result, command.operation.getClass(), command.isTimed, command.parseNanos,
+                executeNanos, null, null, null);
+        }
+
+        private static Outcome rejected(InputException inputError) {
+            return new Outcome(null, null, false, 0, 0, inputError, null, null);
+        }
+
+        private static Outcome failed(OperationException operationError) {
+            return new Outcome(null, null, false, 0, 0, null, operationError, null);
+        }
+
+        private static Outcome failedToStore(IOException storageError) {
+            return new Outcome(null, null, false, 0, 0, null, null, storageError);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package awesomegic.bank;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.storage.CsvImport;
+import awesomegic.bank.storage.FsyncPolicy;
+import awesomegic.bank.storage.HistoryFile;
+import awesomegic.bank.storage.Journal;
+import awesomegic.bank.storage.SnapshotJournal;
+import awesomegic.bank.storage.WriteAheadLog;
+
+/**
+ * Represents the command-line options of the bank system.
+ */
+final class LaunchOptions {
+    static final String USAGE = "Usage: AwesomeGIC [--account <id>] [--wal <file> | --journal-dir <directory>]"
+        + " [--fsync per-op|group[:<millis>:<records>]|async[:<millis>]] [--batch <file>|-]"
+        + " [--import <file> | --import-csv <file>] [--export <file>]"
+        + "\n       AwesomeGIC --serve <port>";
+    private static final String MESSAGE_UNKNOWN_OPTION = "Unknown option '%s'.";
+    private static final String MESSAGE_MISSING_VALUE = "Option '%s' requires a value.";
+    private static final String MESSAGE_CONFLICTING_JOURNALS = "Options --wal and --journal-dir cannot be combined.";
+    private static final String MESSAGE_CONFLICTING_IMPORT =
+        "Options --import and --import-csv cannot be combined with each other, --wal or --journal-dir.";
+    private static final String MESSAGE_CONFLICTING_SERVER = "Option --serve cannot be combined with --account, --wal,"
+        + " --journal-dir, --batch, --import, --import-csv or --export.";
+    private static final String MESSAGE_INVALID_CSV_ROWS = "%d lines of %s could not be imported:";
+    private static final String MESSAGE_MORE_INVALID_CSV_ROWS = "... and %d more.";
+    private static final int MAX_REPORTED_CSV_ROWS = 100;
+    private static final String MESSAGE_INVALID_PORT = "Port must be a number from 0 to 65535.";
+    private static final String OPTION_ACCOUNT = "--account";
+    private static final String OPTION_WAL = "--wal";
+    private static final String OPTION_JOURNAL_DIR = "--journal-dir";
+    private static final String OPTION_FSYNC = "--fsync";
+    private static final String OPTION_BATCH = "--batch";
+    private static final String OPTION_SERVE = "--serve";
+    private static final String OPTION_IMPORT = "--import";
+    private static final String OPTION_IMPORT_CSV = "--import-csv";
+    private static final String OPTION_EXPORT = "--export";
+    private static final String STANDARD_INPUT = "-";
+
+    private String accountId = BankSystem.DEFAULT_ACCOUNT_ID;
+    private Path walPath;
+    private Path journalDirectory;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.perOperation();
+    private String batchInput;
+    private Integer serverPort;
+    private Path importPath;
+    private Path csvImportPath;
+    private Path exportPath;
+    private boolean hasAccountId;
+
+    private LaunchOptions() {
+    }
+
+    /**
+     * Parses the command-line arguments.
+     *
+     * @param args The command-line arguments.
+     * @return The parsed {@code LaunchOptions}.
+     * @throws IllegalArgumentException if an argument is not recognized or is missing its value.
+     */
+    static LaunchOptions parse(String[] args) {
+        LaunchOptions options = new LaunchOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+            case OPTION_ACCOUNT:
+                options.accountId = valueOf(args, ++i, option);
+                options.hasAccountId = true;
+                break;
+            case OPTION_WAL:
+                options.walPath = Paths.get(valueOf(args, ++i, option));
+                break;
+            case OPTION_JOURNAL_DIR:
+                options.journalDirectory = Paths.get(valueOf(args, ++i, option));
+                break;
+            case OPTION_FSYNC:
+                options.fsyncPolicy = FsyncPolicy.parse(valueOf(args, ++i, option));
+                break;
+            case OPTION_BATCH:
+                options.batchInput = valueOf(args, ++i, option);
+                break;
+            case OPTION_SERVE:
+                options.serverPort = parsePort(valueOf(args, ++i, option));
+                break;
+            case OPTION_IMPORT:
+                options.importPath = Paths.get(valueOf(args, ++i, option));
+                break;
+            case OPTION_IMPORT_CSV:
+                options.csvImportPath = Paths.get(valueOf(args, ++i, option));
+                break;
+            case OPTION_EXPORT:
+                options.exportPath = Paths.get(valueOf(args, ++i, option));
+                break;
+            default:
+                throw new IllegalArgumentException(String.format(MESSAGE_UNKNOWN_OPTION, option));
+            }
+        }
+
+        if (options.walPath != null && options.journalDirectory != null) {
+            throw new IllegalArgumentException(MESSAGE_CONFLICTING_JOURNALS);
+        }
+
+        int accountSourceCount = (options.importPath != null ? 1 : 0) + (options.csvImportPath != null ? 1 : 0)
+            + (options.walPath != null || options.journalDirectory != null ? 1 : 0);
+        if (accountSourceCount > 1) {
+            throw new IllegalArgumentException(MESSAGE_CONFLICTING_IMPORT);
+        }
+
+        if (options.serverPort != null && (options.hasAccountId || options.walPath != null
+            || options.journalDirectory != null || options.batchInput != null
+            || options.importPath != null || options.csvImportPath != null || options.exportPath != null)) {
+            throw new IllegalArgumentException(MESSAGE_CONFLICTING_SERVER);
+        }
+
+        return options;
+    }
+
+    private static String valueOf(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(String.format(MESSAGE_MISSING_VALUE, option));
+        }
+        return args[index];
+    }
+
+    private static int parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            if (port >= 0 && port <= 0xFFFF) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new IllegalArgumentException(MESSAGE_INVALID_PORT);
+    }
+
+    /**
+     * Checks if the bank system should run as a network server rather than on the console.
+     */
+    boolean isServer() {
+        return this.serverPort != null;
+    }
+
+    /**
+     * Returns the port the network server listens on.
+     */
+    int getServerPort() {
+        return this.serverPort;
+    }
+
+    /**
+     * Returns the ID of the account to log into.
+     */
+    String getAccountId() {
+        return this.accountId;
+    }
+
+    /**
+     * Returns the file to export the history of the account to when the session ends,
+     * or {@code null} if none was given.
+     */
+    Path getExportPath() {
+        return this.exportPath;
+    }
+
+    /**
+     * Returns the {@link Journal} selected by the options: a write-ahead log or a snapshot journal if one
+     * was given, a journal recovering the account from an exported history or a CSV file if one is imported,
+     * otherwise a journal that keeps nothing.
+     * <p>
+     * A CSV file is imported right away, so that every line that cannot be imported is reported before the
+     * session starts.
+     *
+     * @throws IOException If the CSV file cannot be read or has lines that cannot be imported.
+     */
+    Journal createJournal() throws IOException {
+        if (this.walPath != null) {
+            return new WriteAheadLog(this.walPath, this.fsyncPolicy);
+        }
+        if (this.journalDirectory != null) {
+            return new SnapshotJournal(this.journalDirectory, this.fsyncPolicy);
+        }
+        if (this.importPath != null) {
+            return HistoryFile.importing(this.importPath);
+        }
+        if (this.csvImportPath != null) {
+            CsvImport.Result result = CsvImport.read(this.csvImportPath);
+            if (!result.isComplete()) {
+                throw new IOException(describeErrors(this.csvImportPath, result.getErrors()));
+            }
+            return Journal.startingWith(result.getAccount());
+        }
+        return Journal.none();
+    }
+
+    private static String describeErrors(Path path, List<CsvImport.RowError> errors) {
+        StringBuilder description = new StringBuilder(String.format(MESSAGE_INVALID_CSV_ROWS, errors.size(), path));
+        for (int i = 0; i < errors.size() && i < MAX_REPORTED_CSV_ROWS; i++) {
+            description.append('\n').append(errors.get(i));
+        }
+        if (errors.size() > MAX_REPORTED_CSV_ROWS) {
+            description.append('\n').append(String.format(MESSAGE_MORE_INVALID_CSV_ROWS,
+                errors.size() - MAX_REPORTED_CSV_ROWS));
+        }
+        return description.toString();
+    }
+
+    /**
+     * Returns the {@link Cli} selected by the options: a batch CLI reading commands from the given file or
+     * from the standard input if batch mode was requested, otherwise an interactive CLI.
+     *
+     * @throws IOException If the command file cannot be opened.
+     */
+    Cli createCli() throws IOException {
+        if (this.batchInput == null) {
+            return new Cli();
+        }
+
+        Reader in = this.batchInput.equals(STANDARD_INPUT)
+            ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+            : Files.newBufferedReader(Paths.get(this.batchInput), StandardCharsets.UTF_8);
+        return new Cli(in, new OutputStreamWriter(System.out, StandardCharsets.UTF_8), false);
+    }
+}
@@ -2,92 +2,139 @@ package awesomegic.bank.cli;
 
 import static java.util.Objects.requireNonNull;
 
-import java.math.BigDecimal;
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 
 import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.operation.Feedback;
 import awesomegic.bank.operation.OperationFactory;
 import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.QuitOperation;
 import awesomegic.bank.operation.exceptions.OperationException;
 
 /**
  * Handles command-line interactions for the application.
+ * <p>
+ * In interactive mode the user is prompted for every input and every message is flushed as soon as it is
+ * shown. In batch mode, used to feed commands from a script or a pipe, prompts are left out and the output
+ * is only flushed when its buffer fills up or the CLI is closed. In both modes the end of the input quits.
  */
 public class Cli {
-    private static final String MESSAGE_PROMPT_AMOUNT = "Please enter the amount to %s:\n";
-    private static final String MESSAGE_INVALID_INPUT = "Invalid number format.";
-    private static final String MESSAGE_NON_POSITIVE_TRANSACTION_AMOUNT = "Transaction amount must be positive.";
-    private static final String MESSAGE_MORE_THAN_TWO_DECIMAL_PLACES = "Transaction amount must have at most two decimal places.";
     private static final String MESSAGE_WELCOME = "Welcome to AwesomeGIC Bank! What would you like to do?";
     private static final String MESSAGE_EXIT = "Thank you for banking with AwesomeGIC Bank.\nHave a nice day!";
-    private static final String MESSAGE_OPTIONS = "[D]eposit\n[W]ithdraw\n[P]rint statement\n[Q]uit\n";
-    private static final String MESSAGE_INVALID_OPTION = "Please enter a valid option (D/W/P/Q).";
+    private static final String MESSAGE_OPTIONS =
+        "[D]eposit\n[W]ithdraw\n[P]rint statement\n[R]anged statement\n[B]alance history\n"
+        + "Monthly [S]ummary\n[Q]uit\n";
     private static final String MESSAGE_INPUT_ERROR = "Invalid input: %s";
     private static final String MESSAGE_OPERATION_ERROR = "Invalid operation: %s";
+    private static final String MESSAGE_STORAGE_ERROR = "Storage error: %s";
     private static final String MESSAGE_PROMPT_NEW_OPERATION = "Is there anything else you'd like to do?";
-    private final Scanner scanner;
+    private static final String MESSAGE_END_OF_INPUT = "Unexpected end of input.";
+    private static final int INTERACTIVE_BUFFER_SIZE = 1 << 10;
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private final boolean isInteractive;
 
     /**
-     * Initializes a new CLI instance.
+     * Initializes a new interactive CLI instance on the standard input and output.
      */
     public Cli() {
-        this.scanner = new Scanner(System.in);
+        this(new InputStreamReader(System.in), new OutputStreamWriter(System.out), true);
     }
 
     /**
-     * Reads the user input.
+     * Initializes a new CLI instance on the specified input and output.
+     *
+     * @param in The {@link Reader} to read commands from.
+     * @param out The {@link Writer} to show messages on.
+     * @param isInteractive {@code true} to prompt for input and flush every message,
+     *     {@code false} to run in batch mode.
      */
-    public String readInput() {
-        return this.scanner.nextLine();
+    public Cli(Reader in, Writer out, boolean isInteractive) {
+        requireNonNull(in);
+        requireNonNull(out);
+
+        int bufferSize = isInteractive ? INTERACTIVE_BUFFER_SIZE : BATCH_BUFFER_SIZE;
+        this.in = new BufferedReader(in, bufferSize);
+        this.out = new PrintWriter(new BufferedWriter(out, bufferSize));
+        this.isInteractive = isInteractive;
     }
 
     /**
-     * Reads and validates the transaction amount from the CLI.
-     *
-     * @param transactionType A {@link String} describing the type of transaction (e.g., "deposit", "withdraw").
-     * @return A {@code BigDecimal} representing the validated transaction amount.
-     * @throws InputException If the input is not a valid number or is non-positive.
+     * Checks if the CLI prompts for every input, as opposed to running in batch mode.
      */
-    public BigDecimal readTransactionAmount(String transactionType) throws InputException {
-        this.show(String.format(MESSAGE_PROMPT_AMOUNT, transactionType));
+    public boolean isInteractive() {
+        return this.isInteractive;
+    }
 
-        String input = this.readInput().trim();
-        BigDecimal amount;
+    /**
+     * Reads the user input.
+     *
+     * @return The next line of input, or {@code null} at the end of the input.
+     */
+    public String readInput() {
         try {
-            amount = new BigDecimal(input);
-        } catch (NumberFormatException e) {
-            throw new InputException(MESSAGE_INVALID_INPUT);
-        }
-
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InputException(MESSAGE_NON_POSITIVE_TRANSACTION_AMOUNT);
+            return this.in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        if (amount.scale() > 2) {
-            throw new InputException(MESSAGE_MORE_THAN_TWO_DECIMAL_PLACES);
-        }
+    /**
+     * Prompts for and reads the argument of an operation, such as the amount of a transaction.
+     *
+     * @param prompt The prompt describing the expected argument, shown in interactive mode.
+     * @return The line holding the argument.
+     * @throws InputException If the input has ended.
+     */
+    public String readArgument(String prompt) throws InputException {
+        requireNonNull(prompt);
 
-        return amount.setScale(2);
+        this.prompt(prompt);
+        return this.readRequiredInput();
     }
 
     /**
      * Reads and validates the user's operation option.
      *
      * @param factory An {@link OperationFactory} instance.
-     * @return A {@code String} representing the user's operation option.
+     * @return A {@code String} representing the user's operation option. The end of the input is read as quit.
      * @throws InputException If the input is not a valid operation option.
      */
     public String readOperationOption(OperationFactory factory) throws InputException {
         requireNonNull(factory);
 
         String input = this.readInput();
-        String formattedInput = input.trim().toLowerCase();
+        if (input == null) {
+            return QuitOperation.OPERATION_KEY;
+        }
 
-        if (!factory.containsKey(formattedInput)) {
-            throw new InputException(MESSAGE_INVALID_OPTION);
+        return CommandParser.parseOperationOption(input, factory);
+    }
+
+    private String readRequiredInput() throws InputException {
+        String input = this.readInput();
+        if (input == null) {
+            throw new InputException(MESSAGE_END_OF_INPUT);
         }
+        return input;
+    }
 
-        return formattedInput;
+    /**
+     * Displays a prompt to the user in interactive mode.
+     */
+    private void prompt(String msg) {
+        if (this.isInteractive) {
+            this.show(msg);
+        }
     }
 
     /**
@@ -96,7 +143,27 @@ public class Cli {
      * @param msg A {@code String} message to be displayed.
      */
     public void show(String msg) {
-        System.out.println("\n" + msg);
+        this.show(Feedback.of(msg));
+    }
+
+    /**
+     * Displays feedback to the user, streaming it to the output as it is written.
+     *
+     * @param feedback A {@link Feedback} to be displayed.
+     */
+    public void show(Feedback feedback) {
+        if (this.isInteractive) {
+            this.out.write("\n");
+        }
+        try {
+            feedback.writeTo(this.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.out.println();
+        if (this.isInteractive) {
+            this.out.flush();
+        }
     }
 
     /**
@@ -132,27 +199,37 @@ public class Cli {
         this.showError(errorMessage);
     }
 
+    /**
+     * Displays an error message for a failure to read or save the account.
+     *
+     * @param exception An {@link IOException} instance.
+     */
+    public void showStorageError(IOException exception) {
+        String errorMessage = String.format(MESSAGE_STORAGE_ERROR, exception.getMessage());
+        this.showError(errorMessage);
+    }
+
     /**
      * Prompts the user for a new operation.
      */
     public void showNewOperationPrompt() {
-        this.show(MESSAGE_PROMPT_NEW_OPERATION);
-        this.show(MESSAGE_OPTIONS);
+        this.prompt(MESSAGE_PROMPT_NEW_OPERATION);
+        this.prompt(MESSAGE_OPTIONS);
     }
 
     /**
      * Displays the welcome message and available options to the user.
      */
     public void showStartupMessage() {
-        this.show(MESSAGE_WELCOME);
-        this.show(MESSAGE_OPTIONS);
+        this.prompt(MESSAGE_WELCOME);
+        this.prompt(MESSAGE_OPTIONS);
     }
 
     /**
      * Displays the exit message to the user.
      */
     public void showExitMessage() {
-        this.show(MESSAGE_EXIT);
+        this.prompt(MESSAGE_EXIT);
     }
     
     /**
@@ -168,6 +245,11 @@ public class Cli {
      * Closes the CLI.
      */
     public void close() {
-        this.scanner.close();
+        this.out.flush();
+        try {
+            this.in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,378 @@
+package awesomegic.bank.cli;
+
+import static awesomegic.bank.cli.Message.MESSAGE_EMPTY_BALANCE_WINDOW;
+import static java.util.Objects.requireNonNull;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.model.account.BalanceQuery;
+import awesomegic.bank.model.account.MonthlySummaries;
+import awesomegic.bank.model.account.StatementRange;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.operation.OperationEntry;
+import awesomegic.bank.operation.OperationFactory;
+
+/**
+ * Parses the lines of the banking command protocol, independently of where the lines come from.
+ * <p>
+ * The {@link Cli} reads lines from the console, and the network server receives them from its sessions;
+ * both turn them into operations through the same parsing rules and prompts.
+ */
+public final class CommandParser {
+    private static final String MESSAGE_PROMPT_AMOUNT = "Please enter the amount to %s:\n";
+    public static final String MESSAGE_PROMPT_STATEMENT_RANGE = "Please enter the range to print "
+        + "(last <count>, page <number> <size>, or <from yyyy-mm-dd> <to yyyy-mm-dd>):\n";
+    public static final String MESSAGE_PROMPT_BALANCE_QUERY = "Please enter the date to find the balance at, "
+        + "or the window to summarize (<yyyy-mm-dd[Thh:mm[:ss]]>, or <from> <to>):\n";
+    private static final String MESSAGE_INVALID_INPUT = "Invalid number format.";
+    private static final String MESSAGE_NON_POSITIVE_TRANSACTION_AMOUNT = "Transaction amount must be positive.";
+    private static final String MESSAGE_MORE_THAN_TWO_DECIMAL_PLACES = "Transaction amount must have at most two decimal places.";
+    private static final String MESSAGE_TRANSACTION_AMOUNT_TOO_LARGE = "Transaction amount is too large.";
+    private static final String MESSAGE_INVALID_STATEMENT_RANGE = "Invalid statement range.";
+    private static final String MESSAGE_NON_POSITIVE_STATEMENT_RANGE = "Count, page number and page size must be positive.";
+    private static final String MESSAGE_REVERSED_STATEMENT_RANGE = "Start date must not be after end date.";
+    private static final String MESSAGE_INVALID_BALANCE_QUERY = "Invalid date or window.";
+    public static final String MESSAGE_PROMPT_INTEREST_RATE = "Please enter the annual interest rate in percent:\n";
+    private static final String MESSAGE_INVALID_INTEREST_RATE = "Invalid interest rate.";
+    private static final String MESSAGE_INVALID_OPTION = "Please enter a valid option (D/W/P/R/B/S/Q).";
+    public static final long AMOUNT_INVALID_FORMAT = -1;
+    public static final long AMOUNT_NON_POSITIVE = -2;
+    public static final long AMOUNT_TOO_MANY_DECIMAL_PLACES = -3;
+    public static final long AMOUNT_TOO_LARGE = -4;
+    private static final int CENTS_DECIMAL_PLACES = 2;
+    private static final int MAX_EXPONENT_DIGITS = 10;
+    private static final int DATE_LENGTH = "yyyy-mm-dd".length();
+    private static final int MAX_INTEREST_RATE_DECIMAL_PLACES = 6;
+
+    private CommandParser() {
+    }
+
+    /**
+     * Returns the prompt asking for the amount of a transaction.
+     *
+     * @param transactionType A {@link String} describing the type of transaction (e.g., "deposit", "withdraw").
+     */
+    public static String promptForAmount(String transactionType) {
+        return String.format(MESSAGE_PROMPT_AMOUNT, transactionType);
+    }
+
+    /**
+     * Parses and validates an operation option, which is the key of an operation in either case, surrounded
+     * by any whitespace. The key is looked up by its character, without trimming or lowercasing the input.
+     *
+     * @param input The line holding the option.
+     * @param factory The {@link OperationFactory} that knows the valid options.
+     * @return A {@code String} representing the operation option, as registered in the factory.
+     * @throws InputException If the input is not a valid operation option.
+     */
+    public static String parseOperationOption(String input, OperationFactory factory) throws InputException {
+        requireNonNull(input);
+        requireNonNull(factory);
+
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        OperationEntry entry = end - start == 1 ? factory.getEntry(input.charAt(start)) : null;
+        if (entry == null) {
+            throw new InputException(MESSAGE_INVALID_OPTION);
+        }
+
+        return entry.getKey();
+    }
+
+    /**
+     * Parses and validates a transaction amount.
+     *
+     * @param input The line holding the amount.
+     * @return The validated transaction amount as {@link Money}.
+     * @throws InputException If the input is not a valid number, is non-positive, has more than two
+     *     decimal places or is larger than {@link Money#MAX_VALUE}.
+     */
+    public static Money parseTransactionAmount(String input) throws InputException {
+        long cents = parseCents(input);
+        if (cents == AMOUNT_INVALID_FORMAT) {
+            throw new InputException(MESSAGE_INVALID_INPUT);
+        }
+        if (cents == AMOUNT_NON_POSITIVE) {
+            throw new InputException(MESSAGE_NON_POSITIVE_TRANSACTION_AMOUNT);
+        }
+        if (cents == AMOUNT_TOO_MANY_DECIMAL_PLACES) {
+            throw new InputException(MESSAGE_MORE_THAN_TWO_DECIMAL_PLACES);
+        }
+        if (cents == AMOUNT_TOO_LARGE) {
+            throw new InputException(MESSAGE_TRANSACTION_AMOUNT_TOO_LARGE);
+        }
+        return Money.ofCents(cents);
+    }
+
+    /**
+     * Parses a transaction amount into cents in a single pass, without allocating or throwing.
+     * <p>
+     * The input is read like {@code new BigDecimal(input.trim())}: an optional sign, digits with at most one
+     * decimal point, and an optional exponent such as {@code 1.5e2}. Its scale is the number of digits after
+     * the point minus the exponent, so {@code 1.000} has three decimal places even though it is a whole number.
+     * The checks are made in the same order as {@link #parseTransactionAmount(String)} reports them.
+     *
+     * @param input The characters holding the amount.
+     * @return The amount in cents, which is always positive, or one of the negative {@code AMOUNT_*} codes:
+     *     {@link #AMOUNT_INVALID_FORMAT}, {@link #AMOUNT_NON_POSITIVE}, {@link #AMOUNT_TOO_MANY_DECIMAL_PLACES}
+     *     or {@link #AMOUNT_TOO_LARGE}.
+     */
+    public static long parseCents(CharSequence input) {
+        requireNonNull(input);
+
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return AMOUNT_INVALID_FORMAT;
+        }
+
+        int index = start;
+        boolean isNegative = input.charAt(index) == '-';
+        if (isNegative || input.charAt(index) == '+') {
+            index++;
+        }
+
+        long unscaled = 0;
+        boolean isOverflowed = false;
+        boolean isZero = true;
+        boolean hasDigits = false;
+        boolean hasPoint = false;
+        long fractionDigits = 0;
+        for (; index < end; index++) {
+            char c = input.charAt(index);
+            int digit = Character.digit(c, 10);
+            if (digit >= 0) {
+                hasDigits = true;
+                isZero &= digit == 0;
+                if (hasPoint) {
+                    fractionDigits++;
+                }
+                if (unscaled > (Long.MAX_VALUE - digit) / 10) {
+                    isOverflowed = true;
+                } else if (!isOverflowed) {
+                    unscaled = unscaled * 10 + digit;
+                }
+            } else if (c == '.' && !hasPoint) {
+                hasPoint = true;
+            } else if (c == 'e' || c == 'E') {
+                break;
+            } else {
+                return AMOUNT_INVALID_FORMAT;
+            }
+        }
+
+        long exponent = 0;
+        if (index < end) {
+            exponent = parseExponent(input, index + 1, end);
+            if (exponent == Long.MIN_VALUE) {
+                return AMOUNT_INVALID_FORMAT;
+            }
+        }
+
+        long scale = fractionDigits - exponent;
+        if (!hasDigits || (int) scale != scale) {
+            return AMOUNT_INVALID_FORMAT;
+        }
+        if (isZero || isNegative) {
+            return AMOUNT_NON_POSITIVE;
+        }
+        if (scale > CENTS_DECIMAL_PLACES) {
+            return AMOUNT_TOO_MANY_DECIMAL_PLACES;
+        }
+        if (isOverflowed) {
+            return AMOUNT_TOO_LARGE;
+        }
+
+        long cents = unscaled;
+        for (long i = scale; i < CENTS_DECIMAL_PLACES; i++) {
+            if (cents > Long.MAX_VALUE / 10) {
+                return AMOUNT_TOO_LARGE;
+            }
+            cents *= 10;
+        }
+        return cents;
+    }
+
+    /**
+     * Parses the exponent of an amount, which follows the {@code e} and is limited to the values that
+     * {@link java.math.BigDecimal} accepts: an optional sign and at most ten significant digits fitting an
+     * {@code int}.
+     *
+     * @return The exponent, or {@link Long#MIN_VALUE} if it is invalid.
+     */
+    private static long parseExponent(CharSequence input, int start, int end) {
+        int index = start;
+        boolean isNegative = index < end && input.charAt(index) == '-';
+        if (isNegative || (index < end && input.charAt(index) == '+')) {
+            index++;
+        }
+
+        while (end - index > MAX_EXPONENT_DIGITS && Character.digit(input.charAt(index), 10) == 0) {
+            index++;
+        }
+        if (index == end || end - index > MAX_EXPONENT_DIGITS) {
+            return Long.MIN_VALUE;
+        }
+
+        long exponent = 0;
+        for (; index < end; index++) {
+            int digit = Character.digit(input.charAt(index), 10);
+            if (digit < 0) {
+                return Long.MIN_VALUE;
+            }
+            exponent = exponent * 10 + digit;
+        }
+
+        exponent = isNegative ? -exponent : exponent;
+        return (int) exponent == exponent ? exponent : Long.MIN_VALUE;
+    }
+
+    /**
+     * Parses and validates the range of transactions to print in a statement.
+     *
+     * @param input The line holding the range.
+     * @return A {@link StatementRange} for the last transactions, a page of transactions or a date window.
+     * @throws InputException If the input is not a valid range.
+     */
+    public static StatementRange parseStatementRange(String input) throws InputException {
+        requireNonNull(input);
+
+        String[] tokens = input.trim().toLowerCase().split("\\s+");
+        try {
+            if (tokens.length == 2 && tokens[0].equals("last")) {
+                int count = Integer.parseInt(tokens[1]);
+                if (count <= 0) {
+                    throw new InputException(MESSAGE_NON_POSITIVE_STATEMENT_RANGE);
+                }
+                return StatementRange.last(count);
+            }
+
+            if (tokens.length == 3 && tokens[0].equals("page")) {
+                int pageNumber = Integer.parseInt(tokens[1]);
+                int pageSize = Integer.parseInt(tokens[2]);
+                if (pageNumber <= 0 || pageSize <= 0) {
+                    throw new InputException(MESSAGE_NON_POSITIVE_STATEMENT_RANGE);
+                }
+                return StatementRange.page(pageNumber, pageSize);
+            }
+
+            if (tokens.length == 2) {
+                LocalDate from = LocalDate.parse(tokens[0]);
+                LocalDate to = LocalDate.parse(tokens[1]);
+                if (from.isAfter(to)) {
+                    throw new InputException(MESSAGE_REVERSED_STATEMENT_RANGE);
+                }
+                if (to.equals(LocalDate.MAX)) {
+                    // The range ends before the next day, which cannot be represented.
+                    throw new InputException(MESSAGE_INVALID_STATEMENT_RANGE);
+                }
+                return StatementRange.between(from, to);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InputException(MESSAGE_INVALID_STATEMENT_RANGE);
+        }
+
+        throw new InputException(MESSAGE_INVALID_STATEMENT_RANGE);
+    }
+
+    /**
+     * Parses and validates an annual interest rate, in percent.
+     *
+     * @param input The line holding the interest rate.
+     * @return The interest rate as a {@link BigDecimal}.
+     * @throws InputException If the input is not a number between 0 and 100 with at most six decimal places.
+     */
+    public static BigDecimal parseInterestRate(String input) throws InputException {
+        requireNonNull(input);
+
+        BigDecimal interestRate;
+        try {
+            interestRate = new BigDecimal(input.trim());
+        } catch (NumberFormatException e) {
+            throw new InputException(MESSAGE_INVALID_INTEREST_RATE);
+        }
+
+        if (interestRate.scale() > MAX_INTEREST_RATE_DECIMAL_PLACES) {
+            throw new InputException(MESSAGE_INVALID_INTEREST_RATE);
+        }
+
+        try {
+            MonthlySummaries.requireValidInterestRate(interestRate);
+        } catch (IllegalArgumentException e) {
+            throw new InputException(e.getMessage());
+        }
+        return interestRate;
+    }
+
+    /**
+     * Parses and validates a question about the past balance of an account.
+     * <p>
+     * A single date or date and time asks for the balance at that instant, a date meaning the end of that day.
+     * Two of them ask for a summary of the window between them, a date starting at the start of that day as
+     * the start of the window and ending at the end of that day as the end of the window.
+     *
+     * @param input The line holding the date or the window.
+     * @return A {@link BalanceQuery} for the balance at an instant or over a window.
+     * @throws InputException If the input is not a valid date or window.
+     */
+    public static BalanceQuery parseBalanceQuery(String input) throws InputException {
+        requireNonNull(input);
+
+        String[] tokens = input.trim().split("\\s+");
+        try {
+            if (tokens.length == 1) {
+                return BalanceQuery.asOf(parseInstant(tokens[0], true));
+            }
+
+            if (tokens.length == 2) {
+                LocalDateTime from = parseInstant(tokens[0], false);
+                LocalDateTime to = parseInstant(tokens[1], true);
+                if (tokens[1].length() == DATE_LENGTH) {
+                    to = to.plusNanos(1);
+                }
+                if (!from.isBefore(to)) {
+                    throw new InputException(MESSAGE_EMPTY_BALANCE_WINDOW);
+                }
+                return BalanceQuery.between(from, to);
+            }
+        } catch (DateTimeException e) {
+            throw new InputException(MESSAGE_INVALID_BALANCE_QUERY);
+        }
+
+        throw new InputException(MESSAGE_INVALID_BALANCE_QUERY);
+    }
+
+    /**
+     * Parses a date, or a date and time, as an instant.
+     *
+     * @param isEndOfDay {@code true} to read a date as the last instant of the day,
+     *     {@code false} to read it as the first.
+     */
+    private static LocalDateTime parseInstant(String token, boolean isEndOfDay) {
+        if (token.length() != DATE_LENGTH) {
+            return LocalDateTime.parse(token);
+        }
+
+        LocalDate date = LocalDate.parse(token);
+        return isEndOfDay ? date.atTime(LocalTime.MAX) : date.atStartOfDay();
+    }
+}
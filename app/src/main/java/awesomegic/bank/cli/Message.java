@@ -5,5 +5,12 @@ public class Message {
     public static final String MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT = "Deposit amount must be positive.";
     public static final String MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT = "Withdrawal amount must be positive.";
     public static final String MESSAGE_NON_ZERO_TRANSACTION_AMOUNT = "Transaction amount must be non-zero.";
+    public static final String MESSAGE_BALANCE_LIMIT_EXCEEDED = "Account balance must not exceed the maximum balance.";
     public static final String MESSAGE_NEGATIVE_BALANCE = "Account balance must be non-negative.";
+    public static final String MESSAGE_UNORDERED_TRANSACTION = "Transactions must be added in chronological order.";
+    public static final String MESSAGE_INVALID_DATE_TIME_RANGE = "Start of the range must not be after its end.";
+    public static final String MESSAGE_EMPTY_BALANCE_WINDOW = "Start of the window must be before its end.";
+    public static final String MESSAGE_INVALID_INTEREST_RATE = "Interest rate must be between 0 and 100 percent.";
+    public static final String MESSAGE_NEGATIVE_TRANSACTION_COUNT = "Transaction count must be non-negative.";
+    public static final String MESSAGE_INVALID_PAGE = "Page number and page size must be positive.";
 }
@@ -0,0 +1,278 @@
+package awesomegic.bank.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Represents the counters and latency histograms of the operations processed by the bank system.
+ * <p>
+ * Every outcome is counted, and a random sample of the operations is timed in three stages: parsing the
+ * arguments, executing the operation on the account and rendering its result. Reading the clock costs about as
+ * much as a deposit takes to parse, so timing every operation would slow the bank noticeably; sampling one in
+ * {@value #DEFAULT_SAMPLING_INTERVAL} by default keeps the overhead to a few percent while the percentiles stay
+ * representative. The latencies are kept per operation type in {@link LatencyHistogram}s, so recording them
+ * takes no locks and allocates nothing once a type has been seen. The process-wide instance returned by
+ * {@link #getDefault()} is registered as a JMX MBean under {@value #OBJECT_NAME}.
+ */
+public final class Metrics implements MetricsMBean {
+    public static final String OBJECT_NAME = "awesomegic.bank:type=Metrics";
+    public static final int DEFAULT_SAMPLING_INTERVAL = 16;
+    private static final String MESSAGE_INVALID_SAMPLING_INTERVAL = "Sampling interval must be a power of two.";
+    private static final String MESSAGE_UNKNOWN_STAGE = "The stage '%s' is not recognized.";
+    private static final String MESSAGE_HEADER = "%-32s | %-7s | %10s | %10s | %10s | %10s | %10s";
+    private static final String MESSAGE_ROW = "%-32s | %-7s | %10d | %10.1f | %10.1f | %10.1f | %10.1f";
+    private static final String MESSAGE_COUNTERS =
+        "Successful operations: %d\nInvalid inputs: %d\nInvalid operations: %d";
+    private static final String JMX_THREAD_NAME = "metrics-jmx";
+    private static final double NANOS_PER_MICRO = 1_000;
+    private static final Metrics DEFAULT = createDefault();
+
+    private final Map<Class<?>, OperationLatencies> latencies = new ConcurrentHashMap<>();
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder inputErrorCount = new LongAdder();
+    private final LongAdder operationErrorCount = new LongAdder();
+    private volatile int samplingMask;
+
+    /**
+     * Represents a stage in the processing of an operation.
+     */
+    public enum Stage {
+        PARSE,
+        EXECUTE,
+        RENDER
+    }
+
+    /**
+     * Constructs {@code Metrics} that time one in {@value #DEFAULT_SAMPLING_INTERVAL} operations.
+     */
+    public Metrics() {
+        this(DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * Constructs {@code Metrics} that time one in the specified number of operations.
+     *
+     * @param samplingInterval The average number of operations per timed operation, a power of two.
+     * @throws IllegalArgumentException if the sampling interval is not a power of two.
+     */
+    public Metrics(int samplingInterval) {
+        this.setSamplingInterval(samplingInterval);
+    }
+
+    /**
+     * Returns the process-wide metrics, which are exposed over JMX.
+     */
+    public static Metrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates the process-wide metrics and registers them over JMX in the background, since starting the
+     * platform MBean server takes a few hundred milliseconds that the first prompt should not wait for.
+     */
+    private static Metrics createDefault() {
+        Metrics metrics = new Metrics();
+        Thread registration = new Thread(() -> metrics.register(OBJECT_NAME), JMX_THREAD_NAME);
+        registration.setDaemon(true);
+        registration.start();
+        return metrics;
+    }
+
+    private void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(name));
+        } catch (JMException | SecurityException e) {
+            // The metrics are still recorded and shown by the CLI without JMX.
+        }
+    }
+
+    /**
+     * Decides whether the next operation should be timed.
+     *
+     * @return {@code true} for a random one in {@link #getSamplingInterval()} calls.
+     */
+    public boolean shouldTime() {
+        return (ThreadLocalRandom.current().nextInt() & this.samplingMask) == 0;
+    }
+
+    /**
+     * Records an operation that completed successfully.
+     */
+    public void recordSuccess() {
+        this.successCount.increment();
+    }
+
+    /**
+     * Records the latencies of a timed operation.
+     *
+     * @param operationType The class of the operation.
+     * @param parseNanos The time taken to parse the arguments of the operation.
+     * @param executeNanos The time taken to execute the operation.
+     * @param renderNanos The time taken to show the result of the operation.
+     */
+    public void recordLatencies(Class<?> operationType, long parseNanos, long executeNanos, long renderNanos) {
+        OperationLatencies latencies = this.latenciesOf(operationType);
+        latencies.parse.record(parseNanos);
+        latencies.execute.record(executeNanos);
+        latencies.render.record(renderNanos);
+    }
+
+    /**
+     * Records a command rejected because of invalid input.
+     */
+    public void recordInputError() {
+        this.inputErrorCount.increment();
+    }
+
+    /**
+     * Records an operation rejected by the account.
+     */
+    public void recordOperationError() {
+        this.operationErrorCount.increment();
+    }
+
+    /**
+     * Returns the latency histogram of a stage of an operation type.
+     *
+     * @param operationType The class of the operation.
+     * @param stage The {@link Stage} of the operation.
+     */
+    public LatencyHistogram getHistogram(Class<?> operationType, Stage stage) {
+        requireNonNull(stage);
+
+        return this.latenciesOf(operationType).get(stage);
+    }
+
+    @Override
+    public long getSuccessCount() {
+        return this.successCount.sum();
+    }
+
+    @Override
+    public long getInputErrorCount() {
+        return this.inputErrorCount.sum();
+    }
+
+    @Override
+    public long getOperationErrorCount() {
+        return this.operationErrorCount.sum();
+    }
+
+    @Override
+    public int getSamplingInterval() {
+        return this.samplingMask + 1;
+    }
+
+    @Override
+    public void setSamplingInterval(int samplingInterval) {
+        if (samplingInterval <= 0 || Integer.bitCount(samplingInterval) != 1) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_SAMPLING_INTERVAL);
+        }
+        this.samplingMask = samplingInterval - 1;
+    }
+
+    @Override
+    public String[] getOperationTypes() {
+        return this.sortedLatencies().keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public double getLatencyMicros(String operationType, String stage, double percentile) {
+        requireNonNull(operationType);
+        requireNonNull(stage);
+
+        Stage parsedStage;
+        try {
+            parsedStage = Stage.valueOf(stage);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(MESSAGE_UNKNOWN_STAGE, stage), e);
+        }
+
+        OperationLatencies latencies = this.sortedLatencies().get(operationType);
+        if (latencies == null) {
+            return 0;
+        }
+        return latencies.get(parsedStage).getPercentile(percentile) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(MESSAGE_COUNTERS,
+            this.getSuccessCount(), this.getInputErrorCount(), this.getOperationErrorCount()));
+        report.append("\n\n").append(String.format(MESSAGE_HEADER,
+            "Operation", "Stage", "Samples", "Mean (us)", "p50 (us)", "p99 (us)", "Max (us)"));
+
+        for (Map.Entry<String, OperationLatencies> entry : this.sortedLatencies().entrySet()) {
+            for (Stage stage : Stage.values()) {
+                LatencyHistogram histogram = entry.getValue().get(stage);
+                report.append('\n').append(String.format(MESSAGE_ROW,
+                    entry.getKey(), stage, histogram.getCount(),
+                    histogram.getMean() / NANOS_PER_MICRO,
+                    histogram.getPercentile(50) / NANOS_PER_MICRO,
+                    histogram.getPercentile(99) / NANOS_PER_MICRO,
+                    histogram.getMax() / NANOS_PER_MICRO));
+            }
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (OperationLatencies latencies : this.latencies.values()) {
+            for (Stage stage : Stage.values()) {
+                latencies.get(stage).reset();
+            }
+        }
+        this.successCount.reset();
+        this.inputErrorCount.reset();
+        this.operationErrorCount.reset();
+    }
+
+    private OperationLatencies latenciesOf(Class<?> operationType) {
+        OperationLatencies latencies = this.latencies.get(operationType);
+        if (latencies == null) {
+            latencies = this.latencies.computeIfAbsent(requireNonNull(operationType), type -> new OperationLatencies());
+        }
+        return latencies;
+    }
+
+    private Map<String, OperationLatencies> sortedLatencies() {
+        Map<String, OperationLatencies> sorted = new TreeMap<>();
+        for (Map.Entry<Class<?>, OperationLatencies> entry : this.latencies.entrySet()) {
+            sorted.put(entry.getKey().getSimpleName(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    /**
+     * Represents the latency histograms of the stages of one operation type.
+     */
+    private static final class OperationLatencies {
+        private final LatencyHistogram parse = new LatencyHistogram();
+        private final LatencyHistogram execute = new LatencyHistogram();
+        private final LatencyHistogram render = new LatencyHistogram();
+
+        private LatencyHistogram get(Stage stage) {
+            switch (stage) {
+            case PARSE:
+                return this.parse;
+            case EXECUTE:
+                return this.execute;
+            default:
+                return this.render;
+            }
+        }
+    }
+}
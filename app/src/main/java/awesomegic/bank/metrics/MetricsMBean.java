@@ -0,0 +1,60 @@
+package awesomegic.bank.metrics;
+
+/**
+ * Represents the management interface through which {@link Metrics} are exposed over JMX.
+ */
+public interface MetricsMBean {
+    /**
+     * Returns the number of operations that completed successfully.
+     */
+    long getSuccessCount();
+
+    /**
+     * Returns the number of commands rejected because of invalid input.
+     */
+    long getInputErrorCount();
+
+    /**
+     * Returns the number of operations rejected by the account, such as withdrawals that overdraw it.
+     */
+    long getOperationErrorCount();
+
+    /**
+     * Returns the average number of operations per timed operation.
+     */
+    int getSamplingInterval();
+
+    /**
+     * Sets the average number of operations per timed operation, such as 1 to time every operation.
+     *
+     * @param samplingInterval The sampling interval, a power of two.
+     * @throws IllegalArgumentException if the sampling interval is not a power of two.
+     */
+    void setSamplingInterval(int samplingInterval);
+
+    /**
+     * Returns the names of the operation types that have been recorded.
+     */
+    String[] getOperationTypes();
+
+    /**
+     * Returns a latency percentile of a stage of an operation type, in microseconds.
+     *
+     * @param operationType The name of the operation type, as returned by {@link #getOperationTypes()}.
+     * @param stage The name of the {@link Metrics.Stage}: {@code PARSE}, {@code EXECUTE} or {@code RENDER}.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The latency, or zero if the operation type has not been recorded.
+     * @throws IllegalArgumentException if the stage or the percentile is invalid.
+     */
+    double getLatencyMicros(String operationType, String stage, double percentile);
+
+    /**
+     * Returns a table of the counters and latencies of every operation type.
+     */
+    String report();
+
+    /**
+     * Clears all counters and latencies.
+     */
+    void reset();
+}
@@ -2,38 +2,113 @@ package awesomegic.bank.model.account;
 
 import static java.util.Objects.requireNonNull;
 
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import awesomegic.bank.model.transaction.ColumnWidths;
+import awesomegic.bank.model.transaction.DateTimeFormatCache;
 import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
 import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionFormat;
+import awesomegic.bank.model.transaction.TransactionList;
 
 /**
  * Represents an account statement for a bank account.
+ * <p>
+ * The table of a full statement is kept in a {@link StatementCache}, so printing the statement again only
+ * renders the transactions added since it was last printed.
  */
 public class AccountStatement {
     private static final String NO_TRANSACTIONS_FOUND = "No Transactions Found!";
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d MMM yyyy h:mm:ssa");
+    private static final String PAGE_FOOTER = "Page %d of %d";
+    private static final String HEADER_DATE = "Date";
+    private static final String HEADER_AMOUNT = "Amount";
+    private static final String HEADER_BALANCE = "Balance";
+    private static final int CHUNK_SIZE = 1 << 13;
+    private static final int CHUNKS_AHEAD_PER_WORKER = 2;
 
     private final ReadOnlyTransactionList transactions;
-    private int dateColumnWidth = 4;
-    private int amountColumnWidth = 10;
-    private int balanceColumnWidth = 10;
+    private final ColumnWidths columnWidths;
+    private final String footer;
 
     /**
      * Constructs a new AccountStatement object with the specified list of transactions.
+     * The column widths are taken from the list rather than computed from every transaction.
      *
      * @param transactions The list of transactions associated with the account statement.
      */
     AccountStatement(ReadOnlyTransactionList transactions) {
+        this(transactions, "");
+    }
+
+    private AccountStatement(ReadOnlyTransactionList transactions, String footer) {
         requireNonNull(transactions);
+        requireNonNull(footer);
 
         this.transactions = transactions;
+        this.columnWidths = transactions.getColumnWidths();
+        this.footer = footer;
+    }
 
-        for (Transaction transaction : this.transactions) {
-            this.dateColumnWidth = Math.max(this.dateColumnWidth, transaction.dateTime.format(formatter).length() + 2);
-            this.amountColumnWidth = Math.max(this.amountColumnWidth, String.valueOf(transaction.amount).length() + 2);
-            this.balanceColumnWidth = Math.max(this.balanceColumnWidth, String.valueOf(transaction.balance).length() + 2);
-        }
+    /**
+     * Returns a statement of the transactions made at or after {@code from} and before {@code to}.
+     *
+     * @throws IllegalArgumentException if {@code from} is after {@code to}.
+     */
+    public AccountStatement between(LocalDateTime from, LocalDateTime to) {
+        return new AccountStatement(this.transactions.between(from, to));
+    }
+
+    /**
+     * Returns a statement of the last {@code count} transactions.
+     *
+     * @throws IllegalArgumentException if {@code count} is negative.
+     */
+    public AccountStatement last(int count) {
+        return new AccountStatement(this.transactions.last(count));
+    }
+
+    /**
+     * Returns a statement of a single page of transactions, with pages numbered from 1 in chronological order.
+     * The statement ends with the page number and the total number of pages.
+     *
+     * @param pageNumber The number of the page.
+     * @param pageSize The number of transactions per page.
+     * @throws IllegalArgumentException if the page number or page size is not positive.
+     */
+    public AccountStatement page(int pageNumber, int pageSize) {
+        ReadOnlyTransactionList page = this.transactions.page(pageNumber, pageSize);
+        return new AccountStatement(page, String.format(PAGE_FOOTER, pageNumber, this.getPageCount(pageSize)));
+    }
+
+    /**
+     * Returns a statement of the totals and interest of every month, from the month of the first transaction
+     * to the month of the last. See {@link MonthlySummaries}.
+     *
+     * @param annualInterestRate The interest rate per year, in percent.
+     * @throws IllegalArgumentException if the interest rate is not between 0 and 100.
+     */
+    public MonthlyStatement byMonth(BigDecimal annualInterestRate) {
+        return new MonthlyStatement(MonthlySummaries.summarize(this.transactions, annualInterestRate));
+    }
+
+    /**
+     * Returns the number of pages of the specified size needed to hold this statement.
+     *
+     * @param pageSize The number of transactions per page.
+     */
+    public int getPageCount(int pageSize) {
+        return (int) (((long) this.transactions.size() + pageSize - 1) / pageSize);
     }
 
     /**
@@ -44,37 +119,251 @@ public class AccountStatement {
      */
     @Override
     public String toString() {
+        StringWriter writer = new StringWriter();
+        try {
+            this.writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the account statement to the specified writer, one chunk of rows at a time, without building the
+     * whole table in memory.
+     *
+     * @param writer The {@link Writer} to write the statement to.
+     * @throws IOException If the statement cannot be written.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        requireNonNull(writer);
+
         if (this.transactions.isEmpty()) {
-            return NO_TRANSACTIONS_FOUND;
+            writer.write(NO_TRANSACTIONS_FOUND);
+        } else if (this.transactions instanceof TransactionList) {
+            this.writeCachedTable(writer, (TransactionList) this.transactions, StatementCache.DEFAULT);
+        } else {
+            this.writeTransactionTable(writer);
+        }
+
+        if (!this.footer.isEmpty()) {
+            writer.write("\n");
+            writer.write(this.footer);
         }
-        return getTransactionTable();
     }
 
-    private String centeredCell(String str, int width) {
-        int leftPadding = (width - str.length() + 1) / 2;
-        int rightPadding = (width - str.length()) / 2;
-        String format = "%" + (leftPadding == 0 ? "" : leftPadding) + "s%s%" + (rightPadding == 0 ? "" : rightPadding) + "s";
-        return String.format(format, "", str, "");
+    /**
+     * Returns the account statement as a sequence of chunks of at most {@value #CHUNK_SIZE} rows, each rendered
+     * only when it is taken, so that a caller that must not block can render a long statement only as fast as
+     * it sends it. Taken together, the chunks are the text {@link #writeTo(Writer)} writes.
+     */
+    public Iterator<String> chunks() {
+        return new Iterator<String>() {
+            private int nextRow = -1;
+            private boolean hasFooter = !AccountStatement.this.footer.isEmpty();
+
+            @Override
+            public boolean hasNext() {
+                return this.nextRow < AccountStatement.this.transactions.size() || this.hasFooter;
+            }
+
+            @Override
+            public String next() {
+                AccountStatement statement = AccountStatement.this;
+                int size = statement.transactions.size();
+                if (this.nextRow < 0) {
+                    this.nextRow = 0;
+                    if (size == 0) {
+                        return NO_TRANSACTIONS_FOUND;
+                    }
+                    return statement.getRow(HEADER_DATE, HEADER_AMOUNT, HEADER_BALANCE);
+                }
+                if (this.nextRow < size) {
+                    int from = this.nextRow;
+                    this.nextRow = Math.min(from + CHUNK_SIZE, size);
+                    return statement.renderRows(statement.transactions, from, this.nextRow);
+                }
+                if (this.hasFooter) {
+                    this.hasFooter = false;
+                    return "\n" + statement.footer;
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    /**
+     * Returns the specified text centered in a cell of the specified width, with any odd space on the left.
+     */
+    static String centeredCell(String str, int width) {
+        StringBuilder cell = new StringBuilder(Math.max(width, str.length()));
+        appendCenteredCell(cell, str, width);
+        return cell.toString();
+    }
+
+    /**
+     * Appends the specified text centered in a cell of the specified width, padding it with spaces directly
+     * rather than through a format pattern.
+     */
+    static void appendCenteredCell(StringBuilder out, String str, int width) {
+        int padding = Math.max(0, width - str.length());
+        appendSpaces(out, (padding + 1) / 2);
+        out.append(str);
+        appendSpaces(out, padding / 2);
+    }
+
+    private static void appendSpaces(StringBuilder out, int count) {
+        for (int i = 0; i < count; i++) {
+            out.append(' ');
+        }
     }
 
     private String getRow(String date, String amount, String balance) {
-        String[] list = new String[]{
-            centeredCell(date, dateColumnWidth),
-            centeredCell(amount, amountColumnWidth),
-            centeredCell(balance, balanceColumnWidth),
-        };
-        return String.join("|", list);
+        StringBuilder row = new StringBuilder(StatementCache.Table.getRowLength(this.columnWidths));
+        this.appendRow(row, date, amount, balance);
+        return row.toString();
+    }
+
+    private void appendRow(StringBuilder out, String date, String amount, String balance) {
+        appendCenteredCell(out, date, this.columnWidths.dateColumnWidth);
+        out.append('|');
+        appendCenteredCell(out, amount, this.columnWidths.amountColumnWidth);
+        out.append('|');
+        appendCenteredCell(out, balance, this.columnWidths.balanceColumnWidth);
+    }
+
+    private void writeTransactionTable(Writer writer) throws IOException {
+        writer.write(getRow(HEADER_DATE, HEADER_AMOUNT, HEADER_BALANCE));
+        this.appendRows(writer, this.transactions);
+    }
+
+    /**
+     * Writes the table of the whole list, reusing the table cached for an earlier version of the list.
+     * The rows rendered before are kept as they are if the column widths have not changed, or re-padded to
+     * the new widths otherwise, and only the transactions added since are rendered. The table is written
+     * one chunk at a time as it is rendered, while the chunks are kept for the cache.
+     */
+    private void writeCachedTable(Writer writer, TransactionList list, StatementCache cache) throws IOException {
+        long tableLength = (StatementCache.Table.getRowLength(this.columnWidths) + 1L) * (list.size() + 1L);
+        if (!cache.canHold(tableLength)) {
+            this.writeTransactionTable(writer);
+            return;
+        }
+
+        Object lineage = list.getLineage();
+        StatementCache.Table table = cache.get(lineage);
+        if (table != null && table.rowCount > list.size()) {
+            // An earlier version of the list is being printed after a later one.
+            this.writeTransactionTable(writer);
+            return;
+        }
+
+        boolean hasSameWidths = table != null && table.columnWidths.equals(this.columnWidths);
+        if (hasSameWidths && table.rowCount == list.size()) {
+            table.writeTo(writer);
+            return;
+        }
+
+        StatementCache.Table.Builder builder = new StatementCache.Table.Builder(writer);
+        int renderedRowCount = 0;
+        if (table == null) {
+            builder.append(getRow(HEADER_DATE, HEADER_AMOUNT, HEADER_BALANCE));
+        } else {
+            if (hasSameWidths) {
+                builder.appendChunks(table);
+            } else {
+                this.repad(table, builder);
+            }
+            renderedRowCount = table.rowCount;
+        }
+        this.appendRows(builder, list.subList(renderedRowCount, list.size()));
+        cache.put(lineage, builder.build(list.size(), this.columnWidths));
+    }
+
+    /**
+     * Appends the specified table with its rows padded to the column widths of this statement, one chunk
+     * of the table at a time. The cells are cut out of the rendered rows at the old widths rather than
+     * formatted again.
+     */
+    private void repad(StatementCache.Table table, Appendable out) throws IOException {
+        ColumnWidths oldWidths = table.columnWidths;
+        int oldRowLength = StatementCache.Table.getRowLength(oldWidths);
+        int newRowLength = StatementCache.Table.getRowLength(this.columnWidths);
+        int amountStart = oldWidths.dateColumnWidth + 1;
+        int balanceStart = amountStart + oldWidths.amountColumnWidth + 1;
+
+        out.append(getRow(HEADER_DATE, HEADER_AMOUNT, HEADER_BALANCE));
+        boolean isHeader = true;
+        for (String chunk : table.getChunks()) {
+            int index = 0;
+            if (isHeader) {
+                index = oldRowLength;
+                isHeader = false;
+            }
+            int rowCount = (chunk.length() - index) / (oldRowLength + 1);
+            StringBuilder text = new StringBuilder(rowCount * (newRowLength + 1));
+            for (; index < chunk.length(); index += oldRowLength + 1) {
+                int start = index + 1;
+                text.append('\n');
+                this.appendRow(text,
+                    chunk.substring(start, start + oldWidths.dateColumnWidth).trim(),
+                    chunk.substring(start + amountStart, start + balanceStart - 1).trim(),
+                    chunk.substring(start + balanceStart, start + oldRowLength).trim());
+            }
+            out.append(text);
+        }
     }
 
-    private String getTransactionTable() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(getRow("Date", "Amount", "Balance"));
+    /**
+     * Appends a row per transaction, each preceded by a line break, one chunk of {@value #CHUNK_SIZE} rows
+     * at a time. When more than one core is available, the chunks are rendered on the common fork-join pool,
+     * a few chunks ahead of the one being appended, and appended in order.
+     */
+    private void appendRows(Appendable out, ReadOnlyTransactionList rows) throws IOException {
+        int size = rows.size();
+        int chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunkCount <= 1 || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            for (int from = 0; from < size; from += CHUNK_SIZE) {
+                out.append(this.renderRows(rows, from, Math.min(from + CHUNK_SIZE, size)));
+            }
+            return;
+        }
 
-        for (Transaction t : transactions) {
-            sb.append("\n");
-            sb.append(getRow(t.dateTime.format(formatter), String.valueOf(t.amount), String.valueOf(t.balance)));
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunksAhead = CHUNKS_AHEAD_PER_WORKER * pool.getParallelism();
+        Deque<ForkJoinTask<String>> renderedChunks = new ArrayDeque<>(chunksAhead);
+        int nextChunk = 0;
+        try {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                for (; nextChunk < chunkCount && nextChunk < chunk + chunksAhead; nextChunk++) {
+                    int from = nextChunk * CHUNK_SIZE;
+                    int to = Math.min(from + CHUNK_SIZE, size);
+                    renderedChunks.add(pool.submit(() -> this.renderRows(rows, from, to)));
+                }
+                out.append(renderedChunks.remove().join());
+            }
+        } finally {
+            for (ForkJoinTask<String> renderedChunk : renderedChunks) {
+                renderedChunk.cancel(false);
+            }
         }
+    }
 
-        return sb.toString();
+    /**
+     * Returns the rows of the transactions between {@code from}, inclusive, and {@code to}, exclusive,
+     * each preceded by a line break.
+     */
+    private String renderRows(ReadOnlyTransactionList rows, int from, int to) {
+        StringBuilder out = new StringBuilder((to - from) * (StatementCache.Table.getRowLength(this.columnWidths) + 1));
+        DateTimeFormatCache dateTimeFormat = new DateTimeFormatCache();
+        for (int i = from; i < to; i++) {
+            Transaction t = rows.get(i);
+            out.append('\n');
+            this.appendRow(out,
+                dateTimeFormat.format(t.dateTime),
+                TransactionFormat.formatAmount(t.amount),
+                TransactionFormat.formatAmount(t.balance));
+        }
+        return out.toString();
     }
 }
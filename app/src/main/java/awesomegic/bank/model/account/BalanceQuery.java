@@ -0,0 +1,77 @@
+package awesomegic.bank.model.account;
+
+import static awesomegic.bank.cli.Message.MESSAGE_EMPTY_BALANCE_WINDOW;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDateTime;
+
+import awesomegic.bank.model.transaction.BalanceSummary;
+import awesomegic.bank.model.transaction.TransactionFormat;
+
+/**
+ * Represents a question about the past balance of an account, answered from its transactions:
+ * either the balance at an instant, or the lowest, highest and average balance over a window of time.
+ */
+public final class BalanceQuery {
+    private static final String BALANCE_AS_OF = "Balance as of %s: $%s";
+    private static final String BALANCE_BETWEEN = "Balance from %s to %s: lowest $%s, highest $%s, average $%s";
+
+    /** The start of the window, or {@code null} for the balance at an instant. */
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    private BalanceQuery(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns a query for the balance left by the last transaction made at or before the specified date and time.
+     */
+    public static BalanceQuery asOf(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        return new BalanceQuery(null, dateTime);
+    }
+
+    /**
+     * Returns a query for the lowest, highest and average balance from {@code from}, inclusive,
+     * to {@code to}, exclusive.
+     *
+     * @throws IllegalArgumentException if {@code from} is not before {@code to}.
+     */
+    public static BalanceQuery between(LocalDateTime from, LocalDateTime to) {
+        requireAllNonNull(from, to);
+
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException(MESSAGE_EMPTY_BALANCE_WINDOW);
+        }
+
+        return new BalanceQuery(from, to);
+    }
+
+    /**
+     * Answers this query for the specified account.
+     *
+     * @param account The account whose transactions are queried.
+     * @return The answer, ready to be shown.
+     */
+    public String answer(BankAccount account) {
+        requireNonNull(account);
+
+        if (this.from == null) {
+            return String.format(BALANCE_AS_OF,
+                TransactionFormat.formatDateTime(this.to),
+                TransactionFormat.formatAmount(account.getBalanceAsOf(this.to)));
+        }
+
+        BalanceSummary summary = account.summarizeBalances(this.from, this.to);
+        return String.format(BALANCE_BETWEEN,
+            TransactionFormat.formatDateTime(this.from),
+            TransactionFormat.formatDateTime(this.to),
+            TransactionFormat.formatAmount(summary.getMinimum()),
+            TransactionFormat.formatAmount(summary.getMaximum()),
+            TransactionFormat.formatAmount(summary.getAverage()));
+    }
+}
@@ -1,5 +1,6 @@
 package awesomegic.bank.model.account;
 
+import static awesomegic.bank.cli.Message.MESSAGE_BALANCE_LIMIT_EXCEEDED;
 import static awesomegic.bank.cli.Message.MESSAGE_INVALID_WITHDRAWAL_AMOUNT;
 import static awesomegic.bank.cli.Message.MESSAGE_NEGATIVE_BALANCE;
 import static awesomegic.bank.cli.Message.MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT;
@@ -9,10 +10,15 @@ import static awesomegic.bank.utils.NumberUtils.requireNonNegative;
 import static awesomegic.bank.utils.NumberUtils.requirePositive;
 import static java.util.Objects.requireNonNull;
 
-import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.BalanceSummary;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
 import awesomegic.bank.model.transaction.Transaction;
 import awesomegic.bank.model.transaction.TransactionList;
 
@@ -20,14 +26,16 @@ import awesomegic.bank.model.transaction.TransactionList;
  * Represents an immutable bank account.
  */
 public final class BankAccount {
-    private final BigDecimal balance;
+    /** The clock of the system time zone, looked up once rather than on every transaction. */
+    private static final Clock CLOCK = Clock.systemDefaultZone();
+    private final Money balance;
     private final TransactionList transactions;
     
     /**
      * Constructs a new BankAccount object with a zero balance.
      */
     public BankAccount() {
-        this.balance = BigDecimal.ZERO.setScale(2);
+        this.balance = Money.ZERO;
         this.transactions = new TransactionList();
     }
 
@@ -37,7 +45,7 @@ public final class BankAccount {
      * @param balance The initial balance of the bank account.
      * @param transactions The list of transactions associated with the bank account.
      */
-    public BankAccount(BigDecimal balance, TransactionList transactions) {
+    public BankAccount(Money balance, TransactionList transactions) {
         requireAllNonNull(balance, transactions);
         requireNonNegative(balance, MESSAGE_NEGATIVE_BALANCE);
 
@@ -50,15 +58,20 @@ public final class BankAccount {
      *
      * @param amount The amount to be deposited.
      * @return A {@link BankAccount} with the updated balance and transaction list.
-     * @throws IllegalArgumentException if the amount is not positive.
+     * @throws IllegalArgumentException if the amount is not positive or would take the balance over
+     *     {@link Money#MAX_VALUE}.
      */
-    public BankAccount deposit(BigDecimal amount) {
+    public BankAccount deposit(Money amount) {
         requireNonNull(amount);
         requirePositive(amount, MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT);
 
-        BigDecimal newBalance = this.balance.add(amount);
+        if (!this.isDepositWithinLimit(amount)) {
+            throw new IllegalArgumentException(MESSAGE_BALANCE_LIMIT_EXCEEDED);
+        }
+
+        Money newBalance = this.balance.add(amount);
 
-        Transaction transaction = new Transaction(amount, newBalance, LocalDateTime.now());
+        Transaction transaction = new Transaction(amount, newBalance, this.nextTransactionDateTime());
         TransactionList newTransactionsList = transactions.add(transaction);
 
         return new BankAccount(newBalance, newTransactionsList);
@@ -71,7 +84,7 @@ public final class BankAccount {
      * @return A {@link BankAccount} with the updated balance and transaction list.
      * @throws IllegalArgumentException if the amount is not positive or exceeds the balance.
      */
-    public BankAccount withdraw(BigDecimal amount) {
+    public BankAccount withdraw(Money amount) {
         requireNonNull(amount);
         requirePositive(amount, MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT);
 
@@ -79,14 +92,35 @@ public final class BankAccount {
             throw new IllegalArgumentException(MESSAGE_INVALID_WITHDRAWAL_AMOUNT);
         }
 
-        BigDecimal newBalance = this.balance.subtract(amount);
+        Money newBalance = this.balance.subtract(amount);
         
-        Transaction transaction = new Transaction(amount.negate(), newBalance, LocalDateTime.now());
+        Transaction transaction = new Transaction(amount.negate(), newBalance, this.nextTransactionDateTime());
         TransactionList newTransactionsList = transactions.add(transaction);
 
         return new BankAccount(newBalance, newTransactionsList);
     }
 
+    /**
+     * Returns a {@link Batch} that applies many deposits and withdrawals to this account at once.
+     */
+    public Batch batch() {
+        return new Batch(this);
+    }
+
+    /**
+     * Returns the date and time for a new transaction, which is never earlier than the last transaction
+     * so that the history stays in chronological order even if the system clock moves back.
+     */
+    private LocalDateTime nextTransactionDateTime() {
+        LocalDateTime now = LocalDateTime.now(CLOCK);
+        if (this.transactions.isEmpty()) {
+            return now;
+        }
+
+        LocalDateTime latest = this.transactions.getDateTime(this.transactions.size() - 1);
+        return now.isBefore(latest) ? latest : now;
+    }
+
     /**
      * Checks if the balance is sufficient for a withdrawal of the specified amount.
      *
@@ -94,11 +128,54 @@ public final class BankAccount {
      * @return {@code true} if the balance is sufficient, {@code false} otherwise.
      * @throws IllegalArgumentException if the amount is not positive.
      */
-    public boolean isBalanceSufficient(BigDecimal withdrawalAmount) {
+    public boolean isBalanceSufficient(Money withdrawalAmount) {
         requireNonNull(withdrawalAmount);
         requirePositive(withdrawalAmount, MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT);
 
-        return this.balance.compareTo(withdrawalAmount) >= 0;
+        return !this.balance.isLessThan(withdrawalAmount);
+    }
+
+    /**
+     * Checks if a deposit of the specified amount keeps the balance within {@link Money#MAX_VALUE}.
+     *
+     * @param depositAmount The amount to be deposited.
+     * @return {@code true} if the deposit fits, {@code false} otherwise.
+     * @throws IllegalArgumentException if the amount is not positive.
+     */
+    public boolean isDepositWithinLimit(Money depositAmount) {
+        requireNonNull(depositAmount);
+        requirePositive(depositAmount, MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT);
+
+        return this.balance.canAdd(depositAmount);
+    }
+
+    /**
+     * Returns the transactions made on the bank account, in chronological order.
+     */
+    public ReadOnlyTransactionList getTransactions() {
+        return this.transactions;
+    }
+
+    /**
+     * Returns the balance of the account right after the last transaction made at or before the specified
+     * date and time, or zero if there is none.
+     *
+     * @param dateTime The date and time to find the balance at.
+     */
+    public Money getBalanceAsOf(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        return this.transactions.getBalanceAsOf(dateTime);
+    }
+
+    /**
+     * Returns the lowest, highest and time-weighted average balance of the account from {@code from},
+     * inclusive, to {@code to}, exclusive.
+     *
+     * @throws IllegalArgumentException if {@code from} is not before {@code to}.
+     */
+    public BalanceSummary summarizeBalances(LocalDateTime from, LocalDateTime to) {
+        return this.transactions.summarizeBalances(from, to);
     }
 
     /**
@@ -139,4 +216,99 @@ public final class BankAccount {
 
         return sb.toString();
     }
+
+    /**
+     * Represents a batch of deposits and withdrawals applied to a bank account in one pass.
+     * <p>
+     * Each amount is validated as it is added, against the balance left by the amounts added before it.
+     * A rejected amount leaves the batch unchanged. {@link #build()} then publishes a single
+     * {@link BankAccount} holding all the transactions of the batch, without creating an account or a
+     * transaction list per step. The account the batch was created from is never changed.
+     */
+    public static final class Batch {
+        private final BankAccount account;
+        private final List<Money> amounts = new ArrayList<>();
+        private Money balance;
+
+        private Batch(BankAccount account) {
+            this.account = account;
+            this.balance = account.balance;
+        }
+
+        /**
+         * Adds a deposit of the specified amount to the batch.
+         *
+         * @return This batch.
+         * @throws IllegalArgumentException if the amount is not positive or would take the balance left by the
+         *     amounts already in the batch over {@link Money#MAX_VALUE}.
+         */
+        public Batch deposit(Money amount) {
+            requireNonNull(amount);
+            requirePositive(amount, MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT);
+
+            if (!this.balance.canAdd(amount)) {
+                throw new IllegalArgumentException(MESSAGE_BALANCE_LIMIT_EXCEEDED);
+            }
+
+            this.balance = this.balance.add(amount);
+            this.amounts.add(amount);
+            return this;
+        }
+
+        /**
+         * Adds a withdrawal of the specified amount to the batch.
+         *
+         * @return This batch.
+         * @throws IllegalArgumentException if the amount is not positive or exceeds the balance left by the
+         *     amounts already in the batch.
+         */
+        public Batch withdraw(Money amount) {
+            requireNonNull(amount);
+            requirePositive(amount, MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT);
+
+            if (this.balance.isLessThan(amount)) {
+                throw new IllegalArgumentException(MESSAGE_INVALID_WITHDRAWAL_AMOUNT);
+            }
+
+            this.balance = this.balance.subtract(amount);
+            this.amounts.add(amount.negate());
+            return this;
+        }
+
+        /**
+         * Returns the balance the account will have once the batch is applied.
+         */
+        public Money getBalance() {
+            return this.balance;
+        }
+
+        /**
+         * Returns the number of deposits and withdrawals in the batch.
+         */
+        public int size() {
+            return this.amounts.size();
+        }
+
+        /**
+         * Applies the batch to the account. The transactions of the batch share the same date and time.
+         *
+         * @return A {@link BankAccount} with the balance and transactions after the whole batch,
+         *     or the original account if the batch is empty.
+         */
+        public BankAccount build() {
+            if (this.amounts.isEmpty()) {
+                return this.account;
+            }
+
+            LocalDateTime dateTime = this.account.nextTransactionDateTime();
+            List<Transaction> transactions = new ArrayList<>(this.amounts.size());
+            Money balance = this.account.balance;
+            for (Money amount : this.amounts) {
+                balance = balance.add(amount);
+                transactions.add(new Transaction(amount, balance, dateTime));
+            }
+
+            return new BankAccount(balance, this.account.transactions.addAll(transactions));
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package awesomegic.bank.model.account;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import awesomegic.bank.model.transaction.TransactionFormat;
+
+/**
+ * Represents an account statement with a row of totals and interest per month, rather than a row per transaction.
+ */
+public class MonthlyStatement {
+    private static final String NO_TRANSACTIONS_FOUND = "No Transactions Found!";
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final String[] HEADERS = {"Month", "Transactions", "Deposits", "Withdrawals", "Interest", "Balance"};
+    private static final int CELL_PADDING = 2;
+
+    private final List<MonthlySummary> summaries;
+
+    /**
+     * Constructs a new MonthlyStatement of the specified summaries.
+     *
+     * @param summaries The summaries of the months, in chronological order.
+     */
+    MonthlyStatement(List<MonthlySummary> summaries) {
+        requireNonNull(summaries);
+
+        this.summaries = List.copyOf(summaries);
+    }
+
+    /**
+     * Returns the summaries of the months, in chronological order.
+     */
+    public List<MonthlySummary> getSummaries() {
+        return this.summaries;
+    }
+
+    /**
+     * Returns a string representation of the monthly statement.
+     */
+    @Override
+    public String toString() {
+        StringWriter writer = new StringWriter();
+        try {
+            this.writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the monthly statement to the specified writer.
+     *
+     * @param writer The {@link Writer} to write the statement to.
+     * @throws IOException If the statement cannot be written.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        requireNonNull(writer);
+
+        if (this.summaries.isEmpty()) {
+            writer.write(NO_TRANSACTIONS_FOUND);
+            return;
+        }
+
+        List<String[]> rows = new ArrayList<>(this.summaries.size());
+        int[] widths = new int[HEADERS.length];
+        for (int column = 0; column < HEADERS.length; column++) {
+            widths[column] = HEADERS[column].length();
+        }
+        for (MonthlySummary summary : this.summaries) {
+            String[] row = {
+                summary.getMonth().format(MONTH_FORMATTER),
+                String.valueOf(summary.getDepositCount() + summary.getWithdrawalCount()),
+                TransactionFormat.formatAmount(summary.getTotalDeposits()),
+                TransactionFormat.formatAmount(summary.getTotalWithdrawals()),
+                TransactionFormat.formatAmount(summary.getInterest()),
+                TransactionFormat.formatAmount(summary.getClosingBalance()),
+            };
+            for (int column = 0; column < row.length; column++) {
+                widths[column] = Math.max(widths[column], row[column].length() + CELL_PADDING);
+            }
+            rows.add(row);
+        }
+
+        writer.write(getRow(HEADERS, widths));
+        for (String[] row : rows) {
+            writer.write("\n");
+            writer.write(getRow(row, widths));
+        }
+    }
+
+    private static String getRow(String[] cells, int[] widths) {
+        String[] centeredCells = new String[cells.length];
+        for (int column = 0; column < cells.length; column++) {
+            centeredCells[column] = AccountStatement.centeredCell(cells[column], widths[column]);
+        }
+        return String.join("|", centeredCells);
+    }
+}
@@ -0,0 +1,225 @@
+package awesomegic.bank.model.account;
+
+import static awesomegic.bank.cli.Message.MESSAGE_INVALID_INTEREST_RATE;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+
+/**
+ * Computes the {@link MonthlySummary} of every month of a transaction history.
+ * <p>
+ * The transactions of each month are found by binary search and split into pieces of at most
+ * {@value #PIECE_SIZE} transactions, which are scanned in parallel on the common fork-join pool. The pieces
+ * are then merged in order with exact arithmetic: totals are added as {@link Money}, and the interest of a
+ * month is computed from the sum of its daily closing balances as a {@link BigDecimal} and rounded once.
+ * <p>
+ * Interest accrues every day on the balance at the end of the day, at the annual rate divided by 365.
+ * The last month is accrued to its end as if no more transactions were made.
+ */
+public final class MonthlySummaries {
+    private static final int PIECE_SIZE = 1 << 16;
+    private static final BigDecimal MAX_INTEREST_RATE = BigDecimal.valueOf(100);
+    private static final BigDecimal PERCENT_DAYS_PER_YEAR = BigDecimal.valueOf(100 * 365);
+
+    private MonthlySummaries() {
+    }
+
+    /**
+     * Returns the summaries of the months from the first to the last transaction, scanning long histories
+     * in parallel.
+     *
+     * @param transactions The transactions to summarize.
+     * @param annualInterestRate The interest rate per year, in percent.
+     * @throws IllegalArgumentException if the interest rate is not between 0 and 100.
+     */
+    public static List<MonthlySummary> summarize(ReadOnlyTransactionList transactions,
+            BigDecimal annualInterestRate) {
+        return summarize(transactions, annualInterestRate, true);
+    }
+
+    /**
+     * Returns the same summaries as {@link #summarize(ReadOnlyTransactionList, BigDecimal)}, scanning the
+     * history on the calling thread only.
+     */
+    public static List<MonthlySummary> summarizeSequentially(ReadOnlyTransactionList transactions,
+            BigDecimal annualInterestRate) {
+        return summarize(transactions, annualInterestRate, false);
+    }
+
+    /**
+     * Checks that the specified annual interest rate, in percent, is between 0 and 100.
+     *
+     * @throws IllegalArgumentException if the interest rate is out of range.
+     */
+    public static void requireValidInterestRate(BigDecimal annualInterestRate) {
+        if (annualInterestRate.signum() < 0 || annualInterestRate.compareTo(MAX_INTEREST_RATE) > 0) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_INTEREST_RATE);
+        }
+    }
+
+    private static List<MonthlySummary> summarize(ReadOnlyTransactionList transactions,
+            BigDecimal annualInterestRate, boolean isParallel) {
+        requireAllNonNull(transactions, annualInterestRate);
+        requireValidInterestRate(annualInterestRate);
+
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+
+        YearMonth firstMonth = YearMonth.from(transactions.getDateTime(0));
+        YearMonth lastMonth = YearMonth.from(transactions.getDateTime(transactions.size() - 1));
+        int monthCount = Math.toIntExact(firstMonth.until(lastMonth, ChronoUnit.MONTHS) + 1);
+
+        List<Piece> pieces = new ArrayList<>();
+        int monthStart = 0;
+        for (int month = 0; month < monthCount; month++) {
+            int monthEnd = month == monthCount - 1
+                ? transactions.size()
+                : transactions.indexOfFirstAtOrAfter(firstMonth.plusMonths(month + 1).atDay(1).atStartOfDay());
+            for (int from = monthStart; from < monthEnd; from += PIECE_SIZE) {
+                pieces.add(new Piece(month, from, Math.min(from + PIECE_SIZE, monthEnd)));
+            }
+            monthStart = monthEnd;
+        }
+
+        PieceTask task = new PieceTask(transactions, pieces, 0, pieces.size());
+        if (isParallel && pieces.size() > 1) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+
+        return merge(pieces, firstMonth, monthCount, annualInterestRate);
+    }
+
+    private static List<MonthlySummary> merge(List<Piece> pieces, YearMonth firstMonth, int monthCount,
+            BigDecimal annualInterestRate) {
+        List<MonthlySummary> summaries = new ArrayList<>(monthCount);
+        long balance = 0;
+        int pieceIndex = 0;
+        for (int month = 0; month < monthCount; month++) {
+            YearMonth yearMonth = firstMonth.plusMonths(month);
+            long openingBalance = balance;
+            Money totalDeposits = Money.ZERO;
+            Money totalWithdrawals = Money.ZERO;
+            int depositCount = 0;
+            int withdrawalCount = 0;
+            long[] closingBalances = new long[Piece.DAY_SLOTS];
+            int closedDays = 0;
+
+            for (; pieceIndex < pieces.size() && pieces.get(pieceIndex).month == month; pieceIndex++) {
+                Piece piece = pieces.get(pieceIndex);
+                totalDeposits = totalDeposits.add(Money.ofCents(piece.totalDeposits));
+                totalWithdrawals = totalWithdrawals.add(Money.ofCents(piece.totalWithdrawals));
+                depositCount += piece.depositCount;
+                withdrawalCount += piece.withdrawalCount;
+                for (int day = 1; day < Piece.DAY_SLOTS; day++) {
+                    if ((piece.closedDays & (1 << day)) != 0) {
+                        closingBalances[day] = piece.closingBalances[day];
+                    }
+                }
+                closedDays |= piece.closedDays;
+            }
+
+            BigDecimal balanceDays = BigDecimal.ZERO;
+            for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+                if ((closedDays & (1 << day)) != 0) {
+                    balance = closingBalances[day];
+                }
+                balanceDays = balanceDays.add(BigDecimal.valueOf(balance));
+            }
+            long interest = balanceDays.multiply(annualInterestRate)
+                .divide(PERCENT_DAYS_PER_YEAR, 0, RoundingMode.HALF_UP)
+                .longValueExact();
+
+            summaries.add(new MonthlySummary(yearMonth, Money.ofCents(openingBalance), totalDeposits,
+                depositCount, totalWithdrawals, withdrawalCount, Money.ofCents(interest), Money.ofCents(balance)));
+        }
+        return summaries;
+    }
+
+    /**
+     * Represents a run of transactions within a single month, and the totals of its transactions once scanned.
+     */
+    private static final class Piece {
+        private static final int DAY_SLOTS = 32;
+
+        private final int month;
+        private final int fromIndex;
+        private final int toIndex;
+        private long totalDeposits;
+        private long totalWithdrawals;
+        private int depositCount;
+        private int withdrawalCount;
+        private final long[] closingBalances = new long[DAY_SLOTS];
+        /** The days of the month with a transaction in this piece, as a bit per day. */
+        private int closedDays;
+
+        private Piece(int month, int fromIndex, int toIndex) {
+            this.month = month;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        private void scan(ReadOnlyTransactionList transactions) {
+            for (int i = this.fromIndex; i < this.toIndex; i++) {
+                Transaction transaction = transactions.get(i);
+                long amount = transaction.amount.getCents();
+                if (amount > 0) {
+                    this.totalDeposits = Math.addExact(this.totalDeposits, amount);
+                    this.depositCount++;
+                } else {
+                    this.totalWithdrawals = Math.subtractExact(this.totalWithdrawals, amount);
+                    this.withdrawalCount++;
+                }
+                int day = transaction.dateTime.getDayOfMonth();
+                this.closingBalances[day] = transaction.balance.getCents();
+                this.closedDays |= 1 << day;
+            }
+        }
+    }
+
+    /**
+     * Scans a range of pieces, splitting it in halves until a single piece is left.
+     */
+    private static final class PieceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ReadOnlyTransactionList transactions;
+        private final List<Piece> pieces;
+        private final int from;
+        private final int to;
+
+        private PieceTask(ReadOnlyTransactionList transactions, List<Piece> pieces, int from, int to) {
+            this.transactions = transactions;
+            this.pieces = pieces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1 || !inForkJoinPool()) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.pieces.get(i).scan(this.transactions);
+                }
+                return;
+            }
+
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(new PieceTask(this.transactions, this.pieces, this.from, mid),
+                new PieceTask(this.transactions, this.pieces, mid, this.to));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package awesomegic.bank.model.account;
+
+import java.time.YearMonth;
+import java.util.Objects;
+
+import awesomegic.bank.model.money.Money;
+
+/**
+ * Represents the totals of the transactions made on an account in a calendar month, and the interest
+ * accrued on its daily closing balance over the month.
+ */
+public final class MonthlySummary {
+    private final YearMonth month;
+    private final Money openingBalance;
+    private final Money totalDeposits;
+    private final int depositCount;
+    private final Money totalWithdrawals;
+    private final int withdrawalCount;
+    private final Money interest;
+    private final Money closingBalance;
+
+    MonthlySummary(YearMonth month, Money openingBalance, Money totalDeposits, int depositCount,
+            Money totalWithdrawals, int withdrawalCount, Money interest, Money closingBalance) {
+        this.month = month;
+        this.openingBalance = openingBalance;
+        this.totalDeposits = totalDeposits;
+        this.depositCount = depositCount;
+        this.totalWithdrawals = totalWithdrawals;
+        this.withdrawalCount = withdrawalCount;
+        this.interest = interest;
+        this.closingBalance = closingBalance;
+    }
+
+    /**
+     * Returns the month summarized.
+     */
+    public YearMonth getMonth() {
+        return this.month;
+    }
+
+    /**
+     * Returns the balance at the start of the month.
+     */
+    public Money getOpeningBalance() {
+        return this.openingBalance;
+    }
+
+    /**
+     * Returns the sum of the deposits made in the month.
+     */
+    public Money getTotalDeposits() {
+        return this.totalDeposits;
+    }
+
+    /**
+     * Returns the number of deposits made in the month.
+     */
+    public int getDepositCount() {
+        return this.depositCount;
+    }
+
+    /**
+     * Returns the sum of the withdrawals made in the month, as a non-negative amount.
+     */
+    public Money getTotalWithdrawals() {
+        return this.totalWithdrawals;
+    }
+
+    /**
+     * Returns the number of withdrawals made in the month.
+     */
+    public int getWithdrawalCount() {
+        return this.withdrawalCount;
+    }
+
+    /**
+     * Returns the interest accrued on the daily closing balance over the month, rounded to the nearest cent.
+     */
+    public Money getInterest() {
+        return this.interest;
+    }
+
+    /**
+     * Returns the balance at the end of the month, not counting the interest.
+     */
+    public Money getClosingBalance() {
+        return this.closingBalance;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof MonthlySummary)) {
+            return false;
+        }
+
+        MonthlySummary other = (MonthlySummary) obj;
+        return this.month.equals(other.month)
+            && this.openingBalance.equals(other.openingBalance)
+            && this.totalDeposits.equals(other.totalDeposits)
+            && this.depositCount == other.depositCount
+            && this.totalWithdrawals.equals(other.totalWithdrawals)
+            && this.withdrawalCount == other.withdrawalCount
+            && this.interest.equals(other.interest)
+            && this.closingBalance.equals(other.closingBalance);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.month, this.openingBalance, this.totalDeposits, this.depositCount,
+            this.totalWithdrawals, this.withdrawalCount, this.interest, this.closingBalance);
+    }
+}
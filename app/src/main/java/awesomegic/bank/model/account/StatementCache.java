@@ -0,0 +1,210 @@
+package awesomegic.bank.model.account;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import awesomegic.bank.model.transaction.ColumnWidths;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Represents a bounded cache of rendered statement tables, keyed by the lineage of a {@link TransactionList}.
+ * <p>
+ * A table rendered for one version of a list can be reused by every later version with the same lineage,
+ * since those versions only add rows to it. The cache holds at most a fixed number of characters, evicting
+ * the least recently printed tables first, and holds the tables through soft references so that they are
+ * also released when memory runs low.
+ */
+final class StatementCache {
+    // Large heaps would otherwise let the default cache grow to gigabytes of rarely printed tables.
+    private static final long MAX_DEFAULT_CAPACITY = 1 << 25;
+
+    static final StatementCache DEFAULT =
+        new StatementCache(Math.min(Runtime.getRuntime().maxMemory() / 16, MAX_DEFAULT_CAPACITY));
+
+    private final long capacity;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long length;
+
+    /**
+     * Constructs an empty cache holding at most {@code capacity} characters.
+     */
+    StatementCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns whether a table of the specified length can be held by this cache. A table is built in a
+     * single {@link StringBuilder}, so it can never be longer than {@link Integer#MAX_VALUE} characters.
+     */
+    boolean canHold(long tableLength) {
+        return tableLength <= this.capacity && tableLength <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the table cached for the specified lineage, or {@code null} if there is none.
+     */
+    synchronized Table get(Object lineage) {
+        Entry entry = this.entries.get(lineage);
+        if (entry == null) {
+            return null;
+        }
+
+        Table table = entry.table.get();
+        if (table == null) {
+            this.remove(lineage);
+        }
+        return table;
+    }
+
+    /**
+     * Caches the table for the specified lineage, unless a table with more rows is already cached for it.
+     */
+    synchronized void put(Object lineage, Table table) {
+        requireNonNull(lineage);
+        requireNonNull(table);
+
+        if (!this.canHold(table.length)) {
+            return;
+        }
+
+        Entry existing = this.entries.get(lineage);
+        if (existing != null) {
+            Table existingTable = existing.table.get();
+            if (existingTable == table
+                || existingTable != null && existingTable.rowCount > table.rowCount) {
+                return;
+            }
+            this.remove(lineage);
+        }
+
+        this.entries.put(lineage, new Entry(table));
+        this.length += table.length;
+
+        Iterator<Map.Entry<Object, Entry>> eldest = this.entries.entrySet().iterator();
+        while (this.length > this.capacity) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            this.length -= evicted.length;
+        }
+    }
+
+    private void remove(Object lineage) {
+        this.length -= this.entries.remove(lineage).length;
+    }
+
+    /**
+     * Represents an immutable rendered table: a header row followed by one row per transaction, each row
+     * preceded by a line break. The text is kept in the chunks it was rendered in, so that a table is never
+     * copied into one large string, and a later version of the table shares the chunks of the earlier one.
+     */
+    static final class Table {
+        final int rowCount;
+        final ColumnWidths columnWidths;
+        final long length;
+        private final String[] chunks;
+
+        private Table(int rowCount, ColumnWidths columnWidths, String[] chunks, long length) {
+            this.rowCount = rowCount;
+            this.columnWidths = columnWidths;
+            this.chunks = chunks;
+            this.length = length;
+        }
+
+        /**
+         * Returns the number of characters in a row of a table with the specified column widths,
+         * not counting the line break.
+         */
+        static int getRowLength(ColumnWidths columnWidths) {
+            return columnWidths.dateColumnWidth + columnWidths.amountColumnWidth
+                + columnWidths.balanceColumnWidth + 2;
+        }
+
+        /**
+         * Returns the text of the table, one chunk after another.
+         */
+        String[] getChunks() {
+            return this.chunks.clone();
+        }
+
+        /**
+         * Writes the table to the specified writer.
+         */
+        void writeTo(Writer writer) throws IOException {
+            for (String chunk : this.chunks) {
+                writer.write(chunk);
+            }
+        }
+
+        /**
+         * Represents a table that is written to a writer as it is rendered, one chunk at a time, while its
+         * chunks are kept to build the {@link Table} for the cache. The table is thus never held twice.
+         */
+        static final class Builder implements Appendable {
+            private final Writer writer;
+            private final List<String> chunks = new ArrayList<>();
+            private long length;
+
+            Builder(Writer writer) {
+                requireNonNull(writer);
+
+                this.writer = writer;
+            }
+
+            /**
+             * Writes the chunks of the specified table and keeps them as the start of the table being built.
+             */
+            Builder appendChunks(Table table) throws IOException {
+                for (String chunk : table.chunks) {
+                    this.append(chunk);
+                }
+                return this;
+            }
+
+            @Override
+            public Builder append(CharSequence csq) throws IOException {
+                String chunk = String.valueOf(csq);
+                if (!chunk.isEmpty()) {
+                    this.writer.write(chunk);
+                    this.chunks.add(chunk);
+                    this.length += chunk.length();
+                }
+                return this;
+            }
+
+            @Override
+            public Builder append(CharSequence csq, int start, int end) throws IOException {
+                return this.append(String.valueOf(csq).substring(start, end));
+            }
+
+            @Override
+            public Builder append(char c) throws IOException {
+                return this.append(String.valueOf(c));
+            }
+
+            /**
+             * Returns the table written so far, holding a header and {@code rowCount} rows.
+             */
+            Table build(int rowCount, ColumnWidths columnWidths) {
+                return new Table(rowCount, columnWidths, this.chunks.toArray(new String[0]), this.length);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long length;
+        private final SoftReference<Table> table;
+
+        private Entry(Table table) {
+            this.length = table.length;
+            this.table = new SoftReference<>(table);
+        }
+    }
+}
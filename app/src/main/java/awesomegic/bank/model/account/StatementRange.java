@@ -0,0 +1,67 @@
+package awesomegic.bank.model.account;
+
+import static awesomegic.bank.cli.Message.MESSAGE_INVALID_DATE_TIME_RANGE;
+import static awesomegic.bank.cli.Message.MESSAGE_INVALID_PAGE;
+import static awesomegic.bank.cli.Message.MESSAGE_NEGATIVE_TRANSACTION_COUNT;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents the range of transactions to include in an account statement.
+ */
+@FunctionalInterface
+public interface StatementRange {
+    /**
+     * Narrows the specified statement down to this range.
+     *
+     * @param statement The full account statement.
+     * @return An {@link AccountStatement} of the transactions in this range.
+     */
+    AccountStatement select(AccountStatement statement);
+
+    /**
+     * Returns a range of the last {@code count} transactions.
+     *
+     * @throws IllegalArgumentException if {@code count} is negative.
+     */
+    static StatementRange last(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(MESSAGE_NEGATIVE_TRANSACTION_COUNT);
+        }
+
+        return statement -> statement.last(count);
+    }
+
+    /**
+     * Returns a range of a single page of transactions, with pages numbered from 1 in chronological order.
+     *
+     * @throws IllegalArgumentException if the page number or page size is not positive.
+     */
+    static StatementRange page(int pageNumber, int pageSize) {
+        if (pageNumber <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_PAGE);
+        }
+
+        return statement -> statement.page(pageNumber, pageSize);
+    }
+
+    /**
+     * Returns a range of the transactions made from the start of {@code from} to the end of {@code to}.
+     *
+     * @throws IllegalArgumentException if {@code from} is after {@code to}, or {@code to} is the last
+     *     representable date, whose end cannot be represented.
+     */
+    static StatementRange between(LocalDate from, LocalDate to) {
+        requireAllNonNull(from, to);
+
+        if (from.isAfter(to) || to.equals(LocalDate.MAX)) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_DATE_TIME_RANGE);
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        return statement -> statement.between(start, end);
+    }
+}
@@ -0,0 +1,153 @@
+package awesomegic.bank.model.money;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents an immutable amount of money, held as a whole number of cents.
+ * <p>
+ * Amounts in the bank system never have more than two decimal places, so a {@code long} of cents holds
+ * them exactly, and adding or comparing them is plain integer arithmetic. Arithmetic that would overflow
+ * fails instead, and amounts are written with exactly two decimal places.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+    public static final Money MAX_VALUE = new Money(Long.MAX_VALUE);
+    private static final int DECIMAL_PLACES = 2;
+    private static final int CENTS_PER_UNIT = 100;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Returns the amount of the specified number of cents.
+     *
+     * @param cents The amount in cents.
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Returns the amount in cents.
+     */
+    public long getCents() {
+        return this.cents;
+    }
+
+    /**
+     * Returns the sum of this and the specified amount.
+     *
+     * @throws ArithmeticException if the sum overflows.
+     */
+    public Money add(Money other) {
+        requireNonNull(other);
+
+        return ofCents(Math.addExact(this.cents, other.cents));
+    }
+
+    /**
+     * Returns the difference of this and the specified amount.
+     *
+     * @throws ArithmeticException if the difference overflows.
+     */
+    public Money subtract(Money other) {
+        requireNonNull(other);
+
+        return ofCents(Math.subtractExact(this.cents, other.cents));
+    }
+
+    /**
+     * Returns the amount with the opposite sign.
+     *
+     * @throws ArithmeticException if the amount is the smallest {@code Money} and has no opposite.
+     */
+    public Money negate() {
+        return ofCents(Math.negateExact(this.cents));
+    }
+
+    /**
+     * Checks if the specified amount can be added to this amount without overflowing.
+     */
+    public boolean canAdd(Money other) {
+        requireNonNull(other);
+
+        long sum = this.cents + other.cents;
+        return ((this.cents ^ sum) & (other.cents ^ sum)) >= 0;
+    }
+
+    /**
+     * Returns -1, 0 or 1 as this amount is negative, zero or positive.
+     */
+    public int signum() {
+        return Long.signum(this.cents);
+    }
+
+    /**
+     * Checks if this amount is smaller than the specified amount.
+     */
+    public boolean isLessThan(Money other) {
+        requireNonNull(other);
+
+        return this.cents < other.cents;
+    }
+
+    /**
+     * Returns the length of {@link #toString()} without building the string.
+     */
+    public int formattedLength() {
+        int length = this.cents < 0 ? 2 : 1;
+        long negatedMagnitude = this.cents < 0 ? this.cents : -this.cents;
+        int digits = 1;
+        while (negatedMagnitude <= -10) {
+            negatedMagnitude /= 10;
+            digits++;
+        }
+        return length + Math.max(digits, DECIMAL_PLACES + 1);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(this.cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof Money)) {
+            return false;
+        }
+
+        Money other = (Money) obj;
+
+        return this.cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.cents);
+    }
+
+    /**
+     * Returns the amount with two decimal places and a leading minus sign if it is negative,
+     * such as {@code 1234.50} or {@code -0.05}.
+     */
+    @Override
+    public String toString() {
+        long units = this.cents / CENTS_PER_UNIT;
+        int remainder = (int) Math.abs(this.cents % CENTS_PER_UNIT);
+
+        StringBuilder sb = new StringBuilder(this.formattedLength());
+        if (this.cents < 0) {
+            sb.append('-').append(-units);
+        } else {
+            sb.append(units);
+        }
+        return sb.append('.').append((char) ('0' + remainder / 10)).append((char) ('0' + remainder % 10)).toString();
+    }
+}
@@ -0,0 +1,178 @@
+package awesomegic.bank.model.transaction;
+
+import static awesomegic.bank.cli.Message.MESSAGE_EMPTY_BALANCE_WINDOW;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import awesomegic.bank.model.money.Money;
+
+/**
+ * Represents the lowest, highest and average balance of an account over a window of time.
+ * <p>
+ * The balance over the window is the balance after the last transaction made at or before each instant,
+ * so the average is weighted by how long each balance was held.
+ */
+public final class BalanceSummary {
+    private final Money minimum;
+    private final Money maximum;
+    private final Money average;
+
+    private BalanceSummary(Money minimum, Money maximum, Money average) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.average = average;
+    }
+
+    /**
+     * Returns the lowest balance held during the window.
+     */
+    public Money getMinimum() {
+        return this.minimum;
+    }
+
+    /**
+     * Returns the highest balance held during the window.
+     */
+    public Money getMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Returns the time-weighted average balance over the window, rounded to the nearest cent.
+     */
+    public Money getAverage() {
+        return this.average;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof BalanceSummary)) {
+            return false;
+        }
+
+        BalanceSummary other = (BalanceSummary) obj;
+        return this.minimum.equals(other.minimum)
+            && this.maximum.equals(other.maximum)
+            && this.average.equals(other.average);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.minimum.hashCode() + this.maximum.hashCode()) + this.average.hashCode();
+    }
+
+    /**
+     * Summarizes the balances of a window one transaction, or one block of transactions, at a time.
+     * Instants are kept as epoch seconds and nanoseconds so that any date and time can be the end of a window.
+     */
+    static final class Accumulator {
+        private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private long balance;
+        private long minimum;
+        private long maximum;
+        private long epochSecond;
+        private int nano;
+        private double integral;
+
+        /**
+         * Constructs an accumulator for the window from {@code from}, inclusive, to {@code to}, exclusive.
+         *
+         * @param openingBalance The balance in cents at the start of the window.
+         * @throws IllegalArgumentException if {@code from} is not before {@code to}.
+         */
+        Accumulator(LocalDateTime from, LocalDateTime to, long openingBalance) {
+            requireAllNonNull(from, to);
+
+            if (!from.isBefore(to)) {
+                throw new IllegalArgumentException(MESSAGE_EMPTY_BALANCE_WINDOW);
+            }
+
+            this.from = from;
+            this.to = to;
+            this.balance = openingBalance;
+            this.minimum = openingBalance;
+            this.maximum = openingBalance;
+            this.epochSecond = from.toEpochSecond(ZoneOffset.UTC);
+            this.nano = from.getNano();
+        }
+
+        /**
+         * Moves to a transaction made at the specified date and time that left the specified balance.
+         */
+        void advance(LocalDateTime dateTime, long balance) {
+            this.advance(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano(), balance);
+        }
+
+        /**
+         * Moves to a transaction made at the specified nanoseconds since the epoch that left the specified balance.
+         */
+        void advance(long epochNanos, long balance) {
+            this.advance(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), balance);
+        }
+
+        /**
+         * Moves past a block of transactions at once, using a summary of the block.
+         *
+         * @param firstEpochNanos The time of the first transaction of the block.
+         * @param lastEpochNanos The time of the last transaction of the block.
+         * @param lastBalance The balance left by the last transaction of the block.
+         * @param blockMinimum The lowest balance left by a transaction of the block.
+         * @param blockMaximum The highest balance left by a transaction of the block.
+         * @param blockIntegral The balances of the block multiplied by the nanoseconds they were held for,
+         *     from the first to the last transaction of the block.
+         */
+        void skip(long firstEpochNanos, long lastEpochNanos, long lastBalance, long blockMinimum, long blockMaximum,
+                double blockIntegral) {
+            this.hold(Math.floorDiv(firstEpochNanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(firstEpochNanos, NANOS_PER_SECOND));
+            this.integral += blockIntegral;
+            this.epochSecond = Math.floorDiv(lastEpochNanos, NANOS_PER_SECOND);
+            this.nano = (int) Math.floorMod(lastEpochNanos, NANOS_PER_SECOND);
+            this.balance = lastBalance;
+            this.minimum = Math.min(this.minimum, blockMinimum);
+            this.maximum = Math.max(this.maximum, blockMaximum);
+        }
+
+        /**
+         * Returns the summary of the window, holding the last balance until the end of the window.
+         */
+        BalanceSummary finish() {
+            this.hold(this.to.toEpochSecond(ZoneOffset.UTC), this.to.getNano());
+
+            double duration = nanosBetween(this.from, this.to);
+            long average = Math.round(this.integral / duration);
+            average = Math.max(this.minimum, Math.min(this.maximum, average));
+            return new BalanceSummary(Money.ofCents(this.minimum), Money.ofCents(this.maximum),
+                Money.ofCents(average));
+        }
+
+        private void advance(long epochSecond, int nano, long balance) {
+            this.hold(epochSecond, nano);
+            this.balance = balance;
+            this.minimum = Math.min(this.minimum, balance);
+            this.maximum = Math.max(this.maximum, balance);
+        }
+
+        private void hold(long epochSecond, int nano) {
+            this.integral += (double) this.balance
+                * ((double) (epochSecond - this.epochSecond) * NANOS_PER_SECOND + (nano - this.nano));
+            this.epochSecond = epochSecond;
+            this.nano = nano;
+        }
+
+        private static double nanosBetween(LocalDateTime from, LocalDateTime to) {
+            long seconds = to.toEpochSecond(ZoneOffset.UTC) - from.toEpochSecond(ZoneOffset.UTC);
+            return (double) seconds * NANOS_PER_SECOND + (to.getNano() - from.getNano());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package awesomegic.bank.model.transaction;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Represents the column widths needed to display a list of transactions in a table.
+ * <p>
+ * The widths are kept alongside a transaction list and grown as transactions are added,
+ * so laying out a statement does not depend on the length of the history.
+ */
+public final class ColumnWidths {
+    public static final ColumnWidths EMPTY = new ColumnWidths(4, 10, 10);
+    private static final String MESSAGE_WIDTH_TOO_SMALL = "Column widths must not be smaller than the minimum widths.";
+    private static final int CELL_PADDING = 2;
+    private static final int MEASURE_CHUNK_SIZE = 1 << 14;
+
+    public final int dateColumnWidth;
+    public final int amountColumnWidth;
+    public final int balanceColumnWidth;
+
+    private ColumnWidths(int dateColumnWidth, int amountColumnWidth, int balanceColumnWidth) {
+        this.dateColumnWidth = dateColumnWidth;
+        this.amountColumnWidth = amountColumnWidth;
+        this.balanceColumnWidth = balanceColumnWidth;
+    }
+
+    /**
+     * Returns the column widths with the specified values, such as widths saved earlier.
+     *
+     * @throws IllegalArgumentException if a width is smaller than the width of an empty list.
+     */
+    public static ColumnWidths of(int dateColumnWidth, int amountColumnWidth, int balanceColumnWidth) {
+        if (dateColumnWidth < EMPTY.dateColumnWidth
+            || amountColumnWidth < EMPTY.amountColumnWidth
+            || balanceColumnWidth < EMPTY.balanceColumnWidth) {
+            throw new IllegalArgumentException(MESSAGE_WIDTH_TOO_SMALL);
+        }
+        return new ColumnWidths(dateColumnWidth, amountColumnWidth, balanceColumnWidth);
+    }
+
+    /**
+     * Returns the column widths needed to display the specified transactions.
+     * Long lists are measured in chunks on the common fork-join pool and the widths of the chunks merged.
+     *
+     * @param transactions The transactions to measure.
+     */
+    public static ColumnWidths measure(ReadOnlyTransactionList transactions) {
+        requireNonNull(transactions);
+
+        return new MeasureTask(transactions, 0, transactions.size()).invoke();
+    }
+
+    /**
+     * Returns the column widths needed to also display the specified transaction.
+     *
+     * @param transaction The transaction to make room for.
+     * @return The widened {@code ColumnWidths}, or this object if no column needs to grow.
+     */
+    public ColumnWidths include(Transaction transaction) {
+        requireNonNull(transaction);
+
+        return this.include(
+            TransactionFormat.formattedDateTimeLength(transaction.dateTime),
+            TransactionFormat.formattedAmountLength(transaction.amount),
+            TransactionFormat.formattedAmountLength(transaction.balance));
+    }
+
+    /**
+     * Returns the column widths needed to display cells of the specified lengths.
+     *
+     * @return The widened {@code ColumnWidths}, or this object if no column needs to grow.
+     */
+    ColumnWidths include(int dateLength, int amountLength, int balanceLength) {
+        int dateWidth = Math.max(this.dateColumnWidth, dateLength + CELL_PADDING);
+        int amountWidth = Math.max(this.amountColumnWidth, amountLength + CELL_PADDING);
+        int balanceWidth = Math.max(this.balanceColumnWidth, balanceLength + CELL_PADDING);
+
+        if (dateWidth == this.dateColumnWidth
+            && amountWidth == this.amountColumnWidth
+            && balanceWidth == this.balanceColumnWidth) {
+            return this;
+        }
+        return new ColumnWidths(dateWidth, amountWidth, balanceWidth);
+    }
+
+    /**
+     * Returns the column widths needed to display the transactions of both this and the other object.
+     *
+     * @param other The other {@code ColumnWidths}.
+     */
+    public ColumnWidths merge(ColumnWidths other) {
+        requireNonNull(other);
+
+        return this.include(
+            other.dateColumnWidth - CELL_PADDING,
+            other.amountColumnWidth - CELL_PADDING,
+            other.balanceColumnWidth - CELL_PADDING);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof ColumnWidths)) {
+            return false;
+        }
+
+        ColumnWidths other = (ColumnWidths) obj;
+
+        return this.dateColumnWidth == other.dateColumnWidth
+            && this.amountColumnWidth == other.amountColumnWidth
+            && this.balanceColumnWidth == other.balanceColumnWidth;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.dateColumnWidth, this.amountColumnWidth, this.balanceColumnWidth);
+    }
+
+    /**
+     * Measures a range of transactions, splitting it in halves until the chunks are short enough.
+     */
+    private static final class MeasureTask extends RecursiveTask<ColumnWidths> {
+        private static final long serialVersionUID = 1L;
+
+        private final ReadOnlyTransactionList transactions;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private MeasureTask(ReadOnlyTransactionList transactions, int fromIndex, int toIndex) {
+            this.transactions = transactions;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected ColumnWidths compute() {
+            if (this.toIndex - this.fromIndex <= MEASURE_CHUNK_SIZE) {
+                ColumnWidths widths = EMPTY;
+                for (int i = this.fromIndex; i < this.toIndex; i++) {
+                    widths = widths.include(this.transactions.get(i));
+                }
+                return widths;
+            }
+
+            int mid = (this.fromIndex + this.toIndex) >>> 1;
+            MeasureTask left = new MeasureTask(this.transactions, this.fromIndex, mid);
+            left.fork();
+            ColumnWidths right = new MeasureTask(this.transactions, mid, this.toIndex).compute();
+            return left.join().merge(right);
+        }
+    }
+}
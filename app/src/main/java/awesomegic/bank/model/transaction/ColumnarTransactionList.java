@@ -0,0 +1,470 @@
+package awesomegic.bank.model.transaction;
+
+import static awesomegic.bank.cli.Message.MESSAGE_NEGATIVE_BALANCE;
+import static awesomegic.bank.cli.Message.MESSAGE_NON_ZERO_TRANSACTION_AMOUNT;
+import static awesomegic.bank.cli.Message.MESSAGE_UNORDERED_TRANSACTION;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import awesomegic.bank.model.money.Money;
+
+/**
+ * Represents an immutable transactions list stored column by column in primitive arrays.
+ * <p>
+ * Amounts and balances are kept as {@code long} cents and timestamps as {@code long}
+ * nanoseconds since the epoch, in blocks of 1024 rows. A {@link Transaction} is only created when a row is
+ * read, so a long history costs 24 bytes per row instead of several objects per row.
+ * <p>
+ * Every full block also keeps the lowest, highest and time-weighted sum of its balances, so summarizing
+ * the balances of a window only reads the rows of the partial blocks at either end of it.
+ */
+public final class ColumnarTransactionList implements ReadOnlyTransactionList {
+    private static final String MESSAGE_DATE_TIME_OUT_OF_RANGE = "Transaction date and time is out of the supported range.";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int BLOCK_BITS = 10;
+    static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final long[][] NO_BLOCKS = new long[0][];
+    private static final LocalDateTime MIN_STORABLE_DATE_TIME = fromEpochNanos(Long.MIN_VALUE);
+    private static final LocalDateTime MAX_STORABLE_DATE_TIME = fromEpochNanos(Long.MAX_VALUE);
+    private static final ColumnarTransactionList EMPTY = new ColumnarTransactionList(
+        NO_BLOCKS, NO_BLOCKS, NO_BLOCKS, new long[0], new long[0], new double[0], 0, ColumnWidths.EMPTY);
+
+    private final long[][] amounts;
+    private final long[][] balances;
+    private final long[][] timestamps;
+    private final long[] blockMinimums;
+    private final long[] blockMaximums;
+    private final double[] blockIntegrals;
+    private final int size;
+    private final ColumnWidths columnWidths;
+
+    private ColumnarTransactionList(long[][] amounts, long[][] balances, long[][] timestamps, long[] blockMinimums,
+            long[] blockMaximums, double[] blockIntegrals, int size, ColumnWidths columnWidths) {
+        this.amounts = amounts;
+        this.balances = balances;
+        this.timestamps = timestamps;
+        this.blockMinimums = blockMinimums;
+        this.blockMaximums = blockMaximums;
+        this.blockIntegrals = blockIntegrals;
+        this.size = size;
+        this.columnWidths = columnWidths;
+    }
+
+    /**
+     * Returns an empty {@code ColumnarTransactionList}.
+     */
+    public static ColumnarTransactionList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a {@code ColumnarTransactionList} holding the given transactions.
+     *
+     * @param transactions The transactions to store.
+     * @return A {@code ColumnarTransactionList} with the same transactions, in the same order.
+     * @throws IllegalArgumentException if the date and time of a transaction cannot be stored.
+     */
+    public static ColumnarTransactionList copyOf(ReadOnlyTransactionList transactions) {
+        requireNonNull(transactions);
+
+        if (transactions instanceof ColumnarTransactionList) {
+            return (ColumnarTransactionList) transactions;
+        }
+
+        Builder builder = new Builder();
+        for (Transaction transaction : transactions) {
+            builder.add(transaction);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a {@link Builder} that appends to a copy of this list.
+     * Full blocks are shared with this list instead of being copied.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Transaction get(int index) {
+        Objects.checkIndex(index, this.size);
+
+        int block = index >>> BLOCK_BITS;
+        int offset = index & BLOCK_MASK;
+        return new Transaction(
+            Money.ofCents(this.amounts[block][offset]),
+            Money.ofCents(this.balances[block][offset]),
+            fromEpochNanos(this.timestamps[block][offset]));
+    }
+
+    @Override
+    public LocalDateTime getDateTime(int index) {
+        Objects.checkIndex(index, this.size);
+
+        return fromEpochNanos(this.timestamps[index >>> BLOCK_BITS][index & BLOCK_MASK]);
+    }
+
+    /**
+     * Returns the index of the first transaction made at or after the specified date and time,
+     * comparing the stored timestamps directly instead of creating a date and time per probe.
+     */
+    @Override
+    public int indexOfFirstAtOrAfter(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        if (this.size == 0 || !dateTime.isAfter(fromEpochNanos(this.timestamps[0][0]))) {
+            return 0;
+        }
+
+        long timestamp;
+        try {
+            timestamp = toEpochNanos(dateTime);
+        } catch (IllegalArgumentException e) {
+            return this.size;
+        }
+
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.timestamps[mid >>> BLOCK_BITS][mid & BLOCK_MASK] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the balance summary of a window, skipping the full blocks inside the window with their
+     * block summaries.
+     */
+    @Override
+    public BalanceSummary summarizeBalances(LocalDateTime from, LocalDateTime to) {
+        requireAllNonNull(from, to);
+
+        int fromIndex = this.indexOfFirstAfter(from);
+        int toIndex = this.indexOfFirstAtOrAfter(to);
+        long openingBalance = fromIndex == 0 ? 0 : this.getBalanceCents(fromIndex - 1);
+        BalanceSummary.Accumulator accumulator = new BalanceSummary.Accumulator(from, to, openingBalance);
+        this.accumulateBalances(fromIndex, toIndex, accumulator);
+        return accumulator.finish();
+    }
+
+    /**
+     * Feeds the balances of the transactions between {@code fromIndex}, inclusive, and {@code toIndex},
+     * exclusive, to the accumulator.
+     */
+    void accumulateBalances(int fromIndex, int toIndex, BalanceSummary.Accumulator accumulator) {
+        int index = fromIndex;
+        while (index < toIndex) {
+            int block = index >>> BLOCK_BITS;
+            int offset = index & BLOCK_MASK;
+            if (offset == 0 && toIndex - index >= BLOCK_SIZE) {
+                accumulator.skip(this.timestamps[block][0], this.timestamps[block][BLOCK_MASK],
+                    this.balances[block][BLOCK_MASK], this.blockMinimums[block], this.blockMaximums[block],
+                    this.blockIntegrals[block]);
+                index += BLOCK_SIZE;
+            } else {
+                accumulator.advance(this.timestamps[block][offset], this.balances[block][offset]);
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Returns the balance left by the transaction at the specified index, in cents.
+     */
+    long getBalanceCents(int index) {
+        Objects.checkIndex(index, this.size);
+
+        return this.balances[index >>> BLOCK_BITS][index & BLOCK_MASK];
+    }
+
+    @Override
+    public ColumnWidths getColumnWidths() {
+        return this.columnWidths;
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<Transaction>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < ColumnarTransactionList.this.size;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ColumnarTransactionList.this.get(this.index++);
+            }
+        };
+    }
+
+    /**
+     * Converts a date and time to nanoseconds since the epoch, taking the date and time as UTC.
+     *
+     * @throws IllegalArgumentException if the date and time does not fit.
+     */
+    public static long toEpochNanos(LocalDateTime dateTime) {
+        try {
+            long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+            return Math.addExact(Math.multiplyExact(seconds, NANOS_PER_SECOND), dateTime.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(MESSAGE_DATE_TIME_OUT_OF_RANGE);
+        }
+    }
+
+    /**
+     * Returns whether the specified date and time can be stored in columns, that is, whether it is within
+     * the range of nanoseconds since the epoch that fits in a {@code long}.
+     */
+    public static boolean canStore(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        return !dateTime.isBefore(MIN_STORABLE_DATE_TIME) && !dateTime.isAfter(MAX_STORABLE_DATE_TIME);
+    }
+
+    /**
+     * Converts nanoseconds since the epoch back to a date and time.
+     */
+    public static LocalDateTime fromEpochNanos(long epochNanos) {
+        long seconds = Math.floorDiv(epochNanos, NANOS_PER_SECOND);
+        int nanos = (int) Math.floorMod(epochNanos, NANOS_PER_SECOND);
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof ColumnarTransactionList)) {
+            return false;
+        }
+
+        ColumnarTransactionList other = (ColumnarTransactionList) obj;
+
+        if (this.size != other.size) {
+            return false;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            int block = i >>> BLOCK_BITS;
+            int offset = i & BLOCK_MASK;
+            if (this.amounts[block][offset] != other.amounts[block][offset]
+                || this.balances[block][offset] != other.balances[block][offset]
+                || this.timestamps[block][offset] != other.timestamps[block][offset]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (Transaction transaction : this) {
+            hashCode = 31 * hashCode + transaction.hashCode();
+        }
+        return hashCode;
+    }
+
+    /**
+     * Builds a {@link ColumnarTransactionList} one transaction at a time.
+     */
+    public static final class Builder {
+        private long[][] amounts;
+        private long[][] balances;
+        private long[][] timestamps;
+        private long[] blockMinimums;
+        private long[] blockMaximums;
+        private double[] blockIntegrals;
+        private int size;
+        private ColumnWidths columnWidths;
+        private boolean isLastBlockShared;
+
+        /**
+         * Constructs an empty {@code Builder}.
+         */
+        public Builder() {
+            this(EMPTY);
+        }
+
+        private Builder(ColumnarTransactionList base) {
+            this.amounts = base.amounts;
+            this.balances = base.balances;
+            this.timestamps = base.timestamps;
+            this.blockMinimums = base.blockMinimums;
+            this.blockMaximums = base.blockMaximums;
+            this.blockIntegrals = base.blockIntegrals;
+            this.size = base.size;
+            this.columnWidths = base.columnWidths;
+            this.isLastBlockShared = true;
+        }
+
+        /**
+         * Appends a transaction.
+         *
+         * @param transaction The transaction to append.
+         * @return This builder.
+         * @throws IllegalArgumentException if the date and time of the transaction cannot be stored
+         *     or is older than the last transaction appended.
+         */
+        public Builder add(Transaction transaction) {
+            requireNonNull(transaction);
+
+            this.addRow(transaction.amount.getCents(), transaction.balance.getCents(),
+                toEpochNanos(transaction.dateTime));
+            this.columnWidths = this.columnWidths.include(
+                TransactionFormat.formattedDateTimeLength(transaction.dateTime),
+                transaction.amount.formattedLength(),
+                transaction.balance.formattedLength());
+            return this;
+        }
+
+        /**
+         * Appends a transaction given as its columns, without creating a {@link Transaction}.
+         *
+         * @param amount The amount of the transaction, in cents.
+         * @param balance The balance after the transaction, in cents.
+         * @param epochNanos The date and time of the transaction, in nanoseconds since the epoch.
+         * @return This builder.
+         * @throws IllegalArgumentException if the amount is zero, the balance is negative
+         *     or the transaction is older than the last transaction appended.
+         */
+        public Builder add(long amount, long balance, long epochNanos) {
+            if (amount == 0) {
+                throw new IllegalArgumentException(MESSAGE_NON_ZERO_TRANSACTION_AMOUNT);
+            }
+            if (balance < 0) {
+                throw new IllegalArgumentException(MESSAGE_NEGATIVE_BALANCE);
+            }
+
+            this.addRow(amount, balance, epochNanos);
+            this.columnWidths = this.columnWidths.include(
+                TransactionFormat.formattedDateTimeLength(fromEpochNanos(epochNanos)),
+                Money.ofCents(amount).formattedLength(),
+                Money.ofCents(balance).formattedLength());
+            return this;
+        }
+
+        /**
+         * Returns a {@link ColumnarTransactionList} holding the transactions appended so far.
+         * The builder can keep being used afterwards without affecting the returned list.
+         */
+        public ColumnarTransactionList build() {
+            int blockCount = (this.size + BLOCK_MASK) >>> BLOCK_BITS;
+            this.isLastBlockShared = true;
+            return new ColumnarTransactionList(
+                Arrays.copyOf(this.amounts, blockCount),
+                Arrays.copyOf(this.balances, blockCount),
+                Arrays.copyOf(this.timestamps, blockCount),
+                Arrays.copyOf(this.blockMinimums, blockCount),
+                Arrays.copyOf(this.blockMaximums, blockCount),
+                Arrays.copyOf(this.blockIntegrals, blockCount),
+                this.size,
+                this.columnWidths);
+        }
+
+        private void addRow(long amount, long balance, long timestamp) {
+            if (this.size > 0) {
+                int last = this.size - 1;
+                if (timestamp < this.timestamps[last >>> BLOCK_BITS][last & BLOCK_MASK]) {
+                    throw new IllegalArgumentException(MESSAGE_UNORDERED_TRANSACTION);
+                }
+            }
+
+            int block = this.size >>> BLOCK_BITS;
+            int offset = this.size & BLOCK_MASK;
+            if (offset == 0) {
+                this.addBlock(block);
+            } else if (this.isLastBlockShared) {
+                this.copyLastBlock(block);
+            }
+
+            this.amounts[block][offset] = amount;
+            this.balances[block][offset] = balance;
+            this.timestamps[block][offset] = timestamp;
+            this.size++;
+            if (offset == BLOCK_MASK) {
+                this.summarizeBlock(block);
+            }
+        }
+
+        private void addBlock(int block) {
+            if (block == this.amounts.length || this.isLastBlockShared) {
+                int capacity = Math.max(block + 1, this.amounts.length * 2);
+                this.amounts = Arrays.copyOf(this.amounts, capacity);
+                this.balances = Arrays.copyOf(this.balances, capacity);
+                this.timestamps = Arrays.copyOf(this.timestamps, capacity);
+                this.blockMinimums = Arrays.copyOf(this.blockMinimums, capacity);
+                this.blockMaximums = Arrays.copyOf(this.blockMaximums, capacity);
+                this.blockIntegrals = Arrays.copyOf(this.blockIntegrals, capacity);
+            }
+            this.amounts[block] = new long[BLOCK_SIZE];
+            this.balances[block] = new long[BLOCK_SIZE];
+            this.timestamps[block] = new long[BLOCK_SIZE];
+            this.isLastBlockShared = false;
+        }
+
+        private void copyLastBlock(int block) {
+            this.amounts = Arrays.copyOf(this.amounts, this.amounts.length);
+            this.balances = Arrays.copyOf(this.balances, this.balances.length);
+            this.timestamps = Arrays.copyOf(this.timestamps, this.timestamps.length);
+            this.blockMinimums = this.blockMinimums.clone();
+            this.blockMaximums = this.blockMaximums.clone();
+            this.blockIntegrals = this.blockIntegrals.clone();
+            this.amounts[block] = this.amounts[block].clone();
+            this.balances[block] = this.balances[block].clone();
+            this.timestamps[block] = this.timestamps[block].clone();
+            this.isLastBlockShared = false;
+        }
+
+        /**
+         * Records the lowest, highest and time-weighted sum of the balances of a block that has just been filled.
+         * The sum covers the time from the first to the last transaction of the block.
+         */
+        private void summarizeBlock(int block) {
+            long[] blockBalances = this.balances[block];
+            long[] blockTimestamps = this.timestamps[block];
+            long minimum = blockBalances[0];
+            long maximum = blockBalances[0];
+            double integral = 0;
+            for (int i = 1; i < BLOCK_SIZE; i++) {
+                minimum = Math.min(minimum, blockBalances[i]);
+                maximum = Math.max(maximum, blockBalances[i]);
+                integral += (double) blockBalances[i - 1] * (blockTimestamps[i] - blockTimestamps[i - 1]);
+            }
+            this.blockMinimums[block] = minimum;
+            this.blockMaximums[block] = maximum;
+            this.blockIntegrals[block] = integral;
+        }
+    }
+}
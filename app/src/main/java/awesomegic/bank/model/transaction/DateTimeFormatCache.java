@@ -0,0 +1,68 @@
+package awesomegic.bank.model.transaction;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Represents a cache that formats transaction dates and times exactly as
+ * {@link TransactionFormat#formatDateTime(LocalDateTime)} does, for rendering many rows in a row.
+ * <p>
+ * Transactions are rendered in chronological order and often share a second, and nearly always a day.
+ * The cache keeps the last formatted string and reuses it for every transaction made in the same second.
+ * For a new second in the same day only the time of day is appended to the cached date, which is plain
+ * digit arithmetic, so the {@link DateTimeFormatter} runs once per day rather than once per row.
+ * A cache is not thread-safe; each rendering creates its own.
+ */
+public final class DateTimeFormatCache {
+    private static final DateTimeFormatter DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("d MMM yyyy ", TransactionFormat.DATE_TIME_FORMATTER.getLocale());
+    private static final DateTimeFormatter AM_PM_FORMATTER =
+        DateTimeFormatter.ofPattern("a", TransactionFormat.DATE_TIME_FORMATTER.getLocale());
+    private static final String AM_TEXT = LocalDateTime.of(2000, 1, 1, 0, 0).format(AM_PM_FORMATTER);
+    private static final String PM_TEXT = LocalDateTime.of(2000, 1, 1, 12, 0).format(AM_PM_FORMATTER);
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private long epochDay;
+    private String datePrefix;
+    private long epochSecond;
+    private String formatted;
+
+    /**
+     * Formats the date and time of a transaction.
+     *
+     * @param dateTime The date and time to format.
+     * @return The same string as {@link TransactionFormat#formatDateTime(LocalDateTime)}.
+     */
+    public String format(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (this.formatted != null && epochSecond == this.epochSecond) {
+            return this.formatted;
+        }
+
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        if (this.datePrefix == null || epochDay != this.epochDay) {
+            this.datePrefix = DATE_FORMATTER.format(dateTime);
+            this.epochDay = epochDay;
+        }
+
+        int hour = dateTime.getHour();
+        int clockHour = hour % 12 == 0 ? 12 : hour % 12;
+        StringBuilder sb = new StringBuilder(this.datePrefix.length() + 8 + PM_TEXT.length());
+        sb.append(this.datePrefix).append(clockHour).append(':');
+        appendTwoDigits(sb, dateTime.getMinute()).append(':');
+        appendTwoDigits(sb, dateTime.getSecond()).append(hour < 12 ? AM_TEXT : PM_TEXT);
+
+        this.formatted = sb.toString();
+        this.epochSecond = epochSecond;
+        return this.formatted;
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
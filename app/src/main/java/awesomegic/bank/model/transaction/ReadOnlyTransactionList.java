@@ -1,11 +1,180 @@
 package awesomegic.bank.model.transaction;
 
+import static awesomegic.bank.cli.Message.MESSAGE_INVALID_DATE_TIME_RANGE;
+import static awesomegic.bank.cli.Message.MESSAGE_INVALID_PAGE;
+import static awesomegic.bank.cli.Message.MESSAGE_NEGATIVE_TRANSACTION_COUNT;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import awesomegic.bank.model.money.Money;
+
 /**
  * Represents a read-only list of transactions.
+ * <p>
+ * Transactions are kept in chronological order, so the range queries below binary search the
+ * timestamps and return views over the matching transactions without copying them.
  */
 public interface ReadOnlyTransactionList extends Iterable<Transaction> {
     /**
      * Checks if the transaction list is empty.
      */
     boolean isEmpty();
+
+    /**
+     * Returns the number of transactions in the list.
+     */
+    int size();
+
+    /**
+     * Returns the transaction at the specified index.
+     *
+     * @param index The index of the transaction to return.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    Transaction get(int index);
+
+    /**
+     * Returns the column widths needed to display all transactions in the list.
+     */
+    ColumnWidths getColumnWidths();
+
+    /**
+     * Returns the date and time of the transaction at the specified index.
+     *
+     * @param index The index of the transaction.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    default LocalDateTime getDateTime(int index) {
+        return this.get(index).dateTime;
+    }
+
+    /**
+     * Returns the index of the first transaction made at or after the specified date and time,
+     * or the size of the list if there is none.
+     *
+     * @param dateTime The date and time to search for.
+     */
+    default int indexOfFirstAtOrAfter(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        int low = 0;
+        int high = this.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.getDateTime(mid).isBefore(dateTime)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first transaction made after the specified date and time,
+     * or the size of the list if there is none.
+     *
+     * @param dateTime The date and time to search for.
+     */
+    default int indexOfFirstAfter(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        if (dateTime.equals(LocalDateTime.MAX)) {
+            return this.size();
+        }
+        return this.indexOfFirstAtOrAfter(dateTime.plusNanos(1));
+    }
+
+    /**
+     * Returns the balance left by the last transaction made at or before the specified date and time,
+     * or zero if there is none. The transaction is found by binary search.
+     *
+     * @param dateTime The date and time to find the balance at.
+     */
+    default Money getBalanceAsOf(LocalDateTime dateTime) {
+        int index = this.indexOfFirstAfter(dateTime);
+        return index == 0 ? Money.ZERO : this.get(index - 1).balance;
+    }
+
+    /**
+     * Returns the lowest, highest and time-weighted average balance held from {@code from}, inclusive,
+     * to {@code to}, exclusive.
+     *
+     * @throws IllegalArgumentException if {@code from} is not before {@code to}.
+     */
+    default BalanceSummary summarizeBalances(LocalDateTime from, LocalDateTime to) {
+        requireAllNonNull(from, to);
+
+        int fromIndex = this.indexOfFirstAfter(from);
+        int toIndex = this.indexOfFirstAtOrAfter(to);
+        long openingBalance = fromIndex == 0 ? 0 : this.get(fromIndex - 1).balance.getCents();
+        BalanceSummary.Accumulator accumulator = new BalanceSummary.Accumulator(from, to, openingBalance);
+        for (int i = fromIndex; i < toIndex; i++) {
+            Transaction transaction = this.get(i);
+            accumulator.advance(transaction.dateTime, transaction.balance.getCents());
+        }
+        return accumulator.finish();
+    }
+
+    /**
+     * Returns a view of the transactions between {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds.
+     */
+    default ReadOnlyTransactionList subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, this.size());
+
+        return new TransactionListSlice(this, fromIndex, toIndex);
+    }
+
+    /**
+     * Returns a view of the transactions made at or after {@code from} and before {@code to}.
+     *
+     * @throws IllegalArgumentException if {@code from} is after {@code to}.
+     */
+    default ReadOnlyTransactionList between(LocalDateTime from, LocalDateTime to) {
+        requireAllNonNull(from, to);
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_DATE_TIME_RANGE);
+        }
+
+        return this.subList(this.indexOfFirstAtOrAfter(from), this.indexOfFirstAtOrAfter(to));
+    }
+
+    /**
+     * Returns a view of the last {@code count} transactions, or of all transactions if there are fewer.
+     *
+     * @throws IllegalArgumentException if {@code count} is negative.
+     */
+    default ReadOnlyTransactionList last(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(MESSAGE_NEGATIVE_TRANSACTION_COUNT);
+        }
+
+        int size = this.size();
+        return this.subList(Math.max(0, size - count), size);
+    }
+
+    /**
+     * Returns a view of a page of transactions, with pages numbered from 1 in chronological order.
+     * A page past the end of the list is empty.
+     *
+     * @param pageNumber The number of the page.
+     * @param pageSize The number of transactions per page.
+     * @throws IllegalArgumentException if the page number or page size is not positive.
+     */
+    default ReadOnlyTransactionList page(int pageNumber, int pageSize) {
+        if (pageNumber <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_PAGE);
+        }
+
+        int size = this.size();
+        int fromIndex = (int) Math.min((long) (pageNumber - 1) * pageSize, size);
+        int toIndex = (int) Math.min((long) fromIndex + pageSize, size);
+        return this.subList(fromIndex, toIndex);
+    }
 }
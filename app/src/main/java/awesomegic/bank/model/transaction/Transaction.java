@@ -6,17 +6,17 @@ import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
 import static awesomegic.bank.utils.NumberUtils.requireNonNegative;
 import static awesomegic.bank.utils.NumberUtils.requireNonZero;
 
-import java.math.BigDecimal;
-
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import awesomegic.bank.model.money.Money;
+
 /**
  * Represents a transaction in a bank system.
  */
 public final class Transaction {
-    public final BigDecimal amount;
-    public final BigDecimal balance;
+    public final Money amount;
+    public final Money balance;
     public final LocalDateTime dateTime;
 
     /**
@@ -26,7 +26,7 @@ public final class Transaction {
      * @param balance  The balance after the transaction.
      * @param dateTime The date and time of the transaction.
      */
-    public Transaction(BigDecimal amount, BigDecimal balance, LocalDateTime dateTime) {
+    public Transaction(Money amount, Money balance, LocalDateTime dateTime) {
         requireAllNonNull(amount, balance, dateTime);
         requireNonNegative(balance, MESSAGE_NEGATIVE_BALANCE);
         requireNonZero(amount, MESSAGE_NON_ZERO_TRANSACTION_AMOUNT);
@@ -0,0 +1,66 @@
+package awesomegic.bank.model.transaction;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import awesomegic.bank.model.money.Money;
+
+/**
+ * Utility class for formatting transaction values for display.
+ */
+public class TransactionFormat {
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("d MMM yyyy h:mm:ssa");
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMM");
+    private static final DateTimeFormatter AM_PM_FORMATTER = DateTimeFormatter.ofPattern("a");
+    private static final int[] MONTH_LENGTHS = new int[12];
+    private static final int[] AM_PM_LENGTHS = new int[2];
+    /** The length of the separators, the four-digit year and the ":mm:ss" of a formatted date and time. */
+    private static final int FIXED_LENGTH = 3 + 4 + 6;
+
+    static {
+        for (int month = 1; month <= 12; month++) {
+            MONTH_LENGTHS[month - 1] = LocalDateTime.of(2000, month, 1, 0, 0).format(MONTH_FORMATTER).length();
+        }
+        AM_PM_LENGTHS[0] = LocalDateTime.of(2000, 1, 1, 0, 0).format(AM_PM_FORMATTER).length();
+        AM_PM_LENGTHS[1] = LocalDateTime.of(2000, 1, 1, 12, 0).format(AM_PM_FORMATTER).length();
+    }
+
+    /**
+     * Formats the date and time of a transaction.
+     */
+    public static String formatDateTime(LocalDateTime dateTime) {
+        return dateTime.format(DATE_TIME_FORMATTER);
+    }
+
+    /**
+     * Returns the length of the formatted date and time of a transaction without formatting it,
+     * so column widths can be kept up to date on every transaction.
+     */
+    public static int formattedDateTimeLength(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return formatDateTime(dateTime).length();
+        }
+
+        int hour = dateTime.getHour() % 12 == 0 ? 12 : dateTime.getHour() % 12;
+        return (dateTime.getDayOfMonth() < 10 ? 1 : 2)
+            + MONTH_LENGTHS[dateTime.getMonthValue() - 1]
+            + (hour < 10 ? 1 : 2)
+            + AM_PM_LENGTHS[dateTime.getHour() < 12 ? 0 : 1]
+            + FIXED_LENGTH;
+    }
+
+    /**
+     * Formats an amount or balance of a transaction.
+     */
+    public static String formatAmount(Money amount) {
+        return amount.toString();
+    }
+
+    /**
+     * Returns the length of the formatted amount or balance of a transaction without formatting it.
+     */
+    public static int formattedAmountLength(Money amount) {
+        return amount.formattedLength();
+    }
+}
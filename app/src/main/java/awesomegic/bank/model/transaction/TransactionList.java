@@ -1,59 +1,353 @@
 package awesomegic.bank.model.transaction;
 
+import static awesomegic.bank.cli.Message.MESSAGE_UNORDERED_TRANSACTION;
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+
+import awesomegic.bank.utils.PersistentVector;
 
 /**
  * Represents an immutable transactions list.
+ * <p>
+ * The list is made of an immutable history, such as a {@link ColumnarTransactionList}, followed by the
+ * recently added transactions held in a {@link PersistentVector}. A list returned by {@link #add(Transaction)}
+ * shares its existing transactions with the list it was derived from. The {@link ColumnWidths} of the
+ * list are updated on every add.
+ * <p>
+ * Whenever the recent transactions of a list with a columnar history fill a block, they are moved into the
+ * history, so a long-lived account holds a few arrays of longs rather than millions of small objects.
+ * <p>
+ * Every list carries a lineage token, see {@link #getLineage()}, that lets caches reuse the work done on an
+ * earlier version of the same list.
  */
 public final class TransactionList implements ReadOnlyTransactionList {
-    private final List<Transaction> transactions;
+    private static final int COMPACTION_THRESHOLD = ColumnarTransactionList.BLOCK_SIZE;
+    private static final VarHandle IS_EXTENDED;
+    private final ReadOnlyTransactionList history;
+    private final PersistentVector<Transaction> recent;
+    private final ColumnWidths columnWidths;
+    private final Object lineage;
+    private volatile boolean isExtended;
+
+    static {
+        try {
+            IS_EXTENDED = MethodHandles.lookup().findVarHandle(TransactionList.class, "isExtended", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     /**
      * Constructs an empty {@code TransactionList}.
      */
     public TransactionList() {
-        this.transactions = new ArrayList<>();
+        this(ColumnarTransactionList.empty(), PersistentVector.empty(), ColumnWidths.EMPTY, new Object());
     }
 
     /**
      * Constructs a {@code TransactionList} with the given transactions.
-     * 
+     *
      * @param transactions The list of transactions to initialize the {@code TransactionList} with.
+     * @throws IllegalArgumentException if the transactions are not in chronological order.
      */
     public TransactionList(List<Transaction> transactions) {
         requireNonNull(transactions);
 
-        this.transactions = new ArrayList<>(transactions);
+        PersistentVector<Transaction> vector = PersistentVector.empty();
+        ColumnWidths widths = ColumnWidths.EMPTY;
+        for (Transaction transaction : transactions) {
+            if (!vector.isEmpty() && transaction.dateTime.isBefore(vector.get(vector.size() - 1).dateTime)) {
+                throw new IllegalArgumentException(MESSAGE_UNORDERED_TRANSACTION);
+            }
+            vector = vector.append(transaction);
+            widths = widths.include(transaction);
+        }
+        this.history = ColumnarTransactionList.empty();
+        this.recent = vector;
+        this.columnWidths = widths;
+        this.lineage = new Object();
+    }
+
+    /**
+     * Constructs a {@code TransactionList} on top of an existing history, such as a
+     * {@link ColumnarTransactionList} or a history mapped from disk.
+     * The history is used as is, so it must never change afterwards.
+     *
+     * @param history The transactions to initialize the {@code TransactionList} with.
+     */
+    public TransactionList(ReadOnlyTransactionList history) {
+        this(history, PersistentVector.empty(), history.getColumnWidths(), new Object());
+    }
+
+    private TransactionList(ReadOnlyTransactionList history, PersistentVector<Transaction> recent,
+            ColumnWidths columnWidths, Object lineage) {
+        requireNonNull(history);
+        requireNonNull(recent);
+        requireNonNull(columnWidths);
+        requireNonNull(lineage);
+
+        this.history = history;
+        this.recent = recent;
+        this.columnWidths = columnWidths;
+        this.lineage = lineage;
+    }
+
+    private TransactionList(ColumnarTransactionList history, Object lineage) {
+        this(history, PersistentVector.empty(), history.getColumnWidths(), lineage);
+    }
+
+    /**
+     * Returns a token identifying the chain of versions this list belongs to.
+     * <p>
+     * A list passes its token on to the first list derived from it by adding or compacting, and any later
+     * list derived from it starts a new chain with a new token. The lists sharing a token therefore form a
+     * single chain, in which every list starts with all the transactions of the lists before it, so work done
+     * for the first {@code n} transactions of one list holds for every list with the same token and at least
+     * {@code n} transactions.
+     */
+    public Object getLineage() {
+        return this.lineage;
+    }
+
+    /**
+     * Returns the lineage token of a list derived from this list.
+     */
+    private Object successorLineage() {
+        return IS_EXTENDED.compareAndSet(this, false, true) ? this.lineage : new Object();
     }
 
     /**
      * Adds a transaction to the list.
-     * 
+     *
      * @param transaction The transaction to add. Must not be {@code null}.
      * @return A new {@code TransactionList} containing the added transaction.
      * @throws NullPointerException if the provided transaction is {@code null}.
+     * @throws IllegalArgumentException if the transaction is older than the last transaction in the list.
      */
     public TransactionList add(Transaction transaction) {
         requireNonNull(transaction);
 
-        List<Transaction> newList = new ArrayList<>(this.transactions);
-        newList.add(transaction);
+        if (!this.isEmpty() && transaction.dateTime.isBefore(this.getDateTime(this.size() - 1))) {
+            throw new IllegalArgumentException(MESSAGE_UNORDERED_TRANSACTION);
+        }
+
+        TransactionList list = new TransactionList(this.history, this.recent.append(transaction),
+            this.columnWidths.include(transaction), this.successorLineage());
+        return list.recent.size() % COMPACTION_THRESHOLD == 0 ? list.compactColumnarHistory() : list;
+    }
+
+    /**
+     * Adds a batch of transactions to the list in one pass.
+     * Unlike repeated calls to {@link #add(Transaction)}, no intermediate lists are created, and a batch
+     * that fills a block of a columnar history is written straight into the columns.
+     *
+     * @param transactions The transactions to add, in chronological order.
+     * @return A new {@code TransactionList} containing the added transactions, or this list if there are none.
+     * @throws IllegalArgumentException if the transactions are not in chronological order or are older than
+     *     the last transaction in the list.
+     */
+    public TransactionList addAll(List<Transaction> transactions) {
+        requireNonNull(transactions);
+
+        if (transactions.isEmpty()) {
+            return this;
+        }
+
+        LocalDateTime latest = this.isEmpty() ? null : this.getDateTime(this.size() - 1);
+        boolean canStoreAll = true;
+        for (Transaction transaction : transactions) {
+            requireNonNull(transaction);
+            if (latest != null && transaction.dateTime.isBefore(latest)) {
+                throw new IllegalArgumentException(MESSAGE_UNORDERED_TRANSACTION);
+            }
+            latest = transaction.dateTime;
+            canStoreAll &= ColumnarTransactionList.canStore(transaction.dateTime);
+        }
+
+        // Dates and times that cannot be stored in columns are kept in the vector below.
+        if (this.history instanceof ColumnarTransactionList
+            && this.recent.size() + transactions.size() >= COMPACTION_THRESHOLD
+            && canStoreAll && canStoreAll(this.recent)) {
+            ColumnarTransactionList.Builder builder = ((ColumnarTransactionList) this.history).toBuilder();
+            for (Transaction transaction : this.recent) {
+                builder.add(transaction);
+            }
+            for (Transaction transaction : transactions) {
+                builder.add(transaction);
+            }
+            return new TransactionList(builder.build(), this.successorLineage());
+        }
+
+        PersistentVector<Transaction> vector = this.recent;
+        ColumnWidths widths = this.columnWidths;
+        for (Transaction transaction : transactions) {
+            vector = vector.append(transaction);
+            widths = widths.include(transaction);
+        }
+        return new TransactionList(this.history, vector, widths, this.successorLineage());
+    }
+
+    /**
+     * Compacts the list if its history is columnar, in which case the full blocks of the history are shared.
+     * Other histories, such as one mapped from disk, are left as they are rather than copied into memory.
+     * A list holding dates and times that cannot be stored in columns stays uncompacted.
+     */
+    private TransactionList compactColumnarHistory() {
+        if (!(this.history instanceof ColumnarTransactionList) || !canStoreAll(this.recent)) {
+            return this;
+        }
+
+        return this.compact();
+    }
+
+    private static boolean canStoreAll(Iterable<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (!ColumnarTransactionList.canStore(transaction.dateTime)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the recently added transactions into a {@link ColumnarTransactionList} history.
+     * The full blocks of an existing columnar history are shared rather than copied.
+     *
+     * @return A {@code TransactionList} with the same transactions, stored in columns.
+     * @throws IllegalArgumentException if the date and time of a transaction cannot be stored.
+     */
+    public TransactionList compact() {
+        if (this.recent.isEmpty() && this.history instanceof ColumnarTransactionList) {
+            return this;
+        }
+
+        ColumnarTransactionList.Builder builder = ColumnarTransactionList.copyOf(this.history).toBuilder();
+        for (Transaction transaction : this.recent) {
+            builder.add(transaction);
+        }
+        return new TransactionList(builder.build(), this.successorLineage());
+    }
+
+    @Override
+    public int size() {
+        return this.history.size() + this.recent.size();
+    }
+
+    @Override
+    public Transaction get(int index) {
+        int historySize = this.history.size();
+        if (index < historySize) {
+            return this.history.get(index);
+        }
+        return this.recent.get(index - historySize);
+    }
 
-        return new TransactionList(newList);
+    @Override
+    public LocalDateTime getDateTime(int index) {
+        int historySize = this.history.size();
+        if (index < historySize) {
+            return this.history.getDateTime(index);
+        }
+        return this.recent.get(index - historySize).dateTime;
+    }
+
+    /**
+     * Returns the index of the first transaction made at or after the specified date and time, searching the
+     * history with its own search when the transaction is in the history.
+     */
+    @Override
+    public int indexOfFirstAtOrAfter(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        int historySize = this.history.size();
+        if (historySize > 0 && !this.history.getDateTime(historySize - 1).isBefore(dateTime)) {
+            return this.history.indexOfFirstAtOrAfter(dateTime);
+        }
+
+        int low = 0;
+        int high = this.recent.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.recent.get(mid).dateTime.isBefore(dateTime)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return historySize + low;
+    }
+
+    /**
+     * Returns the balance summary of a window, summarizing the part of the window in a columnar history
+     * with its block summaries.
+     */
+    @Override
+    public BalanceSummary summarizeBalances(LocalDateTime from, LocalDateTime to) {
+        if (!(this.history instanceof ColumnarTransactionList)) {
+            return ReadOnlyTransactionList.super.summarizeBalances(from, to);
+        }
+
+        requireAllNonNull(from, to);
+
+        ColumnarTransactionList columnarHistory = (ColumnarTransactionList) this.history;
+        int historySize = columnarHistory.size();
+        int fromIndex = this.indexOfFirstAfter(from);
+        int toIndex = this.indexOfFirstAtOrAfter(to);
+        long openingBalance = fromIndex == 0 ? 0 : this.get(fromIndex - 1).balance.getCents();
+        BalanceSummary.Accumulator accumulator = new BalanceSummary.Accumulator(from, to, openingBalance);
+        columnarHistory.accumulateBalances(Math.min(fromIndex, historySize), Math.min(toIndex, historySize),
+            accumulator);
+        for (int i = Math.max(fromIndex, historySize); i < toIndex; i++) {
+            Transaction transaction = this.recent.get(i - historySize);
+            accumulator.advance(transaction.dateTime, transaction.balance.getCents());
+        }
+        return accumulator.finish();
+    }
+
+    @Override
+    public ColumnWidths getColumnWidths() {
+        return this.columnWidths;
     }
 
     @Override
     public boolean isEmpty() {
-        return transactions.isEmpty();
+        return this.history.isEmpty() && this.recent.isEmpty();
     }
-    
+
     @Override
     public Iterator<Transaction> iterator() {
-        return transactions.iterator();
+        if (this.history.isEmpty()) {
+            return this.recent.iterator();
+        }
+
+        return new Iterator<Transaction>() {
+            private Iterator<Transaction> current = TransactionList.this.history.iterator();
+            private boolean isInHistory = true;
+
+            @Override
+            public boolean hasNext() {
+                if (!this.current.hasNext() && this.isInHistory) {
+                    this.current = TransactionList.this.recent.iterator();
+                    this.isInHistory = false;
+                }
+                return this.current.hasNext();
+            }
+
+            @Override
+            public Transaction next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return this.current.next();
+            }
+        };
     }
 
     @Override
@@ -68,11 +362,25 @@ public final class TransactionList implements ReadOnlyTransactionList {
 
         TransactionList other = (TransactionList) obj;
 
-        return this.transactions.equals(other.transactions);
+        if (this.size() != other.size()) {
+            return false;
+        }
+
+        Iterator<Transaction> otherIterator = other.iterator();
+        for (Transaction transaction : this) {
+            if (!transaction.equals(otherIterator.next())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return this.transactions.hashCode();
+        int hashCode = 1;
+        for (Transaction transaction : this) {
+            hashCode = 31 * hashCode + transaction.hashCode();
+        }
+        return hashCode;
     }
 }
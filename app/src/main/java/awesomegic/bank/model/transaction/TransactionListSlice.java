@@ -0,0 +1,87 @@
+package awesomegic.bank.model.transaction;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Represents a read-only view over a contiguous range of another transaction list.
+ */
+final class TransactionListSlice implements ReadOnlyTransactionList {
+    private final ReadOnlyTransactionList transactions;
+    private final int fromIndex;
+    private final int size;
+    private ColumnWidths columnWidths;
+
+    /**
+     * Constructs a view of the transactions between {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     */
+    TransactionListSlice(ReadOnlyTransactionList transactions, int fromIndex, int toIndex) {
+        this.transactions = transactions;
+        this.fromIndex = fromIndex;
+        this.size = toIndex - fromIndex;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Transaction get(int index) {
+        Objects.checkIndex(index, this.size);
+
+        return this.transactions.get(this.fromIndex + index);
+    }
+
+    @Override
+    public LocalDateTime getDateTime(int index) {
+        Objects.checkIndex(index, this.size);
+
+        return this.transactions.getDateTime(this.fromIndex + index);
+    }
+
+    /**
+     * Returns the column widths of the transactions in this view, computed on first use.
+     */
+    @Override
+    public ColumnWidths getColumnWidths() {
+        if (this.columnWidths == null) {
+            this.columnWidths = ColumnWidths.measure(this);
+        }
+        return this.columnWidths;
+    }
+
+    @Override
+    public ReadOnlyTransactionList subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, this.size);
+
+        return new TransactionListSlice(this.transactions, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<Transaction>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < TransactionListSlice.this.size;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return TransactionListSlice.this.get(this.index++);
+            }
+        };
+    }
+}
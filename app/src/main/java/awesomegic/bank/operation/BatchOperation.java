@@ -0,0 +1,81 @@
+package awesomegic.bank.operation;
+
+import static awesomegic.bank.cli.Message.MESSAGE_NON_ZERO_TRANSACTION_AMOUNT;
+import static awesomegic.bank.utils.NumberUtils.formatTwoDecimalPlaces;
+import static awesomegic.bank.utils.NumberUtils.requireNonZero;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.operation.exceptions.OperationException;
+
+/**
+ * Represents a batch of deposits and withdrawals applied to a bank account as a whole.
+ * <p>
+ * Positive amounts are deposited and negative amounts are withdrawn, in the given order. If any withdrawal
+ * would overdraw the account, the whole batch is rejected and the account is left unchanged.
+ */
+public class BatchOperation implements Operation {
+    private static final String MESSAGE_INSUFFICIENT_BALANCE =
+        "Insufficient balance for transaction %d of the batch. No transactions were made.";
+    private static final String MESSAGE_BALANCE_LIMIT_EXCEEDED =
+        "Transaction %d of the batch would exceed the maximum balance. No transactions were made.";
+    private static final String MESSAGE_BATCH_SUCCESS = "Thank you. %d transactions have been made.";
+    private static final String MESSAGE_BALANCE_PREFIX = " Your balance is $";
+    private static final String MESSAGE_BALANCE_SUFFIX = ".";
+    private final List<Money> amounts;
+
+    /**
+     * Constructs a new {@code BatchOperation} with the specified amounts.
+     *
+     * @param amounts The amounts of the transactions, positive for deposits and negative for withdrawals.
+     * @throws IllegalArgumentException if an amount is zero.
+     */
+    BatchOperation(List<Money> amounts) {
+        requireNonNull(amounts);
+
+        for (Money amount : amounts) {
+            requireNonNull(amount);
+            requireNonZero(amount, MESSAGE_NON_ZERO_TRANSACTION_AMOUNT);
+        }
+
+        this.amounts = List.copyOf(amounts);
+    }
+
+    /**
+     * Executes the batch on the specified {@link BankAccount}.
+     *
+     * @param account The {@link BankAccount} to apply the batch to.
+     * @return An {@link OperationResult} holding the account after the whole batch.
+     * @throws OperationException If a withdrawal in the batch exceeds the balance left by the
+     *     transactions before it, or a deposit would take that balance over the maximum balance.
+     */
+    @Override
+    public OperationResult execute(BankAccount account) throws OperationException {
+        requireNonNull(account);
+
+        BankAccount.Batch batch = account.batch();
+        for (Money amount : this.amounts) {
+            if (amount.signum() > 0) {
+                if (!batch.getBalance().canAdd(amount)) {
+                    throw new OperationException(String.format(MESSAGE_BALANCE_LIMIT_EXCEEDED, batch.size() + 1));
+                }
+                batch.deposit(amount);
+                continue;
+            }
+
+            Money withdrawalAmount = amount.negate();
+            if (batch.getBalance().isLessThan(withdrawalAmount)) {
+                throw new OperationException(String.format(MESSAGE_INSUFFICIENT_BALANCE, batch.size() + 1));
+            }
+            batch.withdraw(withdrawalAmount);
+        }
+
+        BankAccount updatedAccount = batch.build();
+
+        return new OperationResult(updatedAccount, String.format(MESSAGE_BATCH_SUCCESS, this.amounts.size())
+            + MESSAGE_BALANCE_PREFIX + formatTwoDecimalPlaces(batch.getBalance()) + MESSAGE_BALANCE_SUFFIX);
+    }
+}
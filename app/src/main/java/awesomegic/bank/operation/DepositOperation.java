@@ -1,12 +1,13 @@
 package awesomegic.bank.operation;
 
 import static awesomegic.bank.cli.Message.MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT;
+import static awesomegic.bank.utils.NumberUtils.formatTwoDecimalPlaces;
 import static awesomegic.bank.utils.NumberUtils.requirePositive;
 import static java.util.Objects.requireNonNull;
 
-import java.math.BigDecimal;
-
 import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.operation.exceptions.OperationException;
 
 /**
  * Represents a deposit operation for a bank account.
@@ -14,15 +15,18 @@ import awesomegic.bank.model.account.BankAccount;
 public class DepositOperation implements Operation {
     public static final String OPERATION_KEY = "d";
     public static final String TRANSACTION_TYPE = "deposit";
-    private static final String MESSAGE_DEPOSIT_SUCCESS = "Thank you. $%.2f has been deposited to your account.";
-    private final BigDecimal amount;
+    private static final String MESSAGE_DEPOSIT_SUCCESS_PREFIX = "Thank you. $";
+    private static final String MESSAGE_DEPOSIT_SUCCESS_SUFFIX = " has been deposited to your account.";
+    private static final String MESSAGE_BALANCE_LIMIT_EXCEEDED =
+        "The deposit would exceed the maximum balance. Unable to complete deposit.";
+    private final Money amount;
 
     /**
      * Creates a {@code DepositOperation} for a specified {@link BankAccount} and deposit amount.
      * 
      * @param amount  The amount to be deposited.
      */
-    DepositOperation(BigDecimal amount) {
+    DepositOperation(Money amount) {
         requireNonNull(amount);
         requirePositive(amount, MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT);
 
@@ -34,13 +38,19 @@ public class DepositOperation implements Operation {
      * 
      * @param account The {@link BankAccount} to which the deposit amount will be added.
      * @return An {@link OperationResult} indicating the success of the deposit operation.
+     * @throws OperationException If the deposit would take the balance over the maximum balance.
      */
     @Override
-    public OperationResult execute(BankAccount account) {
+    public OperationResult execute(BankAccount account) throws OperationException {
         requireNonNull(account);
 
+        if (!account.isDepositWithinLimit(this.amount)) {
+            throw new OperationException(MESSAGE_BALANCE_LIMIT_EXCEEDED);
+        }
+
         BankAccount updatedAccount = account.deposit(this.amount);
 
-        return new OperationResult(updatedAccount, String.format(MESSAGE_DEPOSIT_SUCCESS, amount));
+        return new OperationResult(updatedAccount,
+            MESSAGE_DEPOSIT_SUCCESS_PREFIX + formatTwoDecimalPlaces(this.amount) + MESSAGE_DEPOSIT_SUCCESS_SUFFIX);
     }
 }
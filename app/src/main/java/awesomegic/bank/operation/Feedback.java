@@ -0,0 +1,77 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Represents the feedback of an operation, written out to the user on demand.
+ */
+@FunctionalInterface
+public interface Feedback {
+    /**
+     * Writes the feedback to the specified writer.
+     *
+     * @param writer The {@link Writer} to write the feedback to.
+     * @throws IOException If the feedback cannot be written.
+     */
+    void writeTo(Writer writer) throws IOException;
+
+    /**
+     * Returns the feedback as a sequence of chunks, each rendered only when it is taken, so that a caller
+     * that must not block can render a long feedback only as fast as it sends it. By default the whole
+     * feedback is rendered as a single chunk.
+     *
+     * @throws UncheckedIOException If the feedback cannot be rendered.
+     */
+    default Iterator<String> chunks() {
+        StringWriter writer = new StringWriter();
+        try {
+            this.writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return List.of(writer.toString()).iterator();
+    }
+
+    /**
+     * Returns a {@code Feedback} that writes the specified message.
+     *
+     * @param message The feedback message.
+     */
+    static Feedback of(String message) {
+        requireNonNull(message);
+
+        return writer -> writer.write(message);
+    }
+
+    /**
+     * Returns a {@code Feedback} that writes with the specified feedback and renders its chunks with the
+     * specified supplier.
+     *
+     * @param feedback The feedback writing the whole text.
+     * @param chunks The supplier of the same text, one chunk at a time.
+     */
+    static Feedback chunked(Feedback feedback, Supplier<Iterator<String>> chunks) {
+        requireNonNull(feedback);
+        requireNonNull(chunks);
+
+        return new Feedback() {
+            @Override
+            public void writeTo(Writer writer) throws IOException {
+                feedback.writeTo(writer);
+            }
+
+            @Override
+            public Iterator<String> chunks() {
+                return chunks.get();
+            }
+        };
+    }
+}
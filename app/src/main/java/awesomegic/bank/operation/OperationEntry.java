@@ -0,0 +1,93 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import awesomegic.bank.cli.exceptions.InputException;
+
+/**
+ * Represents an operation that can be chosen at the option prompt: its key, the prompt for its argument if it
+ * has one, and how the operation is created from that argument.
+ * <p>
+ * Entries are registered in an {@link OperationRegistry}.
+ */
+public final class OperationEntry {
+    private final String key;
+    private final String argumentPrompt;
+    private final ArgumentParser parser;
+
+    private OperationEntry(String key, String argumentPrompt, ArgumentParser parser) {
+        this.key = key;
+        this.argumentPrompt = argumentPrompt;
+        this.parser = parser;
+    }
+
+    /**
+     * Creates an entry for an operation without an argument. Every choice of the key returns the same
+     * operation, which must therefore hold no state of its own.
+     *
+     * @param key The key of the operation.
+     * @param operation The {@link Operation} returned for the key.
+     */
+    public static OperationEntry of(String key, Operation operation) {
+        requireNonNull(key);
+        requireNonNull(operation);
+
+        return new OperationEntry(key, null, argument -> operation);
+    }
+
+    /**
+     * Creates an entry for an operation that is created from an argument read after its key.
+     *
+     * @param key The key of the operation.
+     * @param argumentPrompt The prompt asking for the argument.
+     * @param parser The {@link ArgumentParser} creating the operation from the argument.
+     */
+    public static OperationEntry withArgument(String key, String argumentPrompt, ArgumentParser parser) {
+        requireNonNull(key);
+        requireNonNull(argumentPrompt);
+        requireNonNull(parser);
+
+        return new OperationEntry(key, argumentPrompt, parser);
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Returns the prompt for the argument of the operation, or {@code null} if it has none.
+     */
+    public String getArgumentPrompt() {
+        return this.argumentPrompt;
+    }
+
+    /**
+     * Creates the operation.
+     *
+     * @param argument The line holding the argument of the operation, or {@code null} if it has none.
+     * @throws InputException If the argument is invalid.
+     */
+    public Operation create(String argument) throws InputException {
+        if (this.argumentPrompt != null) {
+            requireNonNull(argument);
+        }
+
+        return this.parser.parse(argument);
+    }
+
+    /**
+     * Creates an operation from its argument.
+     */
+    @FunctionalInterface
+    public interface ArgumentParser {
+
+        /**
+         * Parses the argument and creates the operation.
+         *
+         * @param argument The line holding the argument.
+         * @return The {@link Operation} described by the argument.
+         * @throws InputException If the argument is invalid.
+         */
+        Operation parse(String argument) throws InputException;
+    }
+}
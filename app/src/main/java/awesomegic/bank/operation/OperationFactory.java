@@ -2,67 +2,125 @@ package awesomegic.bank.operation;
 
 import static java.util.Objects.requireNonNull;
 
-import java.math.BigDecimal;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 import awesomegic.bank.cli.Cli;
 import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.model.money.Money;
 
 /**
  * Factory class for creating operations in the bank system.
+ * <p>
+ * Operations are looked up by key in an {@link OperationRegistry}, and created either by reading their
+ * arguments from the {@link Cli}, or from arguments that were already received by another transport, such as
+ * a network session.
  */
 public class OperationFactory {
     private static final String MESSAGE_INVALID_KEY = "The key '%s' is not recognized as a valid key for an operation.";
-    private static final Operation QUIT_OPERATION = new QuitOperation();
+    private static final String MESSAGE_NO_CLI = "This factory has no CLI to read arguments from.";
     private final Cli cli;
-    private final Set<String> operationKeys;
+    private final OperationRegistry registry;
 
     /**
-     * Constructs a new OperationFactory with the CLI interface.
+     * Constructs a new OperationFactory with the CLI interface and the operations of the bank system.
      *
      * @param cli The {@link Cli} instance used to interact with the user.
      */
     public OperationFactory(Cli cli) {
+        this(cli, OperationRegistry.withDefaults());
+    }
+
+    /**
+     * Constructs a new OperationFactory with the CLI interface and the operations of the specified registry.
+     *
+     * @param cli The {@link Cli} instance used to interact with the user.
+     * @param registry The {@link OperationRegistry} holding the operations.
+     */
+    public OperationFactory(Cli cli, OperationRegistry registry) {
         requireNonNull(cli);
+        requireNonNull(registry);
 
         this.cli = cli;
-        this.operationKeys = new HashSet<>();
-        this.init();
+        this.registry = registry;
     }
 
     /**
-     * Initializes the operation keys set.
+     * Constructs a new OperationFactory that creates the operations of the bank system from arguments received
+     * elsewhere, through {@link #getOperation(String, String)}.
      */
-    private void init() {
-        this.operationKeys.add(DepositOperation.OPERATION_KEY);
-        this.operationKeys.add(WithdrawOperation.OPERATION_KEY);
-        this.operationKeys.add(PrintStatementOperation.OPERATION_KEY);
-        this.operationKeys.add(QuitOperation.OPERATION_KEY);
+    public OperationFactory() {
+        this(OperationRegistry.withDefaults());
+    }
+
+    /**
+     * Constructs a new OperationFactory that creates the operations of the specified registry from arguments
+     * received elsewhere, through {@link #getOperation(String, String)}.
+     *
+     * @param registry The {@link OperationRegistry} holding the operations.
+     */
+    public OperationFactory(OperationRegistry registry) {
+        requireNonNull(registry);
+
+        this.cli = null;
+        this.registry = registry;
     }
 
     /**
-     * Retrieves the operation associated with the given key.
+     * Retrieves the operation associated with the given key, reading its argument from the CLI if it has one.
      *
      * @param key The key representing the desired operation.
      * @return The {@link Operation} associated with the given key.
+     * @throws InputException If the argument of the operation is invalid.
      * @throws IllegalArgumentException If the key is not recognized.
+     * @throws IllegalStateException If the operation has an argument and the factory has no CLI.
      */
     public Operation getOperation(String key) throws InputException {
-        switch (key) {
-        case DepositOperation.OPERATION_KEY:
-            BigDecimal depositAmount = this.cli.readTransactionAmount(DepositOperation.TRANSACTION_TYPE);
-            return new DepositOperation(depositAmount);
-        case WithdrawOperation.OPERATION_KEY:
-            BigDecimal withdrawalAmount = this.cli.readTransactionAmount(WithdrawOperation.TRANSACTION_TYPE);
-            return new WithdrawOperation(withdrawalAmount);
-        case PrintStatementOperation.OPERATION_KEY:
-            return new PrintStatementOperation();
-        case QuitOperation.OPERATION_KEY:
-            return QUIT_OPERATION;
-        default:
-            throw new IllegalArgumentException(String.format(MESSAGE_INVALID_KEY, key));
+        OperationEntry entry = this.getRequiredEntry(key);
+        String prompt = entry.getArgumentPrompt();
+        if (prompt == null) {
+            return entry.create(null);
+        }
+
+        if (this.cli == null) {
+            throw new IllegalStateException(MESSAGE_NO_CLI);
         }
+        return entry.create(this.cli.readArgument(prompt));
+    }
+
+    /**
+     * Retrieves the operation associated with the given key and an argument that has already been received.
+     *
+     * @param key The key representing the desired operation.
+     * @param argument The line holding the argument of the operation, or {@code null} if it has none.
+     * @return The {@link Operation} associated with the given key.
+     * @throws InputException If the argument of the operation is invalid.
+     * @throws IllegalArgumentException If the key is not recognized.
+     */
+    public Operation getOperation(String key, String argument) throws InputException {
+        return this.getRequiredEntry(key).create(argument);
+    }
+
+    /**
+     * Returns the prompt for the argument of the operation with the given key.
+     *
+     * @param key The key representing the operation.
+     * @return The prompt, or {@code null} if the operation has no argument.
+     */
+    public String getArgumentPrompt(String key) {
+        OperationEntry entry = this.getEntry(key);
+        return entry == null ? null : entry.getArgumentPrompt();
+    }
+
+    /**
+     * Creates an operation that applies the specified deposits and withdrawals to an account as a whole,
+     * such as commands read in bulk. See {@link BatchOperation}.
+     *
+     * @param amounts The amounts of the transactions, positive for deposits and negative for withdrawals.
+     * @return The batch {@link Operation}.
+     * @throws IllegalArgumentException If an amount is zero.
+     */
+    public Operation getBatchOperation(List<Money> amounts) {
+        return new BatchOperation(amounts);
     }
 
     /**
@@ -72,6 +130,29 @@ public class OperationFactory {
      * @return {@code true} if the factory contains the key, {@code false} otherwise.
      */
     public boolean containsKey(String key) {
-        return this.operationKeys.contains(key);
+        return this.getEntry(key) != null;
+    }
+
+    /**
+     * Returns the operation registered under the specified key character, in either case.
+     *
+     * @return The {@link OperationEntry}, or {@code null} if no operation has the key.
+     */
+    public OperationEntry getEntry(char key) {
+        return this.registry.get(key);
+    }
+
+    private OperationEntry getEntry(String key) {
+        requireNonNull(key);
+
+        return key.length() == 1 ? this.registry.get(key.charAt(0)) : null;
+    }
+
+    private OperationEntry getRequiredEntry(String key) {
+        OperationEntry entry = this.getEntry(key);
+        if (entry == null) {
+            throw new IllegalArgumentException(String.format(MESSAGE_INVALID_KEY, key));
+        }
+        return entry;
     }
 }
@@ -0,0 +1,104 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import awesomegic.bank.cli.CommandParser;
+import awesomegic.bank.metrics.Metrics;
+
+/**
+ * Represents the operations that can be chosen at the option prompt, looked up by the single character of
+ * their key.
+ * <p>
+ * The entries are kept in a table indexed by the character, in both its lower and upper case, so a lookup is
+ * an array access that neither allocates nor depends on the number of operations. Operations are registered
+ * before the registry is handed to an {@link OperationFactory}; looking them up is then safe from any thread.
+ */
+public final class OperationRegistry {
+    private static final String MESSAGE_INVALID_KEY = "The key '%s' is not a single visible ASCII character.";
+    private static final String MESSAGE_DUPLICATE_KEY = "The key '%s' is already registered.";
+    private static final int TABLE_SIZE = 128;
+    private static final String PROMPT_DEPOSIT_AMOUNT =
+        CommandParser.promptForAmount(DepositOperation.TRANSACTION_TYPE);
+    private static final String PROMPT_WITHDRAWAL_AMOUNT =
+        CommandParser.promptForAmount(WithdrawOperation.TRANSACTION_TYPE);
+    private static final Operation PRINT_STATEMENT_OPERATION = new PrintStatementOperation();
+    private static final Operation QUIT_OPERATION = new QuitOperation();
+
+    private final OperationEntry[] entries = new OperationEntry[TABLE_SIZE];
+
+    /**
+     * Constructs an empty {@code OperationRegistry}.
+     */
+    public OperationRegistry() {
+    }
+
+    /**
+     * Returns a new registry holding the operations of the bank system, to which more can be registered.
+     * The metrics shown are those of {@link Metrics#getDefault()}.
+     */
+    public static OperationRegistry withDefaults() {
+        return withDefaults(Metrics.getDefault());
+    }
+
+    /**
+     * Returns a new registry holding the operations of the bank system, to which more can be registered.
+     *
+     * @param metrics The {@link Metrics} the operations are recorded in, which the hidden metrics operation shows.
+     */
+    public static OperationRegistry withDefaults(Metrics metrics) {
+        requireNonNull(metrics);
+
+        return new OperationRegistry()
+            .register(OperationEntry.withArgument(DepositOperation.OPERATION_KEY, PROMPT_DEPOSIT_AMOUNT,
+                argument -> new DepositOperation(CommandParser.parseTransactionAmount(argument))))
+            .register(OperationEntry.withArgument(WithdrawOperation.OPERATION_KEY, PROMPT_WITHDRAWAL_AMOUNT,
+                argument -> new WithdrawOperation(CommandParser.parseTransactionAmount(argument))))
+            .register(OperationEntry.of(PrintStatementOperation.OPERATION_KEY, PRINT_STATEMENT_OPERATION))
+            .register(OperationEntry.withArgument(PrintRangedStatementOperation.OPERATION_KEY,
+                CommandParser.MESSAGE_PROMPT_STATEMENT_RANGE,
+                argument -> new PrintRangedStatementOperation(CommandParser.parseStatementRange(argument))))
+            .register(OperationEntry.withArgument(QueryBalanceOperation.OPERATION_KEY,
+                CommandParser.MESSAGE_PROMPT_BALANCE_QUERY,
+                argument -> new QueryBalanceOperation(CommandParser.parseBalanceQuery(argument))))
+            .register(OperationEntry.withArgument(PrintMonthlyStatementOperation.OPERATION_KEY,
+                CommandParser.MESSAGE_PROMPT_INTEREST_RATE,
+                argument -> new PrintMonthlyStatementOperation(CommandParser.parseInterestRate(argument))))
+            .register(OperationEntry.of(QuitOperation.OPERATION_KEY, QUIT_OPERATION))
+            .register(OperationEntry.of(ShowMetricsOperation.OPERATION_KEY, new ShowMetricsOperation(metrics)));
+    }
+
+    /**
+     * Registers an operation under its key, which is matched regardless of case.
+     *
+     * @param entry The {@link OperationEntry} describing the operation.
+     * @return This registry.
+     * @throws IllegalArgumentException If the key is not a single visible ASCII character, or is already
+     *     registered.
+     */
+    public OperationRegistry register(OperationEntry entry) {
+        requireNonNull(entry);
+
+        String key = entry.getKey();
+        if (key.length() != 1 || key.charAt(0) <= ' ' || key.charAt(0) >= TABLE_SIZE - 1) {
+            throw new IllegalArgumentException(String.format(MESSAGE_INVALID_KEY, key));
+        }
+        char lowerCase = Character.toLowerCase(key.charAt(0));
+        char upperCase = Character.toUpperCase(key.charAt(0));
+        if (this.entries[lowerCase] != null || this.entries[upperCase] != null) {
+            throw new IllegalArgumentException(String.format(MESSAGE_DUPLICATE_KEY, key));
+        }
+
+        this.entries[lowerCase] = entry;
+        this.entries[upperCase] = entry;
+        return this;
+    }
+
+    /**
+     * Returns the operation registered under the specified key character, in either case.
+     *
+     * @return The {@link OperationEntry}, or {@code null} if no operation has the key.
+     */
+    public OperationEntry get(char key) {
+        return key < TABLE_SIZE ? this.entries[key] : null;
+    }
+}
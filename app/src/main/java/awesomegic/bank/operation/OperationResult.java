@@ -8,7 +8,7 @@ import awesomegic.bank.model.account.BankAccount;
  * Represents the result of an operation.
  */
 public class OperationResult {
-    public final String feedback;
+    public final Feedback feedback;
     public final boolean exit;
     public final BankAccount updatedAccount;
 
@@ -16,10 +16,10 @@ public class OperationResult {
      * Constructs a new OperationResult with the specified updated account, feedback message, and exit flag.
      *
      * @param updatedAccount The updated bank account resulting from the operation.
-     * @param feedback The feedback message generated by the operation.
+     * @param feedback The {@link Feedback} generated by the operation.
      * @param exit {@code true} if the application should exitn, {@code false} otherwise.
      */
-    OperationResult(BankAccount updatedAccount, String feedback, boolean exit) {
+    OperationResult(BankAccount updatedAccount, Feedback feedback, boolean exit) {
         requireAllNonNull(updatedAccount, feedback);
 
         this.updatedAccount = updatedAccount;
@@ -35,6 +35,17 @@ public class OperationResult {
      * @param feedback The feedback message generated by the operation.
      */
     OperationResult(BankAccount updatedAccount, String feedback) {
+        this(updatedAccount, Feedback.of(feedback), false);
+    }
+
+    /**
+     * Constructs a new OperationResult with the specified updated account and feedback that is written
+     * out when it is shown. The exit flag is set to false by default.
+     *
+     * @param updatedAccount The updated bank account resulting from the operation.
+     * @param feedback The {@link Feedback} generated by the operation.
+     */
+    OperationResult(BankAccount updatedAccount, Feedback feedback) {
         this(updatedAccount, feedback, false);
     }
 
@@ -46,6 +57,6 @@ public class OperationResult {
      * @param exit {@code true} if the application should exit, {@code false} otherwise.
      */
     OperationResult(BankAccount updatedAccount, boolean exit) {
-        this(updatedAccount, "", exit);
+        this(updatedAccount, Feedback.of(""), exit);
     }
 }
@@ -0,0 +1,44 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import java.math.BigDecimal;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.account.MonthlyStatement;
+
+/**
+ * Represents an operation to print the totals of every month and the interest accrued on the daily
+ * closing balance.
+ */
+public class PrintMonthlyStatementOperation implements Operation {
+    public static final String OPERATION_KEY = "s";
+    private final BigDecimal annualInterestRate;
+
+    /**
+     * Constructs a new {@code PrintMonthlyStatementOperation} at the specified interest rate.
+     *
+     * @param annualInterestRate The interest rate per year, in percent.
+     */
+    PrintMonthlyStatementOperation(BigDecimal annualInterestRate) {
+        requireNonNull(annualInterestRate);
+
+        this.annualInterestRate = annualInterestRate;
+    }
+
+    /**
+     * Summarizes the months of the associated {@link BankAccount} and returns the monthly statement as
+     * feedback that streams the statement when shown.
+     *
+     * @param account The {@link BankAccount} for which the statement will be printed.
+     * @return An {@link OperationResult} containing the monthly statement.
+     */
+    @Override
+    public OperationResult execute(BankAccount account) {
+        requireNonNull(account);
+
+        MonthlyStatement statement = account.generateStatement().byMonth(this.annualInterestRate);
+
+        return new OperationResult(account, statement::writeTo);
+    }
+}
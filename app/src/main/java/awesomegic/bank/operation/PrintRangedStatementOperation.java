@@ -0,0 +1,42 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import awesomegic.bank.model.account.AccountStatement;
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.account.StatementRange;
+
+/**
+ * Represents an operation to print the account statement for a range of transactions.
+ */
+public class PrintRangedStatementOperation implements Operation {
+    public static final String OPERATION_KEY = "r";
+    private final StatementRange range;
+
+    /**
+     * Constructs a new {@code PrintRangedStatementOperation} for the specified range.
+     *
+     * @param range The range of transactions to print.
+     */
+    PrintRangedStatementOperation(StatementRange range) {
+        requireNonNull(range);
+
+        this.range = range;
+    }
+
+    /**
+     * Retrieves the account statement for the range from the associated {@link BankAccount} and
+     * returns it as feedback that streams the statement when shown.
+     *
+     * @param account The {@link BankAccount} for which the statement will be printed.
+     * @return An {@link OperationResult} containing the account statement.
+     */
+    @Override
+    public OperationResult execute(BankAccount account) {
+        requireNonNull(account);
+
+        AccountStatement statement = this.range.select(account.generateStatement());
+
+        return new OperationResult(account, Feedback.chunked(statement::writeTo, statement::chunks));
+    }
+}
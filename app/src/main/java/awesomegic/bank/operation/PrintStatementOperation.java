@@ -16,7 +16,7 @@ public class PrintStatementOperation implements Operation {
 
      /**
      * Retrieves the account statement from the associated {@link BankAccount} and
-     * returns it as a string representation.
+     * returns it as feedback that streams the statement when shown.
      *
      * @param account The {@link BankAccount} for which the statement will be printed.
      * @return An {@link OperationResult} containing the account statement.
@@ -27,6 +27,6 @@ public class PrintStatementOperation implements Operation {
 
         AccountStatement statement = account.generateStatement();
 
-        return new OperationResult(account, statement.toString());
+        return new OperationResult(account, Feedback.chunked(statement::writeTo, statement::chunks));
     }
 }
@@ -0,0 +1,39 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import awesomegic.bank.model.account.BalanceQuery;
+import awesomegic.bank.model.account.BankAccount;
+
+/**
+ * Represents an operation to look up the balance of the account at a past instant, or the lowest, highest
+ * and average balance over a window of time.
+ */
+public class QueryBalanceOperation implements Operation {
+    public static final String OPERATION_KEY = "b";
+    private final BalanceQuery query;
+
+    /**
+     * Constructs a new {@code QueryBalanceOperation} for the specified query.
+     *
+     * @param query The question about the balance to answer.
+     */
+    QueryBalanceOperation(BalanceQuery query) {
+        requireNonNull(query);
+
+        this.query = query;
+    }
+
+    /**
+     * Answers the query from the transactions of the account, leaving the account unchanged.
+     *
+     * @param account The {@link BankAccount} to query.
+     * @return An {@link OperationResult} containing the answer.
+     */
+    @Override
+    public OperationResult execute(BankAccount account) {
+        requireNonNull(account);
+
+        return new OperationResult(account, this.query.answer(account));
+    }
+}
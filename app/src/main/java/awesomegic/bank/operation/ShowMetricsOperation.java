@@ -0,0 +1,35 @@
+package awesomegic.bank.operation;
+
+import static java.util.Objects.requireNonNull;
+
+import awesomegic.bank.metrics.Metrics;
+import awesomegic.bank.model.account.BankAccount;
+
+/**
+ * Represents an operation to show the counters and latencies of the operations processed so far.
+ * The operation is meant for operators, so it is left out of the menu shown to users.
+ */
+public class ShowMetricsOperation implements Operation {
+    public static final String OPERATION_KEY = "m";
+
+    private final Metrics metrics;
+
+    ShowMetricsOperation(Metrics metrics) {
+        requireNonNull(metrics);
+
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns a report of the metrics as feedback, leaving the account unchanged.
+     *
+     * @param account The {@link BankAccount} the operation is executed on.
+     * @return An {@link OperationResult} containing the report.
+     */
+    @Override
+    public OperationResult execute(BankAccount account) {
+        requireNonNull(account);
+
+        return new OperationResult(account, this.metrics.report());
+    }
+}
@@ -1,12 +1,12 @@
 package awesomegic.bank.operation;
 
 import static awesomegic.bank.cli.Message.MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT;
+import static awesomegic.bank.utils.NumberUtils.formatTwoDecimalPlaces;
 import static awesomegic.bank.utils.NumberUtils.requirePositive;
 import static java.util.Objects.requireNonNull;
 
-import java.math.BigDecimal;
-
 import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
 import awesomegic.bank.operation.exceptions.OperationException;
 
 /**
@@ -16,15 +16,16 @@ public class WithdrawOperation implements Operation {
     public static final String OPERATION_KEY = "w";
     public static final String TRANSACTION_TYPE = "withdraw";
     private static final String MESSAGE_INSUFFICIENT_BALANCE = "Insufficient balance. Unable to complete withdrawal.";
-    private static final String MESSAGE_WITHDRAWAL_SUCCESS = "Thank you. $%.2f has been withdrawn.";
-    private final BigDecimal amount;
+    private static final String MESSAGE_WITHDRAWAL_SUCCESS_PREFIX = "Thank you. $";
+    private static final String MESSAGE_WITHDRAWAL_SUCCESS_SUFFIX = " has been withdrawn.";
+    private final Money amount;
 
     /**
      * Constructs a new {@code WithdrawOperation} with the specified withdrawal amount.
      * 
      * @param amount The amount to be withdrawed.
      */
-    WithdrawOperation(BigDecimal amount) {
+    WithdrawOperation(Money amount) {
         requireNonNull(amount);
         requirePositive(amount, MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT);
 
@@ -48,6 +49,7 @@ public class WithdrawOperation implements Operation {
 
         BankAccount updatedAccount = account.withdraw(this.amount);
 
-        return new OperationResult(updatedAccount, String.format(MESSAGE_WITHDRAWAL_SUCCESS, this.amount));
+        return new OperationResult(updatedAccount,
+            MESSAGE_WITHDRAWAL_SUCCESS_PREFIX + formatTwoDecimalPlaces(this.amount) + MESSAGE_WITHDRAWAL_SUCCESS_SUFFIX);
     }
 }
@@ -0,0 +1,248 @@
+package awesomegic.bank.registry;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.storage.Journal;
+
+/**
+ * Represents the bank accounts of the bank system, keyed by account ID.
+ * <p>
+ * Accounts are spread over a power-of-two number of shards, each guarded by its own lock, so operations on
+ * accounts in different shards run in parallel without any global lock. Every account ID has an account:
+ * an ID that has not been used yet refers to a new account with a zero balance.
+ * <p>
+ * Each account is held in a {@link ConcurrentAccount}. Operations without a recording {@link Journal} are
+ * published through it without a lock, so many threads can update the same account at once. Operations
+ * with a recording journal hold the shard lock so that the journal sees them in the order they are
+ * published, and wait for their records to become durable only after releasing it, so that operations
+ * queued behind them can share the same force to disk. Once an account has been updated with a journal,
+ * its handle refuses every other update, so the journal sees every change to it.
+ */
+public final class AccountRegistry {
+    private static final String MESSAGE_INVALID_SHARD_COUNT = "Shard count must be positive.";
+    private static final String MESSAGE_UNJOURNALED_UPDATE =
+        "The account was updated without its journal while a journaled operation was in progress.";
+    private static final int SHARDS_PER_PROCESSOR = 4;
+
+    private final Shard[] shards;
+    private final int shardMask;
+
+    /**
+     * Constructs an {@code AccountRegistry} with a few shards per available processor.
+     */
+    public AccountRegistry() {
+        this(Runtime.getRuntime().availableProcessors() * SHARDS_PER_PROCESSOR);
+    }
+
+    /**
+     * Constructs an {@code AccountRegistry} with at least the specified number of shards,
+     * rounded up to a power of two.
+     *
+     * @param shardCount The minimum number of shards.
+     * @throws IllegalArgumentException if the shard count is not positive.
+     */
+    public AccountRegistry(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_SHARD_COUNT);
+        }
+
+        int size = Integer.highestOneBit(shardCount);
+        if (size < shardCount) {
+            size <<= 1;
+        }
+
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.shardMask = size - 1;
+    }
+
+    /**
+     * Returns the account with the specified ID, or a new account if the ID has not been used yet.
+     *
+     * @param accountId The ID of the account.
+     */
+    public BankAccount getAccount(String accountId) {
+        Shard shard = this.shardFor(accountId);
+
+        shard.lock.lock();
+        try {
+            ConcurrentAccount handle = shard.accounts.get(accountId);
+            return handle != null ? handle.get() : new BankAccount();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the {@link ConcurrentAccount} handle of the account with the specified ID,
+     * creating a new account if the ID has not been used yet.
+     *
+     * @param accountId The ID of the account.
+     */
+    public ConcurrentAccount getHandle(String accountId) {
+        requireNonNull(accountId);
+
+        Shard shard = this.shardFor(accountId);
+
+        shard.lock.lock();
+        try {
+            return shard.getHandle(accountId);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Registers an account under the specified ID, replacing any account already registered under it.
+     *
+     * @param accountId The ID of the account.
+     * @param account The account, such as one recovered from a {@link Journal}.
+     */
+    public void register(String accountId, BankAccount account) {
+        requireAllNonNull(accountId, account);
+
+        Shard shard = this.shardFor(accountId);
+
+        shard.lock.lock();
+        try {
+            shard.getHandle(accountId).set(account);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Executes an operation on the account with the specified ID and publishes the updated account
+     * through its {@link ConcurrentAccount} handle, without a lock.
+     *
+     * @param accountId The ID of the account.
+     * @param operation The operation to execute.
+     * @return The {@link OperationResult} of the operation.
+     * @throws OperationException If the operation encounters an error during its execution.
+     * @throws IllegalStateException if the account is recorded by a journal.
+     */
+    public OperationResult execute(String accountId, Operation operation) throws OperationException {
+        requireAllNonNull(accountId, operation);
+
+        return this.getHandle(accountId).execute(operation);
+    }
+
+    /**
+     * Executes an operation on the account with the specified ID, stores the updated account and records the
+     * transactions it made in the journal, undoing the update if they cannot be recorded. Operations on the
+     * same account are applied and recorded one at a time, in the same order, and each returns once its
+     * transactions are as durable as the journal promises. If the journal does not record anything, the
+     * operation is published without a lock as by {@link #execute(String, Operation)}.
+     *
+     * @param accountId The ID of the account.
+     * @param operation The operation to execute.
+     * @param journal The {@link Journal} of the account.
+     * @return The {@link OperationResult} of the operation.
+     * @throws OperationException If the operation encounters an error during its execution.
+     * @throws IOException If the transactions cannot be recorded, in which case the account is left unchanged,
+     *     or cannot be made durable, in which case the operation must be treated as failed even though later
+     *     operations may already see it.
+     * @throws IllegalStateException if the account was being updated without the journal when it was first
+     *     updated with it, in which case nothing is recorded.
+     */
+    public OperationResult execute(String accountId, Operation operation, Journal journal)
+            throws OperationException, IOException {
+        requireAllNonNull(accountId, operation, journal);
+
+        if (!journal.isRecording()) {
+            return this.getHandle(accountId).execute(operation);
+        }
+
+        Shard shard = this.shardFor(accountId);
+        OperationResult result;
+        Journal.Commit commit = Journal.Commit.DURABLE;
+
+        shard.lock.lock();
+        try {
+            ConcurrentAccount handle = shard.getHandle(accountId);
+            handle.attachJournal();
+            BankAccount account = handle.get();
+            result = operation.execute(account);
+
+            if (result.updatedAccount != account) {
+                // Published before it is recorded, so that a failed publish leaves nothing in the journal.
+                if (!handle.compareAndSet(account, result.updatedAccount)) {
+                    throw new IllegalStateException(MESSAGE_UNJOURNALED_UPDATE);
+                }
+                commit = this.record(handle, account, result.updatedAccount, journal);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+
+        commit.await();
+        return result;
+    }
+
+    /**
+     * Writes the transactions that take the account from the current to the updated version to the journal,
+     * restoring the current version if they cannot be written. Must be called with the shard lock held.
+     */
+    private Journal.Commit record(ConcurrentAccount handle, BankAccount current, BankAccount updated,
+            Journal journal) throws IOException {
+        ReadOnlyTransactionList currentTransactions = current.getTransactions();
+        ReadOnlyTransactionList updatedTransactions = updated.getTransactions();
+        if (updatedTransactions.size() <= currentTransactions.size()) {
+            return Journal.Commit.DURABLE;
+        }
+
+        try {
+            return journal.write(updatedTransactions.subList(currentTransactions.size(), updatedTransactions.size()));
+        } catch (IOException | RuntimeException e) {
+            // Nothing else can update a journaled account, so the updated version is still the current one.
+            handle.compareAndSet(updated, current);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of accounts that have been registered or updated.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : this.shards) {
+            shard.lock.lock();
+            try {
+                size += shard.accounts.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Shard shardFor(String accountId) {
+        int hash = accountId.hashCode();
+        return this.shards[(hash ^ (hash >>> 16)) & this.shardMask];
+    }
+
+    /**
+     * Represents a group of accounts guarded by a single lock.
+     */
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, ConcurrentAccount> accounts = new HashMap<>();
+
+        private ConcurrentAccount getHandle(String accountId) {
+            return this.accounts.computeIfAbsent(accountId, id -> new ConcurrentAccount(new BankAccount()));
+        }
+    }
+}
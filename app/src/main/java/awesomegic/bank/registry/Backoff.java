@@ -0,0 +1,42 @@
+package awesomegic.bank.registry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents the policy for waiting between attempts to publish an account after losing a race.
+ * <p>
+ * The wait grows exponentially with the number of failed attempts and is randomized so that contending
+ * threads drift apart. Short waits spin, and longer waits park the thread.
+ */
+final class Backoff {
+    private static final int MAX_SPIN_EXPONENT = 6;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    private int attempts;
+
+    /**
+     * Returns the number of failed attempts so far.
+     */
+    int getAttempts() {
+        return this.attempts;
+    }
+
+    /**
+     * Records a failed attempt and waits before the next one.
+     */
+    void backOff() {
+        this.attempts++;
+
+        if (this.attempts <= MAX_SPIN_EXPONENT) {
+            int spins = ThreadLocalRandom.current().nextInt(1 << this.attempts) + 1;
+            for (int i = 0; i < spins; i++) {
+                Thread.onSpinWait();
+            }
+            return;
+        }
+
+        long ceilingNanos = Math.min(MAX_PARK_NANOS, 1L << Math.min(this.attempts + 4, 30));
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceilingNanos) + 1);
+    }
+}
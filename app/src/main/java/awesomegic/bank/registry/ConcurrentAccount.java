@@ -0,0 +1,314 @@
+package awesomegic.bank.registry;
+
+import static awesomegic.bank.cli.Message.MESSAGE_BALANCE_LIMIT_EXCEEDED;
+import static awesomegic.bank.cli.Message.MESSAGE_INVALID_WITHDRAWAL_AMOUNT;
+import static awesomegic.bank.cli.Message.MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT;
+import static awesomegic.bank.cli.Message.MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT;
+import static awesomegic.bank.utils.NumberUtils.requirePositive;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.exceptions.OperationException;
+
+/**
+ * Represents a handle to a bank account that many threads can update at the same time without locks.
+ * <p>
+ * Every update derives a new immutable {@link BankAccount} from the current one and publishes it with a
+ * compare-and-set, retrying with a randomized exponential {@link Backoff} when another thread got there
+ * first. Since each update is validated against the exact account it replaces, a withdrawal never takes
+ * the balance below zero and no update is lost.
+ * <p>
+ * Deposits and withdrawals that keep losing the race on a hot account are handed to a combiner instead:
+ * one of the waiting threads applies all queued requests as a single {@link BankAccount.Batch} and
+ * publishes them with one compare-and-set.
+ * <p>
+ * Once the account is recorded by a journal, it can only be updated through the {@link AccountRegistry}
+ * with that journal, and every other update is refused.
+ */
+public final class ConcurrentAccount {
+    private static final String MESSAGE_JOURNALED =
+        "The account is recorded by a journal, so it can only be updated through the registry with that journal.";
+    private static final int COMBINING_THRESHOLD = 4;
+    private static final int MAX_COMBINED_REQUESTS = 1 << 12;
+    private static final long COMBINER_WAIT_NANOS = 50_000L;
+
+    private final AtomicReference<BankAccount> account;
+    private final ConcurrentLinkedQueue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isCombining = new AtomicBoolean();
+    private volatile boolean isJournaled;
+
+    /**
+     * Constructs a {@code ConcurrentAccount} holding the specified account.
+     *
+     * @param account The initial {@link BankAccount}.
+     */
+    public ConcurrentAccount(BankAccount account) {
+        requireNonNull(account);
+
+        this.account = new AtomicReference<>(account);
+    }
+
+    /**
+     * Returns the latest published account.
+     */
+    public BankAccount get() {
+        return this.account.get();
+    }
+
+    /**
+     * Executes an operation on the account and publishes the updated account.
+     * The operation is executed again on the latest account whenever another update is published first,
+     * so it must not have side effects other than its result. An operation that keeps losing the race is
+     * handed to the combiner, which applies it along with the other queued requests.
+     *
+     * @param operation The operation to execute.
+     * @return The {@link OperationResult} of the execution that was published.
+     * @throws OperationException If the operation encounters an error during its execution.
+     * @throws IllegalStateException if the account is recorded by a journal.
+     */
+    public OperationResult execute(Operation operation) throws OperationException {
+        requireNonNull(operation);
+
+        Backoff backoff = new Backoff();
+        while (backoff.getAttempts() < COMBINING_THRESHOLD) {
+            BankAccount current = this.account.get();
+            this.checkNotJournaled();
+            OperationResult result = operation.execute(current);
+            if (result.updatedAccount == current || this.account.compareAndSet(current, result.updatedAccount)) {
+                return result;
+            }
+            backoff.backOff();
+        }
+
+        Request request = this.awaitCombined(new Request(null, operation));
+        if (request.failure instanceof OperationException) {
+            throw (OperationException) request.failure;
+        }
+        if (request.failure != null) {
+            throw (RuntimeException) request.failure;
+        }
+        return request.result;
+    }
+
+    /**
+     * Deposits the specified amount into the account.
+     *
+     * @param amount The amount to be deposited.
+     * @return The published account holding the deposit, possibly along with updates from other threads.
+     * @throws IllegalArgumentException if the amount is not positive or would take the balance over
+     *     {@link Money#MAX_VALUE}.
+     * @throws IllegalStateException if the account is recorded by a journal.
+     */
+    public BankAccount deposit(Money amount) {
+        requireNonNull(amount);
+        requirePositive(amount, MESSAGE_NON_POSITIVE_DEPOSIT_AMOUNT);
+
+        return this.update(amount);
+    }
+
+    /**
+     * Withdraws the specified amount from the account.
+     *
+     * @param amount The amount to be withdrawn.
+     * @return The published account holding the withdrawal, possibly along with updates from other threads.
+     * @throws IllegalArgumentException if the amount is not positive or exceeds the balance.
+     * @throws IllegalStateException if the account is recorded by a journal.
+     */
+    public BankAccount withdraw(Money amount) {
+        requireNonNull(amount);
+        requirePositive(amount, MESSAGE_NON_POSITIVE_WITHDRAWAL_AMOUNT);
+
+        return this.update(amount.negate());
+    }
+
+    /**
+     * Replaces the account, such as with one recovered from a journal.
+     */
+    void set(BankAccount account) {
+        requireNonNull(account);
+
+        this.account.set(account);
+    }
+
+    /**
+     * Marks the account as recorded by a journal, after which only {@link #compareAndSet} can update it.
+     * An update through the public methods that has already read the account before it was marked can still
+     * be published, in which case the registry's next compare-and-set fails before anything is recorded.
+     */
+    void attachJournal() {
+        this.isJournaled = true;
+    }
+
+    /**
+     * Publishes the updated account if the current account is still the expected one.
+     *
+     * @return {@code true} if the updated account was published.
+     */
+    boolean compareAndSet(BankAccount expected, BankAccount updated) {
+        requireNonNull(updated);
+
+        return this.account.compareAndSet(expected, updated);
+    }
+
+    /**
+     * Checks that the account is not recorded by a journal. Called after reading the account, so that an
+     * update based on an account published by the registry always sees the mark.
+     */
+    private void checkNotJournaled() {
+        if (this.isJournaled) {
+            throw new IllegalStateException(MESSAGE_JOURNALED);
+        }
+    }
+
+    private BankAccount update(Money signedAmount) {
+        Backoff backoff = new Backoff();
+        while (backoff.getAttempts() < COMBINING_THRESHOLD) {
+            BankAccount current = this.account.get();
+            this.checkNotJournaled();
+            BankAccount updated = signedAmount.signum() > 0
+                ? current.deposit(signedAmount)
+                : current.withdraw(signedAmount.negate());
+            if (this.account.compareAndSet(current, updated)) {
+                return updated;
+            }
+            backoff.backOff();
+        }
+
+        Request request = this.awaitCombined(new Request(signedAmount, null));
+        if (request.failure != null) {
+            throw (RuntimeException) request.failure;
+        }
+        return request.account;
+    }
+
+    /**
+     * Queues the request and waits until it has been applied, combining the queued requests itself
+     * whenever no other thread is doing so.
+     *
+     * @return The completed request.
+     */
+    private Request awaitCombined(Request request) {
+        this.requests.add(request);
+
+        while (!request.isDone) {
+            if (this.isCombining.compareAndSet(false, true)) {
+                try {
+                    this.combineRequests();
+                } finally {
+                    this.isCombining.set(false);
+                }
+            } else {
+                LockSupport.parkNanos(this, COMBINER_WAIT_NANOS);
+            }
+        }
+
+        return request;
+    }
+
+    /**
+     * Applies the queued requests as one batch. Withdrawals that exceed the balance left by the requests
+     * before them, and deposits that would take it over the maximum balance, are rejected individually, as
+     * are operations that fail, and the rest of the batch is published. Each operation is executed on the
+     * account left by the requests before it.
+     */
+    private void combineRequests() {
+        List<Request> batch = new ArrayList<>();
+        Request next;
+        while (batch.size() < MAX_COMBINED_REQUESTS && (next = this.requests.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        OperationResult[] results = new OperationResult[batch.size()];
+        Exception[] failures = new Exception[batch.size()];
+        Backoff backoff = new Backoff();
+        while (true) {
+            BankAccount current = this.account.get();
+            if (this.isJournaled) {
+                for (Request request : batch) {
+                    request.complete(null, null, new IllegalStateException(MESSAGE_JOURNALED));
+                }
+                return;
+            }
+
+            BankAccount.Batch builder = current.batch();
+            for (int i = 0; i < batch.size(); i++) {
+                Request request = batch.get(i);
+                results[i] = null;
+                failures[i] = null;
+                if (request.operation != null) {
+                    BankAccount before = builder.build();
+                    try {
+                        results[i] = request.operation.execute(before);
+                        builder = results[i].updatedAccount.batch();
+                    } catch (OperationException | RuntimeException e) {
+                        failures[i] = e;
+                        builder = before.batch();
+                    }
+                } else if (request.amount.signum() > 0) {
+                    if (builder.getBalance().canAdd(request.amount)) {
+                        builder.deposit(request.amount);
+                    } else {
+                        failures[i] = new IllegalArgumentException(MESSAGE_BALANCE_LIMIT_EXCEEDED);
+                    }
+                } else {
+                    if (builder.getBalance().isLessThan(request.amount.negate())) {
+                        failures[i] = new IllegalArgumentException(MESSAGE_INVALID_WITHDRAWAL_AMOUNT);
+                    } else {
+                        builder.withdraw(request.amount.negate());
+                    }
+                }
+            }
+
+            BankAccount updated = builder.build();
+            if (updated == current || this.account.compareAndSet(current, updated)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(updated, results[i], failures[i]);
+                }
+                return;
+            }
+            backoff.backOff();
+        }
+    }
+
+    /**
+     * Represents a deposit, withdrawal or operation waiting to be combined.
+     */
+    private static final class Request {
+        private final Money amount;
+        private final Operation operation;
+        private final Thread waiter = Thread.currentThread();
+        private BankAccount account;
+        private OperationResult result;
+        private Exception failure;
+        private volatile boolean isDone;
+
+        /**
+         * Constructs a request for either a signed amount to deposit or withdraw, or an operation.
+         */
+        private Request(Money amount, Operation operation) {
+            this.amount = amount;
+            this.operation = operation;
+        }
+
+        private void complete(BankAccount account, OperationResult result, Exception failure) {
+            this.account = account;
+            this.result = result;
+            this.failure = failure;
+            this.isDone = true;
+            LockSupport.unpark(this.waiter);
+        }
+    }
+}
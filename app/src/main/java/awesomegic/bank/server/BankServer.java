@@ -0,0 +1,171 @@
+package awesomegic.bank.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.registry.AccountRegistry;
+
+/**
+ * Represents a network front end that serves the banking line protocol to many clients at once.
+ * <p>
+ * An acceptor thread hands new connections to a few worker threads in turn. Each worker serves its
+ * connections through a single non-blocking selector, so thousands of sessions need only as many threads
+ * as there are workers. Sessions update the accounts of a shared {@link AccountRegistry}, and sessions
+ * bound to the same account see each other's transactions.
+ */
+public final class BankServer implements AutoCloseable {
+    private static final String MESSAGE_ALREADY_STARTED = "The server has already been started.";
+    private static final String MESSAGE_INVALID_WORKER_COUNT = "Worker count must be positive.";
+    private static final String ACCEPTOR_THREAD_NAME = "bank-server-acceptor";
+    private static final String WORKER_THREAD_NAME = "bank-server-worker-%d";
+    private static final int BACKLOG = 1 << 10;
+    private static final long MIN_ACCEPT_RETRY_MILLIS = 10;
+    private static final long MAX_ACCEPT_RETRY_MILLIS = 1_000;
+
+    private final AccountRegistry registry;
+    private final InetSocketAddress address;
+    private final Worker[] workers;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructs a {@code BankServer} with one worker per available processor.
+     *
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param address The address to listen on. Port 0 picks a free port.
+     * @throws IOException If the selectors of the workers cannot be opened.
+     */
+    public BankServer(AccountRegistry registry, InetSocketAddress address) throws IOException {
+        this(registry, address, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a {@code BankServer}.
+     *
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param address The address to listen on. Port 0 picks a free port.
+     * @param workerCount The number of threads serving the connections.
+     * @throws IOException If the selectors of the workers cannot be opened.
+     * @throws IllegalArgumentException if the worker count is not positive.
+     */
+    public BankServer(AccountRegistry registry, InetSocketAddress address, int workerCount) throws IOException {
+        this(registry, address, workerCount, new OperationFactory());
+    }
+
+    /**
+     * Constructs a {@code BankServer} serving the operations of the specified factory.
+     *
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param address The address to listen on. Port 0 picks a free port.
+     * @param workerCount The number of threads serving the connections.
+     * @param factory The {@link OperationFactory} creating operations from the received lines.
+     * @throws IOException If the selectors of the workers cannot be opened.
+     * @throws IllegalArgumentException if the worker count is not positive.
+     */
+    BankServer(AccountRegistry registry, InetSocketAddress address, int workerCount, OperationFactory factory)
+            throws IOException {
+        requireNonNull(registry);
+        requireNonNull(address);
+        requireNonNull(factory);
+
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_WORKER_COUNT);
+        }
+
+        this.registry = registry;
+        this.address = address;
+        this.workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            this.workers[i] = new Worker(registry, factory);
+        }
+    }
+
+    /**
+     * Binds the server to its address and starts accepting connections.
+     *
+     * @throws IOException If the server cannot be bound.
+     */
+    public synchronized void start() throws IOException {
+        if (this.serverChannel != null) {
+            throw new IllegalStateException(MESSAGE_ALREADY_STARTED);
+        }
+
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(this.address, BACKLOG);
+
+        for (int i = 0; i < this.workers.length; i++) {
+            new Thread(this.workers[i], String.format(WORKER_THREAD_NAME, i)).start();
+        }
+        new Thread(this::acceptConnections, ACCEPTOR_THREAD_NAME).start();
+    }
+
+    /**
+     * Returns the port the server listens on, or -1 if it has not been started.
+     */
+    public synchronized int getPort() {
+        return this.serverChannel == null ? -1 : this.serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the {@link AccountRegistry} the server serves.
+     */
+    public AccountRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * Stops accepting connections and closes every session.
+     */
+    @Override
+    public synchronized void close() {
+        this.isClosed = true;
+        try {
+            if (this.serverChannel != null) {
+                this.serverChannel.close();
+            }
+        } catch (IOException e) {
+            // The server is shutting down either way.
+        }
+        for (Worker worker : this.workers) {
+            worker.close();
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed. A failure to accept, such as running out of file
+     * descriptors, is usually not over by the next attempt, so the acceptor waits before retrying, twice as
+     * long after every consecutive failure.
+     */
+    private void acceptConnections() {
+        int next = 0;
+        long retryMillis = MIN_ACCEPT_RETRY_MILLIS;
+        while (!this.isClosed) {
+            try {
+                SocketChannel channel = this.serverChannel.accept();
+                retryMillis = MIN_ACCEPT_RETRY_MILLIS;
+                try {
+                    channel.socket().setTcpNoDelay(true);
+                } catch (IOException e) {
+                    // The connection is still usable, only with Nagle's algorithm left on.
+                }
+                this.workers[next].add(channel);
+                next = (next + 1) % this.workers.length;
+            } catch (IOException e) {
+                if (this.isClosed) {
+                    return;
+                }
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryMillis = Math.min(retryMillis * 2, MAX_ACCEPT_RETRY_MILLIS);
+            }
+        }
+    }
+}
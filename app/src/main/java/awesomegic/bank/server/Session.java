@@ -0,0 +1,332 @@
+package awesomegic.bank.server;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.cli.CommandParser;
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.registry.AccountRegistry;
+
+/**
+ * Represents a client connection to the {@link BankServer}, bound to one account.
+ * <p>
+ * The session speaks the same line protocol as the console: the client first sends the ID of its account
+ * and then the same options and arguments a user would type, and receives the same prompts, results and
+ * errors. Lines are parsed with the {@link CommandParser} and the output is written by a {@link Cli} whose
+ * output is queued for the channel, so the session never blocks on the network.
+ * <p>
+ * The output is kept bounded: the results of operations are rendered one chunk at a time as the channel
+ * accepts them, and once a result is still being rendered or too much output is pending, the session stops
+ * taking lines, keeps the bytes it has not handled yet, and stops reading until the client has caught up.
+ */
+final class Session {
+    private static final String MESSAGE_PROMPT_ACCOUNT = "Please enter your account ID:";
+    private static final String MESSAGE_EMPTY_ACCOUNT_ID = "Account ID must not be empty.";
+    private static final String MESSAGE_LINE_TOO_LONG = "Line is too long.";
+    private static final String MESSAGE_UNEXPECTED_ERROR = "The operation could not be completed.";
+    private static final int MAX_LINE_LENGTH = 1 << 12;
+    private static final int MAX_PENDING_OUTPUT = 1 << 20;
+
+    /**
+     * Represents what the session expects the next line to be.
+     */
+    private enum State {
+        ACCOUNT_ID, OPTION, ARGUMENT, CLOSING
+    }
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final AccountRegistry registry;
+    private final OperationFactory factory;
+    private final Cli cli;
+    private final ArrayDeque<Iterator<String>> output = new ArrayDeque<>();
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private ByteBuffer sending;
+    private ByteBuffer unread;
+    private int pendingOutput;
+    private State state = State.ACCOUNT_ID;
+    private String accountId;
+    private String operationKey;
+
+    /**
+     * Constructs a {@code Session} on an accepted channel that is registered with a selector.
+     *
+     * @param channel The non-blocking channel of the client.
+     * @param key The {@link SelectionKey} of the channel.
+     * @param registry The {@link AccountRegistry} holding the accounts.
+     * @param factory The {@link OperationFactory} creating operations from the received lines.
+     */
+    Session(SocketChannel channel, SelectionKey key, AccountRegistry registry, OperationFactory factory) {
+        requireAllNonNull(channel, key, registry, factory);
+
+        this.channel = channel;
+        this.key = key;
+        this.registry = registry;
+        this.factory = factory;
+        this.cli = new Cli(Reader.nullReader(), new OutputQueue(), true);
+    }
+
+    /**
+     * Greets the client by asking for its account ID.
+     *
+     * @throws IOException If the greeting cannot be sent.
+     */
+    void open() throws IOException {
+        this.cli.show(MESSAGE_PROMPT_ACCOUNT);
+        this.flush();
+    }
+
+    /**
+     * Reads what the client has sent, handles every complete line and sends back the output.
+     *
+     * @param buffer A buffer to read into, shared between the sessions of a thread.
+     * @throws IOException If the channel cannot be read or written.
+     */
+    void onReadable(ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        int count = this.channel.read(buffer);
+        if (count < 0) {
+            this.close();
+            return;
+        }
+        buffer.flip();
+
+        this.handleInput(buffer);
+        if (buffer.hasRemaining() && this.state != State.CLOSING) {
+            // The buffer is shared with the other sessions, so the bytes left for later are copied out of it.
+            this.unread = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+        }
+        this.flush();
+    }
+
+    /**
+     * Sends as much of the queued output as the channel accepts, and once the client has caught up, goes on
+     * with the lines that were left unhandled.
+     *
+     * @throws IOException If the channel cannot be written.
+     */
+    void onWritable() throws IOException {
+        this.flush();
+        if (this.unread != null && !this.isBacklogged()) {
+            this.handleInput(this.unread);
+            if (!this.unread.hasRemaining() || this.state == State.CLOSING) {
+                this.unread = null;
+            }
+            this.flush();
+        }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    void close() {
+        this.key.cancel();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            // The connection is gone either way.
+        }
+    }
+
+    /**
+     * Handles the complete lines of the input, stopping before the next line once the output is backlogged.
+     */
+    private void handleInput(ByteBuffer input) throws IOException {
+        while (input.hasRemaining() && this.state != State.CLOSING) {
+            if (this.line.size() == 0 && this.isBacklogged()) {
+                this.flush();
+                if (this.isBacklogged()) {
+                    return;
+                }
+            }
+
+            byte b = input.get();
+            if (b == '\n') {
+                this.handleLine(this.takeLine());
+            } else if (this.line.size() < MAX_LINE_LENGTH) {
+                this.line.write(b);
+            } else {
+                this.cli.showError(MESSAGE_LINE_TOO_LONG);
+                this.state = State.CLOSING;
+            }
+        }
+    }
+
+    /**
+     * Checks if the client has output to catch up on: queued output still to be rendered, or more pending
+     * bytes than the session holds for a client.
+     */
+    private boolean isBacklogged() {
+        return !this.output.isEmpty() || this.pendingOutput >= MAX_PENDING_OUTPUT;
+    }
+
+    private String takeLine() {
+        String text = new String(this.line.toByteArray(), StandardCharsets.UTF_8);
+        this.line.reset();
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    private void handleLine(String text) {
+        switch (this.state) {
+        case ACCOUNT_ID:
+            String id = text.trim();
+            if (id.isEmpty()) {
+                this.cli.showError(MESSAGE_EMPTY_ACCOUNT_ID);
+                this.cli.show(MESSAGE_PROMPT_ACCOUNT);
+                return;
+            }
+            this.accountId = id;
+            this.state = State.OPTION;
+            this.cli.showStartupMessage();
+            break;
+        case OPTION:
+            try {
+                String key = CommandParser.parseOperationOption(text, this.factory);
+                String prompt = this.factory.getArgumentPrompt(key);
+                if (prompt != null) {
+                    this.operationKey = key;
+                    this.state = State.ARGUMENT;
+                    this.cli.show(prompt);
+                    return;
+                }
+                this.execute(this.factory.getOperation(key, null));
+            } catch (InputException e) {
+                this.cli.showInputError(e);
+                this.cli.showNewOperationPrompt();
+            }
+            break;
+        case ARGUMENT:
+            this.state = State.OPTION;
+            try {
+                this.execute(this.factory.getOperation(this.operationKey, text));
+            } catch (InputException e) {
+                this.cli.showInputError(e);
+                this.cli.showNewOperationPrompt();
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void execute(Operation operation) {
+        try {
+            OperationResult result = this.registry.execute(this.accountId, operation);
+            if (result.exit) {
+                this.cli.showExitMessage();
+                this.state = State.CLOSING;
+                return;
+            }
+            this.showResult(result);
+        } catch (OperationException e) {
+            this.cli.showOperationError(e);
+        } catch (RuntimeException e) {
+            // An unexpected error in one operation must not end the session or the worker serving it.
+            this.cli.showError(MESSAGE_UNEXPECTED_ERROR);
+        }
+        this.cli.showNewOperationPrompt();
+    }
+
+    /**
+     * Queues the result of an operation the way {@link Cli#showResult(OperationResult)} shows it, to be
+     * rendered one chunk at a time as the channel accepts the chunks before it.
+     */
+    private void showResult(OperationResult result) {
+        this.queue("\n");
+        this.output.add(result.feedback.chunks());
+        this.queue(System.lineSeparator());
+    }
+
+    private void queue(String text) {
+        this.output.add(List.of(text).iterator());
+    }
+
+    /**
+     * Writes the queued output, rendering the chunks of the results as the channel accepts the chunks
+     * before them, and updates the interest of the key: the session waits for the channel to become
+     * writable while output is pending, stops reading while it is backlogged or holds unhandled input, and
+     * closes once a closing session has sent everything.
+     */
+    private void flush() throws IOException {
+        while (true) {
+            if (this.sending == null || !this.sending.hasRemaining()) {
+                this.sending = this.takeNextChunk();
+                if (this.sending == null) {
+                    break;
+                }
+            }
+            this.pendingOutput -= this.channel.write(this.sending);
+            if (this.sending.hasRemaining()) {
+                break;
+            }
+        }
+
+        boolean hasOutput = this.sending != null;
+        if (!hasOutput && this.state == State.CLOSING) {
+            this.close();
+            return;
+        }
+
+        int interest = 0;
+        if (hasOutput) {
+            interest |= SelectionKey.OP_WRITE;
+        }
+        if (this.state != State.CLOSING && this.unread == null && !this.isBacklogged()) {
+            interest |= SelectionKey.OP_READ;
+        }
+        this.key.interestOps(interest);
+    }
+
+    /**
+     * Returns the next chunk of the queued output, encoded, or {@code null} if nothing is queued.
+     */
+    private ByteBuffer takeNextChunk() {
+        while (!this.output.isEmpty()) {
+            Iterator<String> chunks = this.output.peek();
+            if (chunks.hasNext()) {
+                byte[] bytes = chunks.next().getBytes(StandardCharsets.UTF_8);
+                this.pendingOutput += bytes.length;
+                return ByteBuffer.wrap(bytes);
+            }
+            this.output.poll();
+        }
+        return null;
+    }
+
+    /**
+     * Represents the output of the session, queued until the channel accepts the output before it.
+     */
+    private final class OutputQueue extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            if (len == 0) {
+                return;
+            }
+            Session.this.queue(new String(cbuf, off, len));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package awesomegic.bank.server;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.registry.AccountRegistry;
+
+/**
+ * Represents a thread serving many sessions through a single {@link Selector}.
+ * <p>
+ * A session that fails, whether its connection breaks or it hits an unexpected error, is closed on its own,
+ * so the other sessions of the worker keep being served.
+ */
+final class Worker implements Runnable {
+    private static final int READ_BUFFER_SIZE = 1 << 14;
+
+    private final Selector selector;
+    private final AccountRegistry registry;
+    private final OperationFactory factory;
+    private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private volatile boolean isClosed;
+
+    /**
+     * Constructs a {@code Worker} with a new selector.
+     *
+     * @throws IOException If the selector cannot be opened.
+     */
+    Worker(AccountRegistry registry, OperationFactory factory) throws IOException {
+        requireAllNonNull(registry, factory);
+
+        this.selector = Selector.open();
+        this.registry = registry;
+        this.factory = factory;
+    }
+
+    /**
+     * Hands an accepted connection to this worker. Safe to call from any thread.
+     */
+    void add(SocketChannel channel) {
+        this.accepted.add(channel);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Stops the worker, which then closes all of its sessions. Safe to call from any thread.
+     */
+    void close() {
+        this.isClosed = true;
+        this.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!this.isClosed) {
+                this.selector.select();
+                this.registerAccepted();
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.handle(key);
+                }
+            }
+        } catch (IOException e) {
+            // Fall through and close whatever is left.
+        }
+
+        for (SelectionKey key : this.selector.keys()) {
+            ((Session) key.attachment()).close();
+        }
+        SocketChannel channel;
+        while ((channel = this.accepted.poll()) != null) {
+            closeQuietly(channel);
+        }
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            // The worker is shutting down either way.
+        }
+    }
+
+    private void registerAccepted() {
+        SocketChannel channel;
+        while ((channel = this.accepted.poll()) != null) {
+            try {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+                Session session = new Session(channel, key, this.registry, this.factory);
+                key.attach(session);
+                session.open();
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isValid() && key.isWritable()) {
+                session.onWritable();
+            }
+            if (key.isValid() && key.isReadable()) {
+                session.onReadable(this.readBuffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            session.close();
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing more can be done with the channel.
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.cli.Message.MESSAGE_NEGATIVE_BALANCE;
+import static awesomegic.bank.cli.Message.MESSAGE_NON_ZERO_TRANSACTION_AMOUNT;
+import static awesomegic.bank.cli.Message.MESSAGE_UNORDERED_TRANSACTION;
+import static awesomegic.bank.model.transaction.ColumnarTransactionList.toEpochNanos;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import awesomegic.bank.cli.CommandParser;
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ColumnarTransactionList;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Utility class for importing the history of a bank account from a CSV file.
+ * <p>
+ * Every line holds a transaction as its date and time, such as {@code 2023-06-26T14:05:00} or
+ * {@code 2023-06-26 14:05:00}, its signed amount and the balance after it, separated by commas. The first line
+ * may be the header {@code date,amount,balance}, and blank lines are ignored. Amounts and balances follow the
+ * rules of the console, at most two decimal places and no more than {@link Money#MAX_VALUE}, and the rules of
+ * a {@link awesomegic.bank.model.transaction.Transaction}: the amount is non-zero and the balance non-negative.
+ * The balance of each line must also be the balance of the line before it plus its amount, starting from zero,
+ * unless the amount or balance of the line before it cannot be read, and the lines must be in chronological order.
+ * <p>
+ * The file is read in chunks of {@value #CHUNK_LINES} lines, which are parsed and checked on the common
+ * fork-join pool while the next chunks are read. The chunks are then merged in order, checking the balance
+ * across each chunk boundary, straight into the columns of a single {@link ColumnarTransactionList}.
+ * An invalid line is reported and left out, and the rest of the file is still imported.
+ */
+public final class CsvImport {
+    private static final String MESSAGE_INVALID_COLUMNS = "Expected a date and time, an amount and a balance.";
+    private static final String MESSAGE_INVALID_DATE_TIME = "Invalid date and time.";
+    private static final String MESSAGE_INVALID_AMOUNT = "Invalid amount.";
+    private static final String MESSAGE_INVALID_BALANCE = "Invalid balance.";
+    private static final String MESSAGE_MORE_THAN_TWO_DECIMAL_PLACES =
+        "Amount and balance must have at most two decimal places.";
+    private static final String MESSAGE_AMOUNT_TOO_LARGE = "Amount or balance is too large.";
+    private static final String MESSAGE_DISCONTINUOUS_BALANCE =
+        "Balance must be the balance of the previous line plus the amount.";
+    private static final String HEADER = "date,amount,balance";
+    private static final int CHUNK_LINES = 1 << 14;
+    private static final int CHUNKS_AHEAD_PER_WORKER = 2;
+    private static final int DATE_LENGTH = "yyyy-mm-dd".length();
+    private static final int DATE_TIME_LENGTH = "yyyy-mm-ddThh:mm:ss".length();
+
+    private CsvImport() {
+    }
+
+    /**
+     * Imports the CSV file at the specified path, parsing it in parallel.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    public static Result read(Path path) throws IOException {
+        requireNonNull(path);
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader, true);
+        }
+    }
+
+    /**
+     * Imports the CSV lines read from the specified reader, parsing them in parallel.
+     * The reader is not closed.
+     *
+     * @throws IOException If the lines cannot be read.
+     */
+    public static Result read(Reader reader) throws IOException {
+        return read(reader, true);
+    }
+
+    /**
+     * Imports the same lines as {@link #read(Reader)}, parsing them on the calling thread only.
+     *
+     * @throws IOException If the lines cannot be read.
+     */
+    public static Result readSequentially(Reader reader) throws IOException {
+        return read(reader, false);
+    }
+
+    private static Result read(Reader reader, boolean isParallel) throws IOException {
+        requireNonNull(reader);
+
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Merger merger = new Merger();
+        if (!isParallel || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            for (Chunk chunk = Chunk.read(lines, 1); chunk != null; chunk = Chunk.read(lines, merger.nextLine)) {
+                chunk.parse();
+                merger.merge(chunk);
+            }
+            return merger.finish();
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunksAhead = CHUNKS_AHEAD_PER_WORKER * pool.getParallelism();
+        Deque<ForkJoinTask<Chunk>> parsedChunks = new ArrayDeque<>(chunksAhead);
+        long nextLine = 1;
+        try {
+            while (true) {
+                while (parsedChunks.size() < chunksAhead) {
+                    Chunk chunk = Chunk.read(lines, nextLine);
+                    if (chunk == null) {
+                        break;
+                    }
+                    nextLine += chunk.lineCount;
+                    parsedChunks.add(pool.submit(() -> {
+                        chunk.parse();
+                        return chunk;
+                    }));
+                }
+                if (parsedChunks.isEmpty()) {
+                    return merger.finish();
+                }
+                merger.merge(parsedChunks.remove().join());
+            }
+        } finally {
+            for (ForkJoinTask<Chunk> parsedChunk : parsedChunks) {
+                parsedChunk.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Returns the error of a line whose balance does not follow from the previous balance and its amount,
+     * or {@code null} if it does.
+     */
+    private static String checkContinuity(long previousBalance, long amount, long balance) {
+        long sum = previousBalance + amount;
+        boolean isOverflowed = ((previousBalance ^ sum) & (amount ^ sum)) < 0;
+        return isOverflowed || sum != balance ? MESSAGE_DISCONTINUOUS_BALANCE : null;
+    }
+
+    /**
+     * Represents the outcome of an import: an account holding the valid lines, and an error for every line
+     * that was left out.
+     */
+    public static final class Result {
+        private final BankAccount account;
+        private final List<RowError> errors;
+
+        private Result(BankAccount account, List<RowError> errors) {
+            this.account = account;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * Returns an account holding the transactions of the valid lines, with the balance of the last one.
+         */
+        public BankAccount getAccount() {
+            return this.account;
+        }
+
+        /**
+         * Returns the errors of the invalid lines, in the order of the lines.
+         */
+        public List<RowError> getErrors() {
+            return this.errors;
+        }
+
+        /**
+         * Checks if every line of the file was imported.
+         */
+        public boolean isComplete() {
+            return this.errors.isEmpty();
+        }
+    }
+
+    /**
+     * Represents the reason a line of a CSV file was not imported.
+     */
+    public static final class RowError {
+        private static final String FORMAT = "Line %d: %s";
+
+        private final long lineNumber;
+        private final String message;
+
+        private RowError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        /**
+         * Returns the number of the line, starting from 1.
+         */
+        public long getLineNumber() {
+            return this.lineNumber;
+        }
+
+        /**
+         * Returns the reason the line was not imported.
+         */
+        public String getMessage() {
+            return this.message;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(FORMAT, this.lineNumber, this.message);
+        }
+    }
+
+    /**
+     * Represents a run of consecutive lines, and the transactions and errors found in them once parsed.
+     * The balance of each line is checked against the line before it in the chunk; the first line with a
+     * transaction is left for the {@link Merger} to check against the previous chunk.
+     */
+    private static final class Chunk {
+        private final long firstLineNumber;
+        private final String[] lines;
+        private final int lineCount;
+        private final long[] amounts;
+        private final long[] balances;
+        private final long[] timestamps;
+        /** Whether the amount and balance of each line could be read, so that its balance is known. */
+        private final boolean[] hasBalance;
+        /** The error of each line, or {@code null} if the line is blank or holds a valid transaction. */
+        private final String[] errors;
+        /** The index of the first line that is not blank, or {@code lineCount} if there is none. */
+        private int firstRow;
+        /** The index of the last line that is not blank, or -1 if there is none. */
+        private int lastRow = -1;
+
+        private Chunk(long firstLineNumber, String[] lines, int lineCount) {
+            this.firstLineNumber = firstLineNumber;
+            this.lines = lines;
+            this.lineCount = lineCount;
+            this.amounts = new long[lineCount];
+            this.balances = new long[lineCount];
+            this.timestamps = new long[lineCount];
+            this.hasBalance = new boolean[lineCount];
+            this.errors = new String[lineCount];
+            this.firstRow = lineCount;
+        }
+
+        /**
+         * Reads the next chunk of lines, skipping the header if it is the first line of the file.
+         *
+         * @return The chunk, or {@code null} if there are no more lines.
+         */
+        private static Chunk read(BufferedReader reader, long firstLineNumber) throws IOException {
+            String[] lines = new String[CHUNK_LINES];
+            int lineCount = 0;
+            for (String line; lineCount < CHUNK_LINES && (line = reader.readLine()) != null; lineCount++) {
+                boolean isHeader = firstLineNumber == 1 && lineCount == 0
+                    && line.replace(" ", "").equalsIgnoreCase(HEADER);
+                lines[lineCount] = isHeader ? "" : line;
+            }
+            return lineCount == 0 ? null : new Chunk(firstLineNumber, lines, lineCount);
+        }
+
+        private void parse() {
+            int previous = -1;
+            for (int i = 0; i < this.lineCount; i++) {
+                String line = this.lines[i];
+                this.lines[i] = null;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                String error = this.parseLine(i, line);
+                if (error == null && previous >= 0 && this.hasBalance[previous]) {
+                    error = checkContinuity(this.balances[previous], this.amounts[i], this.balances[i]);
+                }
+                this.errors[i] = error;
+
+                if (previous < 0) {
+                    this.firstRow = i;
+                }
+                this.lastRow = i;
+                previous = i;
+            }
+        }
+
+        /**
+         * Parses a line into the columns at the specified index.
+         *
+         * @return The error of the line, or {@code null} if it holds a valid transaction.
+         */
+        private String parseLine(int index, String line) {
+            int firstComma = line.indexOf(',');
+            int secondComma = firstComma < 0 ? -1 : line.indexOf(',', firstComma + 1);
+            if (secondComma < 0 || line.indexOf(',', secondComma + 1) >= 0) {
+                return MESSAGE_INVALID_COLUMNS;
+            }
+
+            String amount = line.substring(firstComma + 1, secondComma).trim();
+            boolean isWithdrawal = amount.startsWith("-");
+            String amountMagnitude = isWithdrawal ? amount.substring(1) : amount;
+            long amountCents = CommandParser.parseCents(amountMagnitude);
+            if (isZero(amountMagnitude, amountCents)) {
+                return MESSAGE_NON_ZERO_TRANSACTION_AMOUNT;
+            }
+            String amountError = checkCents(amountCents, MESSAGE_INVALID_AMOUNT);
+            if (amountError != null) {
+                return amountError;
+            }
+
+            String balance = line.substring(secondComma + 1).trim();
+            boolean isNegative = balance.startsWith("-");
+            String balanceMagnitude = isNegative ? balance.substring(1) : balance;
+            long balanceCents = CommandParser.parseCents(balanceMagnitude);
+            if (isZero(balanceMagnitude, balanceCents)) {
+                balanceCents = 0;
+            } else {
+                String balanceError = checkCents(balanceCents, MESSAGE_INVALID_BALANCE);
+                if (balanceError != null) {
+                    return balanceError;
+                }
+                if (isNegative) {
+                    return MESSAGE_NEGATIVE_BALANCE;
+                }
+            }
+
+            this.amounts[index] = isWithdrawal ? -amountCents : amountCents;
+            this.balances[index] = balanceCents;
+            this.hasBalance[index] = true;
+
+            try {
+                this.timestamps[index] = toEpochNanos(parseDateTime(line.substring(0, firstComma).trim()));
+            } catch (DateTimeException | IllegalArgumentException e) {
+                return MESSAGE_INVALID_DATE_TIME;
+            }
+            return null;
+        }
+
+        /**
+         * Returns the error of an amount parsed by {@link CommandParser#parseCents(CharSequence)},
+         * or {@code null} if it is valid.
+         */
+        private static String checkCents(long cents, String invalidMessage) {
+            if (cents == CommandParser.AMOUNT_INVALID_FORMAT || cents == CommandParser.AMOUNT_NON_POSITIVE) {
+                return invalidMessage;
+            }
+            if (cents == CommandParser.AMOUNT_TOO_MANY_DECIMAL_PLACES) {
+                return MESSAGE_MORE_THAN_TWO_DECIMAL_PLACES;
+            }
+            if (cents == CommandParser.AMOUNT_TOO_LARGE) {
+                return MESSAGE_AMOUNT_TOO_LARGE;
+            }
+            return null;
+        }
+
+        /**
+         * Checks if an unsigned amount parsed by {@link CommandParser#parseCents(CharSequence)} is zero, which
+         * is reported as non-positive like a second minus sign.
+         */
+        private static boolean isZero(String magnitude, long cents) {
+            return cents == CommandParser.AMOUNT_NON_POSITIVE && !magnitude.trim().startsWith("-");
+        }
+
+        /**
+         * Parses a date and time written as {@code yyyy-mm-ddThh:mm[:ss[.fraction]]}, with a {@code T} or a
+         * space between the date and the time. The common {@code yyyy-mm-ddThh:mm:ss} form is read field by
+         * field, and only the others are left to {@link LocalDateTime#parse(CharSequence)}.
+         */
+        private static LocalDateTime parseDateTime(String text) {
+            if (text.length() == DATE_TIME_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && (text.charAt(DATE_LENGTH) == 'T' || text.charAt(DATE_LENGTH) == ' ')
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+                int year = parseDigits(text, 0, 4);
+                int month = parseDigits(text, 5, 7);
+                int day = parseDigits(text, 8, 10);
+                int hour = parseDigits(text, 11, 13);
+                int minute = parseDigits(text, 14, 16);
+                int second = parseDigits(text, 17, 19);
+                if ((year | month | day | hour | minute | second) >= 0) {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                }
+            }
+
+            if (text.length() > DATE_LENGTH && text.charAt(DATE_LENGTH) == ' ') {
+                text = text.substring(0, DATE_LENGTH) + 'T' + text.substring(DATE_LENGTH + 1);
+            }
+            return LocalDateTime.parse(text);
+        }
+
+        /**
+         * Returns the number written with ASCII digits between {@code from} and {@code to}, or -1 if another
+         * character is found.
+         */
+        private static int parseDigits(String text, int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Appends the valid lines of the chunks, in order, to the history being imported.
+     */
+    private static final class Merger {
+        private final ColumnarTransactionList.Builder builder = new ColumnarTransactionList.Builder();
+        private final List<RowError> errors = new ArrayList<>();
+        private long nextLine = 1;
+        /** Whether the balance of the last line that is not blank is known. */
+        private boolean hasPreviousBalance = true;
+        private long previousBalance;
+        private boolean hasTransactions;
+        private long lastTimestamp;
+        private long lastBalance;
+
+        private void merge(Chunk chunk) {
+            if (chunk.firstRow < chunk.lineCount && chunk.errors[chunk.firstRow] == null
+                && this.hasPreviousBalance) {
+                chunk.errors[chunk.firstRow] = checkContinuity(this.previousBalance,
+                    chunk.amounts[chunk.firstRow], chunk.balances[chunk.firstRow]);
+            }
+
+            for (int i = chunk.firstRow; i <= chunk.lastRow; i++) {
+                String error = chunk.errors[i];
+                if (error == null && !chunk.hasBalance[i]) {
+                    continue;
+                }
+                if (error == null && this.hasTransactions && chunk.timestamps[i] < this.lastTimestamp) {
+                    error = MESSAGE_UNORDERED_TRANSACTION;
+                }
+                if (error != null) {
+                    this.errors.add(new RowError(chunk.firstLineNumber + i, error));
+                    continue;
+                }
+
+                this.builder.add(chunk.amounts[i], chunk.balances[i], chunk.timestamps[i]);
+                this.hasTransactions = true;
+                this.lastTimestamp = chunk.timestamps[i];
+                this.lastBalance = chunk.balances[i];
+            }
+
+            if (chunk.lastRow >= 0) {
+                this.hasPreviousBalance = chunk.hasBalance[chunk.lastRow];
+                this.previousBalance = chunk.balances[chunk.lastRow];
+            }
+            this.nextLine = chunk.firstLineNumber + chunk.lineCount;
+        }
+
+        private Result finish() {
+            BankAccount account = new BankAccount(Money.ofCents(this.lastBalance),
+                new TransactionList(this.builder.build()));
+            return new Result(account, this.errors);
+        }
+    }
+}
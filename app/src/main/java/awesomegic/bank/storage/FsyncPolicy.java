@@ -0,0 +1,114 @@
+package awesomegic.bank.storage;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents when a journal forces its records to disk.
+ */
+public final class FsyncPolicy {
+    private static final String MESSAGE_INVALID_POLICY =
+        "Invalid fsync policy '%s'. Expected per-op, group[:<millis>:<records>] or async[:<millis>].";
+    private static final long DEFAULT_GROUP_INTERVAL_MILLIS = 5;
+    private static final int DEFAULT_GROUP_RECORDS = 64;
+    private static final long DEFAULT_ASYNC_INTERVAL_MILLIS = 100;
+
+    /**
+     * Represents the ways records can be forced to disk.
+     */
+    public enum Mode {
+        /** Every operation forces its own records before it is acknowledged. */
+        PER_OPERATION,
+        /** Operations are forced together in a batch and acknowledged once the batch is durable. */
+        GROUP_COMMIT,
+        /** Operations are acknowledged immediately and forced in the background. */
+        ASYNC
+    }
+
+    public final Mode mode;
+    public final long intervalMillis;
+    public final int maxRecords;
+
+    private FsyncPolicy(Mode mode, long intervalMillis, int maxRecords) {
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * Returns a policy that forces the records of every operation before acknowledging it.
+     */
+    public static FsyncPolicy perOperation() {
+        return new FsyncPolicy(Mode.PER_OPERATION, 0, 1);
+    }
+
+    /**
+     * Returns a policy that forces records in batches, acknowledging each operation once its batch is durable.
+     *
+     * @param intervalMillis The longest time a record waits for its batch to fill up.
+     * @param maxRecords The number of records that triggers a batch early.
+     * @throws IllegalArgumentException if the interval or the number of records is not positive.
+     */
+    public static FsyncPolicy groupCommit(long intervalMillis, int maxRecords) {
+        if (intervalMillis <= 0 || maxRecords <= 0) {
+            throw new IllegalArgumentException(String.format(MESSAGE_INVALID_POLICY, "group"));
+        }
+        return new FsyncPolicy(Mode.GROUP_COMMIT, intervalMillis, maxRecords);
+    }
+
+    /**
+     * Returns a policy that acknowledges operations immediately and forces records in the background.
+     * Records written within the last interval may be lost if the machine crashes.
+     *
+     * @param intervalMillis The time between background forces.
+     * @throws IllegalArgumentException if the interval is not positive.
+     */
+    public static FsyncPolicy async(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException(String.format(MESSAGE_INVALID_POLICY, "async"));
+        }
+        return new FsyncPolicy(Mode.ASYNC, intervalMillis, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parses a policy of the form {@code per-op}, {@code group[:<millis>:<records>]} or {@code async[:<millis>]}.
+     *
+     * @param policy The policy to parse.
+     * @return The parsed {@code FsyncPolicy}.
+     * @throws IllegalArgumentException if the policy is not valid.
+     */
+    public static FsyncPolicy parse(String policy) {
+        requireNonNull(policy);
+
+        String[] parts = policy.trim().toLowerCase().split(":");
+        try {
+            switch (parts[0]) {
+            case "per-op":
+                if (parts.length == 1) {
+                    return perOperation();
+                }
+                break;
+            case "group":
+                if (parts.length == 1) {
+                    return groupCommit(DEFAULT_GROUP_INTERVAL_MILLIS, DEFAULT_GROUP_RECORDS);
+                }
+                if (parts.length == 3) {
+                    return groupCommit(Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+                }
+                break;
+            case "async":
+                if (parts.length == 1) {
+                    return async(DEFAULT_ASYNC_INTERVAL_MILLIS);
+                }
+                if (parts.length == 2) {
+                    return async(Long.parseLong(parts[1]));
+                }
+                break;
+            default:
+                break;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with the other malformed policies.
+        }
+        throw new IllegalArgumentException(String.format(MESSAGE_INVALID_POLICY, policy));
+    }
+}
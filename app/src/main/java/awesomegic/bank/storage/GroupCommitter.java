@@ -0,0 +1,207 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+
+import java.io.IOException;
+
+/**
+ * Represents when the records written to a journal are forced to disk, following a {@link FsyncPolicy}.
+ * <p>
+ * The journal reports every record it writes, in the order it writes them. Under the per-operation policy
+ * the record is forced straight away. Under the other policies a background thread forces the records in
+ * batches, once a batch holds the policy's number of records or its oldest record has waited for the
+ * policy's interval, whichever comes first, so one force covers every record written before it. Under group
+ * commit the {@link Journal.Commit} of a record waits for the force covering it, which the journal's caller
+ * can do after releasing its own locks.
+ */
+final class GroupCommitter {
+    private static final String MESSAGE_SYNC_FAILED = "Unable to force the journal to disk.";
+    private static final String MESSAGE_INTERRUPTED = "Interrupted while waiting for the journal to be forced.";
+
+    private final FsyncPolicy policy;
+    private final Force force;
+    private final Object lock = new Object();
+    private Thread thread;
+    private long writtenRecords;
+    private long durableRecords;
+    private int pendingRecords;
+    private long firstPendingNanos;
+    private boolean isClosed;
+    private IOException failure;
+
+    /**
+     * Constructs a {@code GroupCommitter} that forces records to disk with the specified action.
+     *
+     * @param policy The {@link FsyncPolicy} deciding when records are forced.
+     * @param force The {@link Force} forcing every record written so far to disk. Under the policies other
+     *     than per-operation it is called from the background thread, while more records are being written.
+     */
+    GroupCommitter(FsyncPolicy policy, Force force) {
+        requireAllNonNull(policy, force);
+
+        this.policy = policy;
+        this.force = force;
+    }
+
+    /**
+     * Starts the background thread forcing the records, unless every record is forced as it is written.
+     *
+     * @param threadName The name of the background thread.
+     */
+    void start(String threadName) {
+        if (this.policy.mode == FsyncPolicy.Mode.PER_OPERATION) {
+            return;
+        }
+
+        synchronized (this.lock) {
+            this.thread = new Thread(this::runSyncLoop, threadName);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+    }
+
+    /**
+     * Checks that no earlier force has failed, so that the journal does not write records that can never
+     * become durable.
+     *
+     * @throws IOException If an earlier force has failed.
+     */
+    void checkNotFailed() throws IOException {
+        synchronized (this.lock) {
+            if (this.failure != null) {
+                throw new IOException(MESSAGE_SYNC_FAILED, this.failure);
+            }
+        }
+    }
+
+    /**
+     * Reports a record the journal has written. Must be called in the order the records were written.
+     *
+     * @return The {@link Journal.Commit} that waits until the record is as durable as the policy promises.
+     * @throws IOException If the record cannot be forced under the per-operation policy, or an earlier force
+     *     has failed.
+     */
+    Journal.Commit written() throws IOException {
+        if (this.policy.mode == FsyncPolicy.Mode.PER_OPERATION) {
+            this.force.force();
+            return Journal.Commit.DURABLE;
+        }
+
+        long record;
+        synchronized (this.lock) {
+            if (this.failure != null) {
+                throw new IOException(MESSAGE_SYNC_FAILED, this.failure);
+            }
+            record = ++this.writtenRecords;
+            if (this.pendingRecords == 0) {
+                this.firstPendingNanos = System.nanoTime();
+            }
+            this.pendingRecords++;
+            this.lock.notifyAll();
+        }
+
+        if (this.policy.mode == FsyncPolicy.Mode.ASYNC) {
+            return Journal.Commit.DURABLE;
+        }
+        return () -> this.awaitDurable(record);
+    }
+
+    /**
+     * Forces the pending records and stops the background thread. The journal must not write any more records.
+     */
+    void close() {
+        Thread thread;
+        synchronized (this.lock) {
+            this.isClosed = true;
+            this.lock.notifyAll();
+            thread = this.thread;
+        }
+
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void awaitDurable(long record) throws IOException {
+        synchronized (this.lock) {
+            while (this.durableRecords < record) {
+                if (this.failure != null) {
+                    throw new IOException(MESSAGE_SYNC_FAILED, this.failure);
+                }
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(MESSAGE_INTERRUPTED, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces batches of pending records to disk until the committer is closed.
+     */
+    private void runSyncLoop() {
+        long intervalNanos = this.policy.intervalMillis * 1_000_000L;
+
+        while (true) {
+            long target;
+            synchronized (this.lock) {
+                try {
+                    while (!this.isClosed && !this.isBatchReady(intervalNanos)) {
+                        if (this.pendingRecords == 0) {
+                            this.lock.wait();
+                        } else {
+                            long remainingNanos = this.firstPendingNanos + intervalNanos - System.nanoTime();
+                            this.lock.wait(Math.max(1, remainingNanos / 1_000_000L));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                if (this.pendingRecords == 0 && (this.isClosed || Thread.currentThread().isInterrupted())) {
+                    return;
+                }
+                target = this.writtenRecords;
+                this.pendingRecords = 0;
+            }
+
+            IOException failure = null;
+            try {
+                this.force.force();
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            synchronized (this.lock) {
+                if (failure != null) {
+                    this.failure = failure;
+                } else {
+                    this.durableRecords = Math.max(this.durableRecords, target);
+                }
+                this.lock.notifyAll();
+                if (failure != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isBatchReady(long intervalNanos) {
+        return this.pendingRecords >= this.policy.maxRecords
+            || (this.pendingRecords > 0 && System.nanoTime() - this.firstPendingNanos >= intervalNanos);
+    }
+
+    /**
+     * Forces every record written so far to disk.
+     */
+    @FunctionalInterface
+    interface Force {
+        void force() throws IOException;
+    }
+}
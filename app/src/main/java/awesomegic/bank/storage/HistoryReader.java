@@ -0,0 +1,191 @@
+package awesomegic.bank.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ColumnarTransactionList;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Represents a streaming reader of a transaction history written by {@link HistoryWriter}.
+ * <p>
+ * Blocks are read and checked one at a time, and their transactions are decoded as they are visited,
+ * so reading a history of any length takes the same memory. Each transaction is checked as it is decoded,
+ * and the end block is checked against the number of transactions read, so a truncated file is reported
+ * rather than read as a shorter history.
+ */
+public final class HistoryReader implements Closeable {
+    private static final String MESSAGE_NOT_HISTORY = "The file is not an exported transaction history.";
+    private static final String MESSAGE_UNSUPPORTED_VERSION = "The exported history has an unsupported version %d.";
+    private static final String MESSAGE_CORRUPT = "The exported history is corrupt.";
+    private static final String MESSAGE_TRUNCATED = "The exported history is incomplete.";
+    private static final String MESSAGE_INVALID_TRANSACTION = "The exported history contains an invalid transaction.";
+
+    private final DataInputStream in;
+    private final ByteBuffer block = ByteBuffer.allocate(HistoryFile.MAX_BLOCK_BYTES);
+    private final CRC32 checksum = new CRC32();
+    private int blockRowsLeft;
+    private long rowCount;
+    private boolean isFinished;
+    private long amount;
+    private long balance;
+    private long epochNanos;
+
+    /**
+     * Constructs a {@code HistoryReader} reading from the specified stream, and checks the file header.
+     * The stream is closed when the reader is closed.
+     *
+     * @throws IOException If the header cannot be read or is not the header of an exported history.
+     */
+    public HistoryReader(InputStream in) throws IOException {
+        requireNonNull(in);
+
+        this.in = new DataInputStream(in);
+        try {
+            if (this.in.readInt() != HistoryFile.MAGIC) {
+                throw new IOException(MESSAGE_NOT_HISTORY);
+            }
+            int version = this.in.readInt();
+            if (version != HistoryFile.VERSION) {
+                throw new IOException(String.format(MESSAGE_UNSUPPORTED_VERSION, version));
+            }
+        } catch (EOFException e) {
+            throw new IOException(MESSAGE_NOT_HISTORY, e);
+        }
+    }
+
+    /**
+     * Moves to the next transaction.
+     *
+     * @return {@code true} if there is a next transaction, or {@code false} once the end block is reached.
+     * @throws IOException If a block cannot be read, is corrupt or holds an invalid transaction,
+     *     or if the file ends before its end block.
+     */
+    public boolean next() throws IOException {
+        while (this.blockRowsLeft == 0) {
+            if (this.isFinished) {
+                return false;
+            }
+            this.readBlock();
+        }
+
+        long epochNanos = this.epochNanos + this.getVarLong();
+        long amount = this.getVarLong();
+        long balance = this.balance + amount + this.getVarLong();
+        if (this.rowCount > 0 && epochNanos < this.epochNanos || amount == 0 || balance < 0) {
+            throw new IOException(MESSAGE_INVALID_TRANSACTION);
+        }
+
+        this.epochNanos = epochNanos;
+        this.amount = amount;
+        this.balance = balance;
+        this.rowCount++;
+        if (--this.blockRowsLeft == 0 && this.block.hasRemaining()) {
+            throw new IOException(MESSAGE_CORRUPT);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the amount of the current transaction, in cents.
+     */
+    public long getAmount() {
+        return this.amount;
+    }
+
+    /**
+     * Returns the balance after the current transaction, in cents.
+     */
+    public long getBalance() {
+        return this.balance;
+    }
+
+    /**
+     * Returns the date and time of the current transaction, in nanoseconds since the epoch.
+     */
+    public long getEpochNanos() {
+        return this.epochNanos;
+    }
+
+    /**
+     * Reads the remaining transactions into a bank account. The transactions are appended straight into
+     * the columns of a {@link ColumnarTransactionList}, which becomes the history of the account as is.
+     *
+     * @return The {@link BankAccount} holding the remaining transactions, with the balance left by the last one.
+     * @throws IOException If the remaining transactions cannot be read.
+     */
+    public BankAccount readAccount() throws IOException {
+        ColumnarTransactionList.Builder builder = new ColumnarTransactionList.Builder();
+        long balance = 0;
+        while (this.next()) {
+            builder.add(this.amount, this.balance, this.epochNanos);
+            balance = this.balance;
+        }
+        return new BankAccount(Money.ofCents(balance), new TransactionList(builder.build()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    private void readBlock() throws IOException {
+        try {
+            int rowCount = this.in.readInt();
+            int payloadBytes = this.in.readInt();
+            if (rowCount < 0 || rowCount > HistoryFile.BLOCK_ROWS || payloadBytes < 0
+                || payloadBytes > HistoryFile.MAX_BLOCK_BYTES - HistoryFile.BLOCK_HEADER_BYTES - Integer.BYTES) {
+                throw new IOException(MESSAGE_CORRUPT);
+            }
+
+            this.block.clear();
+            this.block.putInt(rowCount);
+            this.block.putInt(payloadBytes);
+            this.in.readFully(this.block.array(), HistoryFile.BLOCK_HEADER_BYTES, payloadBytes);
+            int expectedChecksum = this.in.readInt();
+
+            this.checksum.reset();
+            this.checksum.update(this.block.array(), 0, HistoryFile.BLOCK_HEADER_BYTES + payloadBytes);
+            if ((int) this.checksum.getValue() != expectedChecksum) {
+                throw new IOException(MESSAGE_CORRUPT);
+            }
+
+            this.block.position(HistoryFile.BLOCK_HEADER_BYTES);
+            this.block.limit(HistoryFile.BLOCK_HEADER_BYTES + payloadBytes);
+        } catch (EOFException e) {
+            throw new IOException(MESSAGE_TRUNCATED, e);
+        }
+
+        this.blockRowsLeft = this.block.getInt(0);
+        if (this.blockRowsLeft == 0) {
+            if (this.block.remaining() != Long.BYTES || this.block.getLong() != this.rowCount) {
+                throw new IOException(MESSAGE_TRUNCATED);
+            }
+            this.isFinished = true;
+        }
+    }
+
+    private long getVarLong() throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!this.block.hasRemaining()) {
+                throw new IOException(MESSAGE_CORRUPT);
+            }
+            byte b = this.block.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException(MESSAGE_CORRUPT);
+    }
+}
@@ -0,0 +1,162 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.cli.Message.MESSAGE_UNORDERED_TRANSACTION;
+import static awesomegic.bank.model.transaction.ColumnarTransactionList.toEpochNanos;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+
+/**
+ * Represents a streaming writer of a transaction history in the export format described by
+ * {@link HistoryFile}.
+ * <p>
+ * Transactions are encoded into a buffer holding a single block, which is written out with its checksum
+ * once it is full, so exporting a history of any length takes the same memory.
+ */
+public final class HistoryWriter implements Closeable {
+    private static final String MESSAGE_CLOSED = "The history writer is closed.";
+
+    private final OutputStream out;
+    private final ByteBuffer block = ByteBuffer.allocate(HistoryFile.MAX_BLOCK_BYTES);
+    private final CRC32 checksum = new CRC32();
+    private int blockRowCount;
+    private long rowCount;
+    private long lastEpochNanos;
+    private long lastBalance;
+    private boolean isClosed;
+
+    /**
+     * Constructs a {@code HistoryWriter} writing to the specified stream, and writes the file header.
+     * The stream is closed when the writer is closed.
+     *
+     * @throws IOException If the header cannot be written.
+     */
+    public HistoryWriter(OutputStream out) throws IOException {
+        requireNonNull(out);
+
+        this.out = out;
+        ByteBuffer header = ByteBuffer.allocate(HistoryFile.HEADER_BYTES);
+        header.putInt(HistoryFile.MAGIC);
+        header.putInt(HistoryFile.VERSION);
+        this.out.write(header.array());
+        this.block.position(HistoryFile.BLOCK_HEADER_BYTES);
+    }
+
+    /**
+     * Writes a transaction.
+     *
+     * @throws IllegalArgumentException if the transaction is older than the last transaction written
+     *     or its date and time cannot be stored.
+     * @throws IOException If a full block cannot be written.
+     */
+    public void write(Transaction transaction) throws IOException {
+        requireNonNull(transaction);
+
+        this.write(transaction.amount.getCents(), transaction.balance.getCents(),
+            toEpochNanos(transaction.dateTime));
+    }
+
+    /**
+     * Writes a transaction given as its columns.
+     *
+     * @param amount The amount of the transaction, in cents.
+     * @param balance The balance after the transaction, in cents.
+     * @param epochNanos The date and time of the transaction, in nanoseconds since the epoch.
+     * @throws IllegalArgumentException if the transaction is older than the last transaction written.
+     * @throws IOException If a full block cannot be written.
+     */
+    public void write(long amount, long balance, long epochNanos) throws IOException {
+        if (this.isClosed) {
+            throw new IOException(MESSAGE_CLOSED);
+        }
+        if (this.rowCount > 0 && epochNanos < this.lastEpochNanos) {
+            throw new IllegalArgumentException(MESSAGE_UNORDERED_TRANSACTION);
+        }
+
+        // The first delta is from the epoch and may be negative, so deltas are zigzag encoded like the rest.
+        putVarLong(this.block, epochNanos - this.lastEpochNanos);
+        putVarLong(this.block, amount);
+        putVarLong(this.block, balance - (this.lastBalance + amount));
+        this.lastEpochNanos = epochNanos;
+        this.lastBalance = balance;
+        this.rowCount++;
+
+        if (++this.blockRowCount == HistoryFile.BLOCK_ROWS) {
+            this.writeBlock(this.blockRowCount);
+        }
+    }
+
+    /**
+     * Writes every transaction of the specified list, in order.
+     *
+     * @throws IllegalArgumentException if the transactions are older than the last transaction written.
+     * @throws IOException If a block cannot be written.
+     */
+    public void writeAll(ReadOnlyTransactionList transactions) throws IOException {
+        requireNonNull(transactions);
+
+        for (Transaction transaction : transactions) {
+            this.write(transaction);
+        }
+    }
+
+    /**
+     * Returns the number of transactions written so far.
+     */
+    public long getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Writes the last partial block and the end block, then closes the underlying stream.
+     *
+     * @throws IOException If the remaining blocks cannot be written or the stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.isClosed) {
+            return;
+        }
+        this.isClosed = true;
+
+        try (OutputStream out = this.out) {
+            if (this.blockRowCount > 0) {
+                this.writeBlock(this.blockRowCount);
+            }
+            this.block.putLong(this.rowCount);
+            this.writeBlock(0);
+            out.flush();
+        }
+    }
+
+    private void writeBlock(int rowCount) throws IOException {
+        int payloadBytes = this.block.position() - HistoryFile.BLOCK_HEADER_BYTES;
+        this.block.putInt(0, rowCount);
+        this.block.putInt(Integer.BYTES, payloadBytes);
+
+        this.checksum.reset();
+        this.checksum.update(this.block.array(), 0, this.block.position());
+        this.block.putInt((int) this.checksum.getValue());
+
+        this.out.write(this.block.array(), 0, this.block.position());
+        this.block.clear();
+        this.block.position(HistoryFile.BLOCK_HEADER_BYTES);
+        this.blockRowCount = 0;
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+}
@@ -0,0 +1,112 @@
+package awesomegic.bank.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+
+/**
+ * Represents durable storage for the transactions of a bank account.
+ */
+public interface Journal extends AutoCloseable {
+    /**
+     * Rebuilds the bank account from the transactions recorded so far.
+     *
+     * @return The recovered {@link BankAccount}, or a new account if nothing has been recorded.
+     * @throws IOException If the recorded transactions cannot be read.
+     */
+    BankAccount recover() throws IOException;
+
+    /**
+     * Records the transactions produced by a single operation.
+     * Returns once the transactions are as durable as the journal promises.
+     *
+     * @param transactions The new transactions, in chronological order.
+     * @throws IOException If the transactions cannot be recorded.
+     */
+    void append(ReadOnlyTransactionList transactions) throws IOException;
+
+    /**
+     * Records the transactions produced by a single operation without waiting for them to become durable.
+     * Operations are recorded in the order of the calls, so a caller can order them under its own lock and
+     * wait on the returned {@link Commit} after releasing it, letting other operations share the same force
+     * to disk. The operation must not be acknowledged before the commit has been awaited.
+     *
+     * @param transactions The new transactions, in chronological order.
+     * @return The {@link Commit} that waits until the transactions are as durable as the journal promises.
+     * @throws IOException If the transactions cannot be recorded.
+     */
+    default Commit write(ReadOnlyTransactionList transactions) throws IOException {
+        this.append(transactions);
+        return Commit.DURABLE;
+    }
+
+    /**
+     * Checks if the journal records anything. Updates to an account without a recording journal do not need
+     * to be ordered with the journal, so they can be published without a lock.
+     */
+    default boolean isRecording() {
+        return true;
+    }
+
+    /**
+     * Flushes any pending transactions and releases the underlying storage.
+     *
+     * @throws IOException If the pending transactions cannot be flushed.
+     */
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Represents transactions written to a journal that may not be durable yet.
+     */
+    @FunctionalInterface
+    interface Commit {
+        /** A commit whose transactions are already as durable as the journal promises. */
+        Commit DURABLE = () -> {
+        };
+
+        /**
+         * Waits until the transactions are as durable as the journal promises.
+         *
+         * @throws IOException If the transactions cannot be made durable.
+         */
+        void await() throws IOException;
+    }
+
+    /**
+     * Returns a journal that keeps nothing, so every session starts with a new account.
+     */
+    static Journal none() {
+        return startingWith(new BankAccount());
+    }
+
+    /**
+     * Returns a journal that keeps nothing, so the session starts with the specified account.
+     */
+    static Journal startingWith(BankAccount account) {
+        requireNonNull(account);
+
+        return new Journal() {
+            @Override
+            public BankAccount recover() {
+                return account;
+            }
+
+            @Override
+            public void append(ReadOnlyTransactionList transactions) {
+            }
+
+            @Override
+            public boolean isRecording() {
+                return false;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
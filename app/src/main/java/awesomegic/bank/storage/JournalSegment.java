@@ -0,0 +1,152 @@
+package awesomegic.bank.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import awesomegic.bank.model.transaction.Transaction;
+
+/**
+ * Represents a fixed-size, memory-mapped journal segment holding the transactions made since the last snapshot.
+ * <p>
+ * Each record carries the index of its transaction in the account history and a checksum. The segment is
+ * reused from the start after every snapshot. The header after the last record is always zeroed before the
+ * record is written, so replay stops there rather than reading on into records left over from before the
+ * snapshot. Replay also skips records already in the snapshot and stops at the first torn, corrupt or
+ * out-of-sequence record.
+ */
+final class JournalSegment implements Closeable {
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int INDEX_BYTES = Long.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    private JournalSegment(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens and maps the segment at the specified path, creating it with the given capacity if needed.
+     */
+    static JournalSegment open(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new JournalSegment(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the transactions recorded from the specified index onwards and positions the segment after them.
+     *
+     * @param nextIndex The index of the first transaction not yet in the snapshot.
+     * @return The recorded transactions, in order.
+     */
+    List<Transaction> replay(long nextIndex) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        int offset = 0;
+
+        while (offset + HEADER_BYTES + INDEX_BYTES <= this.buffer.capacity()) {
+            int length = this.buffer.getInt(offset);
+            int checksum = this.buffer.getInt(offset + Integer.BYTES);
+            if (length < INDEX_BYTES || length > this.buffer.capacity() - offset - HEADER_BYTES) {
+                break;
+            }
+
+            byte[] record = new byte[length];
+            this.buffer.duplicate().position(offset + HEADER_BYTES).get(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+            long index = input.readLong();
+            if (index > nextIndex) {
+                break;
+            }
+            if (index == nextIndex) {
+                transactions.add(TransactionRecords.read(input));
+                nextIndex++;
+            }
+            offset += HEADER_BYTES + length;
+        }
+
+        this.position = offset;
+        return transactions;
+    }
+
+    /**
+     * Writes a record for the transaction at the specified index of the account history.
+     *
+     * @return {@code false} if the segment has no room left for the record.
+     */
+    boolean append(long index, Transaction transaction) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeLong(index);
+        TransactionRecords.write(output, transaction);
+        byte[] record = bytes.toByteArray();
+
+        if (this.position + HEADER_BYTES + record.length > this.buffer.capacity()) {
+            return false;
+        }
+
+        int end = this.position + HEADER_BYTES + record.length;
+        if (end + HEADER_BYTES <= this.buffer.capacity()) {
+            this.clearHeader(end);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        this.buffer.duplicate().position(this.position + HEADER_BYTES).put(record);
+        this.buffer.putInt(this.position + Integer.BYTES, (int) crc.getValue());
+        this.buffer.putInt(this.position, record.length);
+        this.position = end;
+        return true;
+    }
+
+    /**
+     * Forces the records written so far to disk.
+     */
+    void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Starts writing from the beginning of the segment again, once its records are in a snapshot.
+     */
+    void reset() {
+        this.position = 0;
+        this.clearHeader(0);
+    }
+
+    private void clearHeader(int offset) {
+        this.buffer.putInt(offset + Integer.BYTES, 0);
+        this.buffer.putInt(offset, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.buffer.force();
+        this.channel.close();
+    }
+}
@@ -0,0 +1,133 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.model.transaction.ColumnarTransactionList.fromEpochNanos;
+import static awesomegic.bank.model.transaction.ColumnarTransactionList.toEpochNanos;
+import static java.util.Objects.requireNonNull;
+
+import java.nio.LongBuffer;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ColumnWidths;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+
+/**
+ * Represents a read-only transaction list backed by the rows of a memory-mapped snapshot.
+ * <p>
+ * Each row is three {@code long}s: the amount and balance in cents and the timestamp in nanoseconds
+ * since the epoch. Rows are only read, and turned into a {@link Transaction}, when they are accessed, so
+ * mapping a snapshot takes the same time however long the history is.
+ */
+final class MappedTransactionList implements ReadOnlyTransactionList {
+    static final int ROW_BYTES = Long.BYTES * 3;
+    static final int REGION_BITS = 24;
+    static final int REGION_ROWS = 1 << REGION_BITS;
+    private static final int REGION_MASK = REGION_ROWS - 1;
+
+    private final LongBuffer[] regions;
+    private final int size;
+    private final ColumnWidths columnWidths;
+
+    /**
+     * Constructs a list over the specified mapped regions, each holding {@link #REGION_ROWS} rows except the last.
+     */
+    MappedTransactionList(LongBuffer[] regions, int size, ColumnWidths columnWidths) {
+        this.regions = regions;
+        this.size = size;
+        this.columnWidths = columnWidths;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Transaction get(int index) {
+        Objects.checkIndex(index, this.size);
+
+        LongBuffer region = this.regions[index >>> REGION_BITS];
+        int row = (index & REGION_MASK) * 3;
+        return new Transaction(
+            Money.ofCents(region.get(row)),
+            Money.ofCents(region.get(row + 1)),
+            fromEpochNanos(region.get(row + 2)));
+    }
+
+    @Override
+    public LocalDateTime getDateTime(int index) {
+        Objects.checkIndex(index, this.size);
+
+        return fromEpochNanos(this.timestampAt(index));
+    }
+
+    /**
+     * Returns the index of the first transaction made at or after the specified date and time,
+     * comparing the mapped timestamps directly.
+     */
+    @Override
+    public int indexOfFirstAtOrAfter(LocalDateTime dateTime) {
+        requireNonNull(dateTime);
+
+        if (this.size == 0 || !dateTime.isAfter(this.getDateTime(0))) {
+            return 0;
+        }
+
+        long timestamp;
+        try {
+            timestamp = toEpochNanos(dateTime);
+        } catch (IllegalArgumentException e) {
+            return this.size;
+        }
+
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.timestampAt(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public ColumnWidths getColumnWidths() {
+        return this.columnWidths;
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<Transaction>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < MappedTransactionList.this.size;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return MappedTransactionList.this.get(this.index++);
+            }
+        };
+    }
+
+    private long timestampAt(int index) {
+        return this.regions[index >>> REGION_BITS].get((index & REGION_MASK) * 3 + 2);
+    }
+}
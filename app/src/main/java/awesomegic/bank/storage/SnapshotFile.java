@@ -0,0 +1,198 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.model.transaction.ColumnarTransactionList.toEpochNanos;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import awesomegic.bank.model.transaction.ColumnWidths;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+
+/**
+ * Represents a compact, append-only snapshot of the history of a bank account.
+ * <p>
+ * The file starts with two checksummed header slots followed by fixed-size rows. A snapshot is extended by
+ * writing the new rows after the existing ones, forcing them to disk, and only then writing a header with
+ * the new row count into the older slot. A crash at any point leaves the previous header valid.
+ */
+final class SnapshotFile implements Closeable {
+    private static final String MESSAGE_CORRUPT = "The snapshot header is corrupt.";
+    private static final String MESSAGE_INVALID_TRANSACTION = "Unable to store a transaction in the snapshot.";
+    private static final int MAGIC = 0x47494353;
+    private static final int VERSION = 1;
+    private static final int SLOT_BYTES = 64;
+    private static final int HEADER_BYTES = SLOT_BYTES * 2;
+    private static final int SLOT_CONTENT_BYTES = Integer.BYTES * 2 + Long.BYTES * 2 + Integer.BYTES * 3;
+
+    private final FileChannel channel;
+    private long generation;
+    private int size;
+    private ColumnWidths columnWidths;
+
+    private SnapshotFile(FileChannel channel, long generation, int size, ColumnWidths columnWidths) {
+        this.channel = channel;
+        this.generation = generation;
+        this.size = size;
+        this.columnWidths = columnWidths;
+    }
+
+    /**
+     * Opens the snapshot at the specified path, creating an empty one if it does not exist.
+     *
+     * @throws IOException If the snapshot cannot be opened or neither header slot is valid.
+     */
+    static SnapshotFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                SnapshotFile snapshot = new SnapshotFile(channel, 0, 0, ColumnWidths.EMPTY);
+                snapshot.writeSlot();
+                channel.force(true);
+                return snapshot;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            header.flip();
+
+            SnapshotFile first = readSlot(channel, header, 0);
+            SnapshotFile second = readSlot(channel, header, SLOT_BYTES);
+            if (first == null && second == null) {
+                throw new IOException(MESSAGE_CORRUPT);
+            }
+            if (first == null) {
+                return second;
+            }
+            return second == null || first.generation > second.generation ? first : second;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the rows of the snapshot into memory without reading them.
+     */
+    ReadOnlyTransactionList map() throws IOException {
+        int regionCount = (this.size + MappedTransactionList.REGION_ROWS - 1) / MappedTransactionList.REGION_ROWS;
+        LongBuffer[] regions = new LongBuffer[regionCount];
+
+        for (int i = 0; i < regionCount; i++) {
+            long firstRow = (long) i * MappedTransactionList.REGION_ROWS;
+            long rows = Math.min(MappedTransactionList.REGION_ROWS, this.size - firstRow);
+            regions[i] = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_BYTES + firstRow * MappedTransactionList.ROW_BYTES,
+                rows * MappedTransactionList.ROW_BYTES).asLongBuffer();
+        }
+
+        return new MappedTransactionList(regions, this.size, this.columnWidths);
+    }
+
+    /**
+     * Appends the specified transactions to the snapshot and makes them durable.
+     *
+     * @throws IOException If the transactions cannot be written or their dates and times cannot be stored.
+     */
+    void append(List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer rows = ByteBuffer.allocate(transactions.size() * MappedTransactionList.ROW_BYTES);
+        ColumnWidths widths = this.columnWidths;
+        try {
+            for (Transaction transaction : transactions) {
+                rows.putLong(transaction.amount.getCents());
+                rows.putLong(transaction.balance.getCents());
+                rows.putLong(toEpochNanos(transaction.dateTime));
+                widths = widths.include(transaction);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException(MESSAGE_INVALID_TRANSACTION, e);
+        }
+        rows.flip();
+
+        long position = HEADER_BYTES + (long) this.size * MappedTransactionList.ROW_BYTES;
+        while (rows.hasRemaining()) {
+            position += this.channel.write(rows, position);
+        }
+        this.channel.force(true);
+
+        this.generation++;
+        this.size += transactions.size();
+        this.columnWidths = widths;
+        this.writeSlot();
+        this.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void writeSlot() throws IOException {
+        ByteBuffer slot = ByteBuffer.allocate(SLOT_BYTES);
+        slot.putInt(MAGIC);
+        slot.putInt(VERSION);
+        slot.putLong(this.generation);
+        slot.putLong(this.size);
+        slot.putInt(this.columnWidths.dateColumnWidth);
+        slot.putInt(this.columnWidths.amountColumnWidth);
+        slot.putInt(this.columnWidths.balanceColumnWidth);
+
+        CRC32 crc = new CRC32();
+        crc.update(slot.array(), 0, SLOT_CONTENT_BYTES);
+        slot.putInt((int) crc.getValue());
+        slot.rewind();
+
+        long position = (this.generation % 2) * SLOT_BYTES;
+        while (slot.hasRemaining()) {
+            position += this.channel.write(slot, position);
+        }
+    }
+
+    /**
+     * Reads a header slot, or returns {@code null} if it is missing or invalid.
+     */
+    private static SnapshotFile readSlot(FileChannel channel, ByteBuffer header, int offset) {
+        if (header.limit() < offset + SLOT_CONTENT_BYTES + Integer.BYTES) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), offset, SLOT_CONTENT_BYTES);
+        if (header.getInt(offset + SLOT_CONTENT_BYTES) != (int) crc.getValue()
+            || header.getInt(offset) != MAGIC
+            || header.getInt(offset + Integer.BYTES) != VERSION) {
+            return null;
+        }
+
+        long generation = header.getLong(offset + Integer.BYTES * 2);
+        long size = header.getLong(offset + Integer.BYTES * 2 + Long.BYTES);
+        int dataOffset = offset + Integer.BYTES * 2 + Long.BYTES * 2;
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        try {
+            ColumnWidths widths = ColumnWidths.of(
+                header.getInt(dataOffset),
+                header.getInt(dataOffset + Integer.BYTES),
+                header.getInt(dataOffset + Integer.BYTES * 2));
+            return new SnapshotFile(channel, generation, (int) size, widths);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Represents a journal made of a compact snapshot of the account history and a memory-mapped segment
+ * holding the transactions made since that snapshot.
+ * <p>
+ * On recovery the snapshot is mapped rather than read, and only the segment is replayed, so the time to
+ * start up depends on the number of transactions since the last snapshot rather than on the length of the
+ * history. The segment is folded into the snapshot every {@code snapshotInterval} transactions or when it
+ * runs out of room.
+ * <p>
+ * The segment is forced to disk following the {@link FsyncPolicy}, applied by a {@link GroupCommitter}: after
+ * every operation, in group commits shared by every operation waiting on the batch, or asynchronously.
+ */
+public final class SnapshotJournal implements Journal {
+    private static final String MESSAGE_ALREADY_OPEN = "The journal has already been recovered.";
+    private static final String MESSAGE_CLOSED = "The journal is closed.";
+    private static final String MESSAGE_RECORD_TOO_LARGE = "A transaction does not fit in an empty journal segment.";
+    private static final String MESSAGE_INVALID_RECORD = "The journal contains an invalid transaction.";
+    private static final String MESSAGE_INVALID_SETTINGS = "Segment capacity and snapshot interval must be positive.";
+    private static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+    private static final String SEGMENT_FILE_NAME = "journal.bin";
+    private static final int DEFAULT_SEGMENT_CAPACITY = 16 << 20;
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 1 << 16;
+    private static final String SYNC_THREAD_NAME = "journal-sync";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final int segmentCapacity;
+    private final int snapshotInterval;
+    private final List<Transaction> sinceSnapshot = new ArrayList<>();
+    private SnapshotFile snapshot;
+    private JournalSegment segment;
+    private GroupCommitter committer;
+    private long nextIndex;
+    private boolean isClosed;
+
+    /**
+     * Constructs a {@code SnapshotJournal} stored in the specified directory with the default segment
+     * capacity and snapshot interval.
+     *
+     * @param directory The directory holding the snapshot and the journal segment. Created if it does not exist.
+     * @param policy The {@link FsyncPolicy} deciding when the segment is forced to disk.
+     */
+    public SnapshotJournal(Path directory, FsyncPolicy policy) {
+        this(directory, policy, DEFAULT_SEGMENT_CAPACITY, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Constructs a {@code SnapshotJournal} stored in the specified directory.
+     *
+     * @param directory The directory holding the snapshot and the journal segment. Created if it does not exist.
+     * @param policy The {@link FsyncPolicy} deciding when the segment is forced to disk.
+     * @param segmentCapacity The size of the journal segment in bytes.
+     * @param snapshotInterval The number of transactions after which the segment is folded into the snapshot.
+     * @throws IllegalArgumentException if the segment capacity or snapshot interval is not positive.
+     */
+    public SnapshotJournal(Path directory, FsyncPolicy policy, int segmentCapacity, int snapshotInterval) {
+        requireAllNonNull(directory, policy);
+
+        if (segmentCapacity <= 0 || snapshotInterval <= 0) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_SETTINGS);
+        }
+
+        this.directory = directory;
+        this.policy = policy;
+        this.segmentCapacity = segmentCapacity;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Maps the latest snapshot and replays the journal segment on top of it.
+     *
+     * @return The recovered {@link BankAccount}.
+     * @throws IOException If the snapshot or the segment cannot be opened or contain invalid transactions.
+     */
+    @Override
+    public synchronized BankAccount recover() throws IOException {
+        if (this.snapshot != null) {
+            throw new IllegalStateException(MESSAGE_ALREADY_OPEN);
+        }
+
+        Files.createDirectories(this.directory);
+        this.snapshot = SnapshotFile.open(this.directory.resolve(SNAPSHOT_FILE_NAME));
+        this.segment = JournalSegment.open(this.directory.resolve(SEGMENT_FILE_NAME), this.segmentCapacity);
+
+        ReadOnlyTransactionList history = this.snapshot.map();
+        TransactionList transactions = new TransactionList(history);
+        try {
+            for (Transaction transaction : this.segment.replay(history.size())) {
+                transactions = transactions.add(transaction);
+                this.sinceSnapshot.add(transaction);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException(MESSAGE_INVALID_RECORD, e);
+        }
+        this.nextIndex = transactions.size();
+
+        JournalSegment segment = this.segment;
+        this.committer = new GroupCommitter(this.policy, segment::force);
+        this.committer.start(SYNC_THREAD_NAME);
+
+        if (transactions.isEmpty()) {
+            return new BankAccount();
+        }
+        Money balance = transactions.get(transactions.size() - 1).balance;
+        return new BankAccount(balance, transactions);
+    }
+
+    /**
+     * Writes the transactions of a single operation to the journal segment,
+     * taking a snapshot first if the segment is full.
+     * Under per-operation and group-commit policies this returns only once the segment is on disk.
+     *
+     * @param transactions The new transactions, in chronological order.
+     * @throws IOException If the transactions cannot be recorded.
+     */
+    @Override
+    public void append(ReadOnlyTransactionList transactions) throws IOException {
+        this.write(transactions).await();
+    }
+
+    /**
+     * Writes the transactions of a single operation to the journal segment, taking a snapshot first if the
+     * segment is full, without waiting for a group commit to force the segment to disk.
+     *
+     * @param transactions The new transactions, in chronological order.
+     * @return The {@link Journal.Commit} that waits until the transactions are as durable as the policy promises.
+     * @throws IOException If the transactions cannot be recorded.
+     */
+    @Override
+    public synchronized Commit write(ReadOnlyTransactionList transactions) throws IOException {
+        requireNonNull(transactions);
+
+        if (this.segment == null || this.isClosed) {
+            throw new IOException(MESSAGE_CLOSED);
+        }
+        if (transactions.isEmpty()) {
+            return Commit.DURABLE;
+        }
+        this.committer.checkNotFailed();
+
+        for (Transaction transaction : transactions) {
+            if (!this.segment.append(this.nextIndex, transaction)) {
+                this.takeSnapshot();
+                if (!this.segment.append(this.nextIndex, transaction)) {
+                    throw new IOException(MESSAGE_RECORD_TOO_LARGE);
+                }
+            }
+            this.sinceSnapshot.add(transaction);
+            this.nextIndex++;
+        }
+
+        if (this.sinceSnapshot.size() >= this.snapshotInterval) {
+            this.takeSnapshot();
+        }
+        return this.committer.written();
+    }
+
+    /**
+     * Forces the journal segment to disk and closes the snapshot and the segment.
+     *
+     * @throws IOException If the segment cannot be forced or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.isClosed || this.snapshot == null) {
+            this.isClosed = true;
+            return;
+        }
+        this.isClosed = true;
+
+        this.committer.close();
+        try {
+            this.segment.close();
+        } finally {
+            this.snapshot.close();
+        }
+    }
+
+    /**
+     * Appends the transactions made since the last snapshot to the snapshot and starts the segment over.
+     * The snapshot is durable before the segment is reused, and replay skips segment records that are
+     * already in the snapshot, so a crash in between loses nothing.
+     */
+    private void takeSnapshot() throws IOException {
+        this.snapshot.append(this.sinceSnapshot);
+        this.sinceSnapshot.clear();
+        this.segment.reset();
+    }
+}
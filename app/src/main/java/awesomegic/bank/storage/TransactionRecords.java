@@ -0,0 +1,79 @@
+package awesomegic.bank.storage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.Transaction;
+
+/**
+ * Utility class for encoding transactions as journal records.
+ * <p>
+ * An amount is recorded as a decimal: its scale followed by the big-endian two's complement bytes of its
+ * unscaled value. Amounts are written with a scale of two, so the unscaled value is the amount in cents.
+ */
+class TransactionRecords {
+    private static final String MESSAGE_INVALID_AMOUNT = "The journal contains an amount that is not a whole number of cents.";
+    private static final int CENTS_SCALE = 2;
+
+    /**
+     * Writes a transaction as its date and time followed by its amount and balance.
+     */
+    static void write(DataOutput output, Transaction transaction) throws IOException {
+        output.writeLong(transaction.dateTime.toEpochSecond(ZoneOffset.UTC));
+        output.writeInt(transaction.dateTime.getNano());
+        writeAmount(output, transaction.amount);
+        writeAmount(output, transaction.balance);
+    }
+
+    /**
+     * Reads a transaction written by {@link #write(DataOutput, Transaction)}.
+     */
+    static Transaction read(DataInput input) throws IOException {
+        long epochSecond = input.readLong();
+        int nano = input.readInt();
+        Money amount = readAmount(input);
+        Money balance = readAmount(input);
+        return new Transaction(amount, balance, LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    }
+
+    private static void writeAmount(DataOutput output, Money amount) throws IOException {
+        long cents = amount.getCents();
+        int length = (Long.SIZE - Long.numberOfLeadingZeros(cents < 0 ? ~cents : cents)) / Byte.SIZE + 1;
+
+        output.writeInt(CENTS_SCALE);
+        output.writeShort(length);
+        for (int i = length - 1; i >= 0; i--) {
+            output.writeByte((int) (cents >>> (i * Byte.SIZE)));
+        }
+    }
+
+    /**
+     * Reads an amount, accepting any scale of at most two so that records written with a smaller scale
+     * are still read.
+     */
+    private static Money readAmount(DataInput input) throws IOException {
+        int scale = input.readInt();
+        int length = input.readUnsignedShort();
+        if (scale < 0 || scale > CENTS_SCALE || length == 0 || length > Long.BYTES) {
+            throw new IOException(MESSAGE_INVALID_AMOUNT);
+        }
+
+        long unscaled = input.readByte();
+        for (int i = 1; i < length; i++) {
+            unscaled = (unscaled << Byte.SIZE) | input.readUnsignedByte();
+        }
+
+        try {
+            for (int i = scale; i < CENTS_SCALE; i++) {
+                unscaled = Math.multiplyExact(unscaled, 10);
+            }
+        } catch (ArithmeticException e) {
+            throw new IOException(MESSAGE_INVALID_AMOUNT, e);
+        }
+        return Money.ofCents(unscaled);
+    }
+}
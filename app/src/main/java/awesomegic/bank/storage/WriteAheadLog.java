@@ -0,0 +1,314 @@
+package awesomegic.bank.storage;
+
+import static awesomegic.bank.utils.CollectionUtil.requireAllNonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Represents an append-only write-ahead log of the transactions of a bank account.
+ * <p>
+ * The transactions of each operation are written as one length-prefixed, checksummed record, so an operation
+ * is recovered either whole or not at all. When the records are forced to disk depends on the
+ * {@link FsyncPolicy}, applied by a {@link GroupCommitter}: per operation, in group commits that share one
+ * {@link FileChannel#force(boolean)} between every operation waiting on the batch, or asynchronously.
+ * <p>
+ * After every force the log records how far it has been forced in a small file next to it, whose name ends
+ * in {@value #FORCED_POSITION_SUFFIX}. That file is written without being forced itself, so after a crash it
+ * holds a position the log was forced up to, though possibly not the latest one. On recovery, a damaged or
+ * missing record before that position was on disk and fails the recovery rather than discarding the
+ * operations after it. A damaged record beyond it may be a write that never reached the disk whole, possibly
+ * with later unforced records reaching it out of order, so it is truncated away with everything after it.
+ */
+public final class WriteAheadLog implements Journal {
+    private static final String MESSAGE_CLOSED = "The write-ahead log is closed.";
+    private static final String MESSAGE_ALREADY_OPEN = "The write-ahead log has already been recovered.";
+    private static final String MESSAGE_INVALID_RECORD = "The write-ahead log contains an invalid transaction.";
+    private static final String MESSAGE_CORRUPT_RECORD =
+        "The write-ahead log has a corrupt or missing record at byte %d, which had been forced to disk.";
+    private static final String SYNC_THREAD_NAME = "wal-sync";
+    private static final String FORCED_POSITION_SUFFIX = ".forced";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int FORCED_POSITION_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final Path forcedPositionPath;
+    private final FsyncPolicy policy;
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private FileChannel forcedPositionChannel;
+    private long forcedPosition;
+    private GroupCommitter committer;
+    private boolean isClosed;
+
+    /**
+     * Constructs a {@code WriteAheadLog} stored at the specified path.
+     * The log is opened by {@link #recover()}.
+     *
+     * @param path The file holding the log. Created if it does not exist, together with the file next to it
+     *     recording how far the log has been forced.
+     * @param policy The {@link FsyncPolicy} deciding when records are forced to disk.
+     */
+    public WriteAheadLog(Path path, FsyncPolicy policy) {
+        requireAllNonNull(path, policy);
+
+        this.path = path;
+        this.forcedPositionPath = path.resolveSibling(path.getFileName() + FORCED_POSITION_SUFFIX);
+        this.policy = policy;
+    }
+
+    /**
+     * Replays the log into a bank account and opens the log for appending.
+     * A damaged record that was never known to be forced to disk is truncated away together with everything
+     * after it.
+     *
+     * @return The recovered {@link BankAccount}.
+     * @throws IOException If the log cannot be read, contains an invalid transaction, or has a damaged or
+     *     missing record that had been forced to disk.
+     */
+    @Override
+    public BankAccount recover() throws IOException {
+        synchronized (this.lock) {
+            if (this.channel != null) {
+                throw new IllegalStateException(MESSAGE_ALREADY_OPEN);
+            }
+
+            TransactionList transactions = new TransactionList();
+            long validPosition = 0;
+
+            if (Files.exists(this.path)) {
+                long forcedPosition = this.readForcedPosition();
+                long size = Files.size(this.path);
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(this.path))) {
+                    DataInputStream input = new DataInputStream(in);
+                    while (validPosition < size) {
+                        byte[] payload = readPayload(input, size - validPosition);
+                        if (payload == null) {
+                            break;
+                        }
+                        transactions = readTransactions(payload, transactions);
+                        validPosition += HEADER_SIZE + payload.length;
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(MESSAGE_INVALID_RECORD, e);
+                }
+                if (validPosition < forcedPosition) {
+                    throw new IOException(String.format(MESSAGE_CORRUPT_RECORD, validPosition));
+                }
+                this.forcedPosition = forcedPosition;
+            } else {
+                // A position left behind by a log that has since been removed does not apply to a new one.
+                Files.deleteIfExists(this.forcedPositionPath);
+            }
+
+            this.forcedPositionChannel = FileChannel.open(this.forcedPositionPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.channel = FileChannel.open(this.path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.channel.truncate(validPosition);
+            this.channel.position(validPosition);
+            this.committer = new GroupCommitter(this.policy, this::force);
+            this.committer.start(SYNC_THREAD_NAME);
+
+            if (transactions.isEmpty()) {
+                return new BankAccount();
+            }
+            Money balance = transactions.get(transactions.size() - 1).balance;
+            return new BankAccount(balance, transactions);
+        }
+    }
+
+    /**
+     * Appends the transactions of a single operation to the log.
+     * Under per-operation and group-commit policies this returns only once the record is on disk.
+     *
+     * @param transactions The new transactions, in chronological order.
+     * @throws IOException If the record cannot be written or forced to disk.
+     */
+    @Override
+    public void append(ReadOnlyTransactionList transactions) throws IOException {
+        this.write(transactions).await();
+    }
+
+    /**
+     * Writes the transactions of a single operation to the log as one record, without waiting for a group
+     * commit to force it to disk.
+     *
+     * @param transactions The new transactions, in chronological order.
+     * @return The {@link Journal.Commit} that waits until the record is as durable as the policy promises.
+     * @throws IOException If the record cannot be written, or cannot be forced under the per-operation policy.
+     */
+    @Override
+    public Commit write(ReadOnlyTransactionList transactions) throws IOException {
+        requireNonNull(transactions);
+
+        if (transactions.isEmpty()) {
+            return Commit.DURABLE;
+        }
+
+        ByteBuffer record = encode(transactions);
+
+        synchronized (this.lock) {
+            this.ensureWritable();
+
+            while (record.hasRemaining()) {
+                this.channel.write(record);
+            }
+            return this.committer.written();
+        }
+    }
+
+    /**
+     * Forces any pending records to disk and closes the log.
+     *
+     * @throws IOException If the pending records cannot be forced to disk.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.lock) {
+            if (this.isClosed || this.channel == null) {
+                this.isClosed = true;
+                return;
+            }
+            this.isClosed = true;
+        }
+
+        this.committer.close();
+        try {
+            this.force();
+        } finally {
+            try {
+                this.channel.close();
+            } finally {
+                this.forcedPositionChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Forces every record written so far to disk, then records how far the log has been forced.
+     * The position is taken before forcing, at a record boundary since records are written under the lock.
+     */
+    private void force() throws IOException {
+        long position;
+        synchronized (this.lock) {
+            position = this.channel.position();
+        }
+
+        this.channel.force(false);
+
+        synchronized (this.lock) {
+            if (position <= this.forcedPosition) {
+                return;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer record = ByteBuffer.allocate(FORCED_POSITION_SIZE);
+            record.putLong(position);
+            crc.update(record.array(), 0, Long.BYTES);
+            record.putInt((int) crc.getValue()).flip();
+            while (record.hasRemaining()) {
+                this.forcedPositionChannel.write(record, record.position());
+            }
+            this.forcedPosition = position;
+        }
+    }
+
+    /**
+     * Returns the position the log is known to have been forced up to, or zero if it is not known.
+     */
+    private long readForcedPosition() throws IOException {
+        if (!Files.exists(this.forcedPositionPath) || Files.size(this.forcedPositionPath) != FORCED_POSITION_SIZE) {
+            return 0;
+        }
+
+        byte[] bytes = Files.readAllBytes(this.forcedPositionPath);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, Long.BYTES);
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        long position = record.getLong();
+        return record.getInt() == (int) crc.getValue() ? position : 0;
+    }
+
+    private void ensureWritable() throws IOException {
+        if (this.channel == null || this.isClosed) {
+            throw new IOException(MESSAGE_CLOSED);
+        }
+        this.committer.checkNotFailed();
+    }
+
+    /**
+     * Encodes the transactions of one operation as a single record.
+     */
+    private static ByteBuffer encode(ReadOnlyTransactionList transactions) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(payloadBytes);
+        for (Transaction transaction : transactions) {
+            TransactionRecords.write(output, transaction);
+        }
+        byte[] payload = payloadBytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Adds the transactions of a record to the list. Logs written before operations were recorded whole hold
+     * one transaction per record, and are read the same way.
+     */
+    private static TransactionList readTransactions(byte[] payload, TransactionList transactions)
+            throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(payload);
+        DataInputStream input = new DataInputStream(bytes);
+        while (bytes.available() > 0) {
+            transactions = transactions.add(TransactionRecords.read(input));
+        }
+        return transactions;
+    }
+
+    /**
+     * Reads the payload of the next record, or returns {@code null} if the record is torn or corrupt.
+     *
+     * @param remaining The number of bytes from the start of the record to the end of the log.
+     */
+    private static byte[] readPayload(DataInputStream input, long remaining) throws IOException {
+        if (remaining < HEADER_SIZE) {
+            return null;
+        }
+        int length = input.readInt();
+        int checksum = input.readInt();
+        if (length <= 0 || length > remaining - HEADER_SIZE) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        input.readFully(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return payload;
+    }
+}
@@ -1,35 +1,71 @@
 package awesomegic.bank.utils;
 
-import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import awesomegic.bank.model.money.Money;
 
 /**
  * Utility class for numbers.
  */
 public class NumberUtils {
+    private static volatile Locale plainLocale;
+
     /**
-     * Checks if the given number is non-negative.
+     * Checks if the given amount is non-negative.
      */
-    public static void requireNonNegative(BigDecimal number, String msg) {
-        if (number.compareTo(BigDecimal.ZERO) < 0) {
+    public static void requireNonNegative(Money amount, String msg) {
+        if (amount.signum() < 0) {
             throw new IllegalArgumentException(msg);
         }
     }
 
     /**
-     * Checks if the given number is non-zero.
+     * Checks if the given amount is non-zero.
      */
-    public static void requireNonZero(BigDecimal number, String msg) {
-        if (number.compareTo(BigDecimal.ZERO) == 0) {
+    public static void requireNonZero(Money amount, String msg) {
+        if (amount.signum() == 0) {
             throw new IllegalArgumentException(msg);
         }
     }
 
     /**
-     * Checks if the given number is positive.
+     * Checks if the given amount is positive.
      */
-    public static void requirePositive(BigDecimal number, String msg) {
-        if (number.compareTo(BigDecimal.ZERO) <= 0) {
+    public static void requirePositive(Money amount, String msg) {
+        if (amount.signum() <= 0) {
             throw new IllegalArgumentException(msg);
         }
     }
+
+    /**
+     * Formats the given amount with two decimal places, exactly as {@code String.format("%.2f", amount)}
+     * formats the same value: with the digits and decimal separator of the default locale.
+     */
+    public static String formatTwoDecimalPlaces(Money amount) {
+        String plain = amount.toString();
+
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (locale == plainLocale) {
+            return plain;
+        }
+
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        char zeroDigit = symbols.getZeroDigit();
+        char decimalSeparator = symbols.getDecimalSeparator();
+        if (zeroDigit == '0' && decimalSeparator == '.') {
+            plainLocale = locale;
+            return plain;
+        }
+
+        char[] localized = plain.toCharArray();
+        for (int i = 0; i < localized.length; i++) {
+            if (localized[i] == '.') {
+                localized[i] = decimalSeparator;
+            } else if (localized[i] >= '0' && localized[i] <= '9') {
+                localized[i] = (char) (zeroDigit + (localized[i] - '0'));
+            }
+        }
+        return new String(localized);
+    }
 }
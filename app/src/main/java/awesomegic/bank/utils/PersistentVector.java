@@ -0,0 +1,205 @@
+package awesomegic.bank.utils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Represents an immutable, persistent vector.
+ * <p>
+ * Elements are stored in a 32-way trie of fixed-size chunks with a separate tail chunk. Appending copies
+ * at most the tail and the path from the root to the new chunk, so every version shares all of its full
+ * chunks with the versions derived from it and appends run in amortized constant time.
+ *
+ * @param <E> The type of the elements held in the vector.
+ */
+public final class PersistentVector<E> implements Iterable<E> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH], EMPTY_ARRAY);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns an empty {@code PersistentVector}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Returns the number of elements in the vector.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if the vector is empty.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the element at the specified index.
+     *
+     * @param index The index of the element to return.
+     * @return The element at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, this.size);
+
+        return (E) this.chunkFor(index)[index & MASK];
+    }
+
+    /**
+     * Appends an element to the end of the vector.
+     *
+     * @param element The element to append.
+     * @return A new {@code PersistentVector} containing the appended element. This vector is left unchanged.
+     */
+    public PersistentVector<E> append(E element) {
+        if (this.size - this.tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(this.tail, this.tail.length + 1);
+            newTail[this.tail.length] = element;
+            return new PersistentVector<>(this.size + 1, this.shift, this.root, newTail);
+        }
+
+        Object[] newRoot;
+        int newShift = this.shift;
+        if ((this.size >>> BITS) > (1 << this.shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = this.root;
+            newRoot[1] = newPath(this.shift, this.tail);
+            newShift += BITS;
+        } else {
+            newRoot = this.pushTail(this.shift, this.root, this.tail);
+        }
+
+        return new PersistentVector<>(this.size + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    private int tailOffset() {
+        if (this.size < WIDTH) {
+            return 0;
+        }
+        return ((this.size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] chunkFor(int index) {
+        if (index >= this.tailOffset()) {
+            return this.tail;
+        }
+
+        Object[] node = this.root;
+        for (int level = this.shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailChunk) {
+        int subIndex = ((this.size - 1) >>> level) & MASK;
+        Object[] newParent = parent.clone();
+
+        Object[] nodeToInsert;
+        if (level == BITS) {
+            nodeToInsert = tailChunk;
+        } else {
+            Object[] child = (Object[]) parent[subIndex];
+            nodeToInsert = child != null
+                ? this.pushTail(level - BITS, child, tailChunk)
+                : newPath(level - BITS, tailChunk);
+        }
+
+        newParent[subIndex] = nodeToInsert;
+        return newParent;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int index = 0;
+            private Object[] chunk = EMPTY_ARRAY;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < PersistentVector.this.size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                if ((this.index & MASK) == 0) {
+                    this.chunk = PersistentVector.this.chunkFor(this.index);
+                }
+                return (E) this.chunk[this.index++ & MASK];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof PersistentVector)) {
+            return false;
+        }
+
+        PersistentVector<?> other = (PersistentVector<?>) obj;
+
+        if (this.size != other.size) {
+            return false;
+        }
+
+        Iterator<?> otherIterator = other.iterator();
+        for (E element : this) {
+            if (!Objects.equals(element, otherIterator.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (E element : this) {
+            hashCode = 31 * hashCode + Objects.hashCode(element);
+        }
+        return hashCode;
+    }
+}
@@ -0,0 +1,128 @@
+package awesomegic.bank.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a bounded first-in, first-out queue between exactly one producer thread and one consumer thread.
+ * <p>
+ * Elements are kept in a circular array whose capacity is a power of two, indexed by ever-increasing head
+ * and tail counters, so neither side takes a lock. A producer facing a full buffer, or a consumer facing an
+ * empty one, spins briefly and then parks until the other side makes progress, which holds the faster side
+ * back to the pace of the slower one.
+ *
+ * @param <E> The type of the elements held in the buffer.
+ */
+public final class RingBuffer<E> {
+    private static final String MESSAGE_INVALID_CAPACITY = "Capacity must be a positive power of two.";
+    private static final String MESSAGE_ABORTED = "The ring buffer has been aborted.";
+    private static final int SPINS = 64;
+
+    private final Object[] slots;
+    private final int mask;
+    /** The number of elements taken so far, written only by the consumer. */
+    private volatile long head;
+    /** The number of elements put so far, written only by the producer. */
+    private volatile long tail;
+    private volatile Thread waitingProducer;
+    private volatile Thread waitingConsumer;
+    private volatile boolean isAborted;
+
+    /**
+     * Constructs an empty {@code RingBuffer} holding at most {@code capacity} elements.
+     *
+     * @throws IllegalArgumentException if the capacity is not a positive power of two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(MESSAGE_INVALID_CAPACITY);
+        }
+
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds an element at the tail of the buffer, waiting for room if the buffer is full.
+     * Must only be called by the producer thread.
+     *
+     * @throws CancellationException if the buffer has been aborted.
+     */
+    public void put(E element) {
+        requireNonNull(element);
+
+        long tail = this.tail;
+        for (int spins = 0; tail - this.head == this.slots.length; spins++) {
+            this.checkNotAborted();
+            if (spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            this.waitingProducer = Thread.currentThread();
+            if (tail - this.head == this.slots.length && !this.isAborted) {
+                LockSupport.park(this);
+            }
+            this.waitingProducer = null;
+        }
+        this.checkNotAborted();
+
+        this.slots[(int) tail & this.mask] = element;
+        this.tail = tail + 1;
+        unpark(this.waitingConsumer);
+    }
+
+    /**
+     * Removes the element at the head of the buffer, waiting for one if the buffer is empty.
+     * Must only be called by the consumer thread.
+     *
+     * @throws CancellationException if the buffer is empty and has been aborted.
+     */
+    @SuppressWarnings("unchecked")
+    public E take() {
+        long head = this.head;
+        for (int spins = 0; this.tail == head; spins++) {
+            this.checkNotAborted();
+            if (spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            this.waitingConsumer = Thread.currentThread();
+            if (this.tail == head && !this.isAborted) {
+                LockSupport.park(this);
+            }
+            this.waitingConsumer = null;
+        }
+
+        int index = (int) head & this.mask;
+        E element = (E) this.slots[index];
+        this.slots[index] = null;
+        this.head = head + 1;
+        unpark(this.waitingProducer);
+        return element;
+    }
+
+    /**
+     * Gives up on the buffer, for example because the other side has failed. Every later {@link #put(Object)},
+     * and every {@link #take()} that finds the buffer empty, throws a {@link CancellationException}, including
+     * the calls already waiting. Safe to call from any thread.
+     */
+    public void abort() {
+        this.isAborted = true;
+        unpark(this.waitingProducer);
+        unpark(this.waitingConsumer);
+    }
+
+    private void checkNotAborted() {
+        if (this.isAborted) {
+            throw new CancellationException(MESSAGE_ABORTED);
+        }
+    }
+
+    private static void unpark(Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package awesomegic.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.metrics.Metrics;
+import awesomegic.bank.registry.AccountRegistry;
+import awesomegic.bank.storage.Journal;
+
+public class BankSystemTest {
+    private static final String SCRIPT = "d\n10\nd\n20\nm\nq\n";
+    private static final String EXPECTED_COUNTERS = "Successful operations: 2";
+
+    @Test
+    public void start_showMetricsInteractively_reportsInjectedMetrics() {
+        this.assertReportsInjectedMetrics(true);
+    }
+
+    @Test
+    public void start_showMetricsInBatch_reportsInjectedMetrics() {
+        this.assertReportsInjectedMetrics(false);
+    }
+
+    private void assertReportsInjectedMetrics(boolean isInteractive) {
+        Metrics metrics = new Metrics(1);
+        StringWriter out = new StringWriter();
+        Cli cli = new Cli(new StringReader(SCRIPT), out, isInteractive);
+
+        new BankSystem(cli, new AccountRegistry(), BankSystem.DEFAULT_ACCOUNT_ID, Journal.none(), metrics).start();
+
+        assertTrue(out.toString().contains(EXPECTED_COUNTERS), out.toString());
+        assertEquals(3, metrics.getSuccessCount());
+    }
+}
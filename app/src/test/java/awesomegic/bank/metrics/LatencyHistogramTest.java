@@ -0,0 +1,117 @@
+package awesomegic.bank.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    private static final double MAX_RELATIVE_ERROR = 0.125;
+
+    @Test
+    public void getPercentile_smallValues_exact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 8; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(3, histogram.getPercentile(50));
+        assertEquals(6, histogram.getPercentile(87.5));
+        assertEquals(7, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void getPercentile_singleValueBelowLarger_withinBucketPrecision() {
+        for (int exponent = 3; exponent < 59; exponent++) {
+            long powerOfTwo = 1L << exponent;
+            for (long value : new long[] { powerOfTwo - 1, powerOfTwo, powerOfTwo + 1, powerOfTwo * 3 / 2 }) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                histogram.record(value);
+                histogram.record(value * 16);
+
+                // The larger value keeps the maximum from capping the bound of the smaller value's bucket.
+                assertWithinPrecision(value, histogram.getPercentile(50));
+            }
+        }
+    }
+
+    @Test
+    public void getPercentile_uniformValues_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertWithinPrecision(1, histogram.getPercentile(0));
+        assertWithinPrecision(5_000, histogram.getPercentile(50));
+        assertWithinPrecision(9_000, histogram.getPercentile(90));
+        assertWithinPrecision(9_900, histogram.getPercentile(99));
+        assertEquals(10_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void getPercentile_increasingPercentiles_neverDecrease() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value < 1_000_000; value = value * 3 / 2 + 1) {
+            histogram.record(value);
+        }
+
+        long previous = 0;
+        for (int percentile = 0; percentile <= 100; percentile++) {
+            long current = histogram.getPercentile(percentile);
+            assertTrue(current >= previous, "Percentile " + percentile + " decreased to " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void record_values_updatesCountMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(300);
+        histogram.record(-50);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(400.0 / 3, histogram.getMean());
+        assertEquals(300, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void getPercentile_empty_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0.0, histogram.getMean());
+    }
+
+    @Test
+    public void getPercentile_outOfRange_throwsIllegalArgumentException() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(100.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(Double.NaN));
+    }
+
+    @Test
+    public void reset_recordedValues_clearsHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    /**
+     * Checks that a reported percentile is an upper bound of the exact value no more than one bucket above it.
+     */
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + (long) (expected * MAX_RELATIVE_ERROR),
+            "Expected " + expected + " within 12.5% but was " + actual);
+    }
+}
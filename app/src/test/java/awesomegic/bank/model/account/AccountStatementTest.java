@@ -0,0 +1,112 @@
+package awesomegic.bank.model.account;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ColumnarTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionList;
+
+public class AccountStatementTest {
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final int ROW_COUNT = 20_000;
+
+    @Test
+    public void writeTo_growingList_matchesUncachedTable() throws IOException {
+        TransactionList list = new TransactionList();
+        long balance = 0;
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            // Every few thousand rows a larger amount widens the amount and balance columns.
+            long amount = i % 5_000 == 0 ? 100_000_000L : 100;
+            balance += amount;
+            list = list.add(new Transaction(Money.ofCents(amount), Money.ofCents(balance), START.plusMinutes(i)));
+            if (i % 2_500 == 0 || i == 1) {
+                assertEquals(uncached(list), cached(list));
+                assertEquals(uncached(list), cached(list));
+            }
+        }
+    }
+
+    @Test
+    public void writeTo_largeStatement_writesInChunks() throws IOException {
+        TransactionList list = new TransactionList();
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            list = list.add(new Transaction(Money.ofCents(100), Money.ofCents(i * 100L), START.plusMinutes(i)));
+        }
+
+        for (int print = 0; print < 2; print++) {
+            ChunkRecordingWriter writer = new ChunkRecordingWriter();
+            new AccountStatement(list).writeTo(writer);
+
+            assertTrue(writer.longestWrite < writer.length / 2,
+                "Wrote " + writer.longestWrite + " of " + writer.length + " characters at once");
+        }
+    }
+
+    @Test
+    public void chunks_largeStatement_matchesWrittenStatement() throws IOException {
+        TransactionList list = new TransactionList();
+        assertEquals(cached(list), chunked(list));
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            list = list.add(new Transaction(Money.ofCents(100), Money.ofCents(i * 100L), START.plusMinutes(i)));
+        }
+
+        String chunked = chunked(list);
+        assertEquals(cached(list), chunked);
+        assertEquals(chunked, chunked(list));
+    }
+
+    private static String cached(TransactionList list) throws IOException {
+        StringWriter writer = new StringWriter();
+        new AccountStatement(list).writeTo(writer);
+        return writer.toString();
+    }
+
+    private static String chunked(TransactionList list) {
+        StringBuilder text = new StringBuilder();
+        new AccountStatement(list).chunks().forEachRemaining(text::append);
+        return text.toString();
+    }
+
+    private static String uncached(TransactionList list) throws IOException {
+        StringWriter writer = new StringWriter();
+        new AccountStatement(ColumnarTransactionList.copyOf(list)).writeTo(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Represents a writer that discards what it is given, keeping only the total and the longest write.
+     */
+    private static final class ChunkRecordingWriter extends Writer {
+        private long length;
+        private int longestWrite;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            this.length += len;
+            this.longestWrite = Math.max(this.longestWrite, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            this.length += len;
+            this.longestWrite = Math.max(this.longestWrite, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
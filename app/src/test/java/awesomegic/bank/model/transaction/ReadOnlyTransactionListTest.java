@@ -0,0 +1,65 @@
+package awesomegic.bank.model.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import awesomegic.bank.model.money.Money;
+
+public class ReadOnlyTransactionListTest {
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final int TRANSACTION_COUNT = 3;
+
+    @Test
+    public void indexOfFirstAfter_maxDateTime_returnsSize() {
+        for (ReadOnlyTransactionList list : lists()) {
+            assertEquals(TRANSACTION_COUNT, list.indexOfFirstAfter(LocalDateTime.MAX));
+            assertEquals(TRANSACTION_COUNT, list.indexOfFirstAtOrAfter(LocalDateTime.MAX));
+        }
+    }
+
+    @Test
+    public void indexOfFirstAfter_minDateTime_returnsZero() {
+        for (ReadOnlyTransactionList list : lists()) {
+            assertEquals(0, list.indexOfFirstAfter(LocalDateTime.MIN));
+            assertEquals(0, list.indexOfFirstAtOrAfter(LocalDateTime.MIN));
+        }
+    }
+
+    @Test
+    public void getBalanceAsOf_maxDateTime_returnsLastBalance() {
+        for (ReadOnlyTransactionList list : lists()) {
+            assertEquals(Money.ofCents(TRANSACTION_COUNT * 100), list.getBalanceAsOf(LocalDateTime.MAX));
+        }
+    }
+
+    @Test
+    public void summarizeBalances_windowEndingAtMaxDateTime_includesEveryTransaction() {
+        for (ReadOnlyTransactionList list : lists()) {
+            BalanceSummary summary = list.summarizeBalances(START, LocalDateTime.MAX);
+            assertEquals(Money.ZERO, summary.getMinimum());
+            assertEquals(Money.ofCents(TRANSACTION_COUNT * 100), summary.getMaximum());
+        }
+    }
+
+    /**
+     * Returns the same transactions held in a vector, in columns, and split between the two.
+     */
+    private static List<ReadOnlyTransactionList> lists() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 1; i <= TRANSACTION_COUNT; i++) {
+            transactions.add(new Transaction(Money.ofCents(100), Money.ofCents(i * 100), START.plusHours(i)));
+        }
+
+        List<ReadOnlyTransactionList> lists = new ArrayList<>();
+        lists.add(new TransactionList(transactions));
+        lists.add(new TransactionList(transactions).compact());
+        lists.add(new TransactionList(transactions.subList(0, 1)).compact()
+            .addAll(transactions.subList(1, TRANSACTION_COUNT)));
+        return lists;
+    }
+}
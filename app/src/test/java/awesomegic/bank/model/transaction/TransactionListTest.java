@@ -0,0 +1,73 @@
+package awesomegic.bank.model.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import awesomegic.bank.model.money.Money;
+
+public class TransactionListTest {
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = ColumnarTransactionList.BLOCK_SIZE * 2;
+
+    @Test
+    public void canStore_rangeOfEpochNanos_acceptsOnlyWhatFits() {
+        assertTrue(ColumnarTransactionList.canStore(START));
+        assertTrue(ColumnarTransactionList.canStore(ColumnarTransactionList.fromEpochNanos(Long.MIN_VALUE)));
+        assertTrue(ColumnarTransactionList.canStore(ColumnarTransactionList.fromEpochNanos(Long.MAX_VALUE)));
+        assertFalse(ColumnarTransactionList.canStore(
+            ColumnarTransactionList.fromEpochNanos(Long.MAX_VALUE).plusNanos(1)));
+        assertFalse(ColumnarTransactionList.canStore(LocalDateTime.MAX));
+        assertFalse(ColumnarTransactionList.canStore(LocalDateTime.MIN));
+    }
+
+    @Test
+    public void addAll_dateTimeBeyondColumns_keepsTransactionsInOrder() {
+        List<Transaction> transactions = transactions(START, BATCH_SIZE);
+        transactions.add(new Transaction(Money.ofCents(100), Money.ofCents((BATCH_SIZE + 1) * 100L),
+            LocalDateTime.MAX));
+
+        TransactionList list = new TransactionList().addAll(transactions);
+
+        assertEquals(BATCH_SIZE + 1, list.size());
+        assertEquals(LocalDateTime.MAX, list.getDateTime(BATCH_SIZE));
+        assertEquals(transactions.get(0), list.get(0));
+    }
+
+    @Test
+    public void addAll_olderThanLast_throwsIllegalArgumentException() {
+        TransactionList list = new TransactionList().addAll(transactions(START, 1));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> list.addAll(transactions(START.minusDays(1), BATCH_SIZE)));
+    }
+
+    @Test
+    public void add_dateTimeBeyondColumnsAtCompaction_staysUncompacted() {
+        int count = ColumnarTransactionList.BLOCK_SIZE;
+        TransactionList list = new TransactionList();
+        for (Transaction transaction : transactions(START, count - 1)) {
+            list = list.add(transaction);
+        }
+        list = list.add(new Transaction(Money.ofCents(100), Money.ofCents(count * 100L), LocalDateTime.MAX));
+
+        assertEquals(count, list.size());
+        assertEquals(LocalDateTime.MAX, list.getDateTime(count - 1));
+        assertThrows(IllegalArgumentException.class, list::compact);
+    }
+
+    private static List<Transaction> transactions(LocalDateTime start, int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            transactions.add(new Transaction(Money.ofCents(100), Money.ofCents(i * 100L), start.plusSeconds(i)));
+        }
+        return transactions;
+    }
+}
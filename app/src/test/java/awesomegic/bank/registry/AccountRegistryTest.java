@@ -0,0 +1,66 @@
+package awesomegic.bank.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.storage.FsyncPolicy;
+import awesomegic.bank.storage.Journal;
+import awesomegic.bank.storage.WriteAheadLog;
+
+public class AccountRegistryTest {
+    private static final String ACCOUNT_ID = "account";
+    private static final String DEPOSIT_KEY = "d";
+    private static final long GROUP_INTERVAL_MILLIS = 200;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 3;
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void execute_groupCommit_operationsOnOneAccountShareForces() throws Exception {
+        Path path = this.directory.resolve("account.wal");
+        AccountRegistry registry = new AccountRegistry();
+        OperationFactory factory = new OperationFactory();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        long started = System.nanoTime();
+        try (Journal journal = new WriteAheadLog(path, FsyncPolicy.groupCommit(GROUP_INTERVAL_MILLIS, 1 << 20))) {
+            registry.register(ACCOUNT_ID, journal.recover());
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                        registry.execute(ACCOUNT_ID, factory.getOperation(DEPOSIT_KEY, "1"), journal);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Each operation waits for a group commit, so operations that did not share one would take
+        // THREADS * OPERATIONS_PER_THREAD intervals in a row.
+        assertTrue(elapsedMillis < GROUP_INTERVAL_MILLIS * THREADS * OPERATIONS_PER_THREAD / 2,
+            "Operations took " + elapsedMillis + " ms");
+        try (Journal journal = new WriteAheadLog(path, FsyncPolicy.perOperation())) {
+            assertEquals(THREADS * OPERATIONS_PER_THREAD, journal.recover().getTransactions().size());
+        }
+    }
+}
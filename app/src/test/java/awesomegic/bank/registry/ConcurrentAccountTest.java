@@ -0,0 +1,190 @@
+package awesomegic.bank.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.storage.Journal;
+
+public class ConcurrentAccountTest {
+    private static final String ACCOUNT_ID = "account";
+    private static final int THREADS = 16;
+    private static final int UPDATES_PER_THREAD = 5_000;
+    private static final int MAX_CENTS = 500;
+
+    @Test
+    public void execute_mixedOperationsFromManyThreads_losesNoUpdate() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        OperationFactory factory = new OperationFactory();
+
+        long acceptedCents = runConcurrently(() -> {
+            ConcurrentAccount handle = registry.getHandle(ACCOUNT_ID);
+            long accepted = 0;
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                long cents = ThreadLocalRandom.current().nextLong(1, MAX_CENTS);
+                boolean isDeposit = ThreadLocalRandom.current().nextInt(3) > 0;
+                Operation operation = factory.getOperation(isDeposit ? "d" : "w", Money.ofCents(cents).toString());
+                try {
+                    handle.execute(operation);
+                    accepted += isDeposit ? cents : -cents;
+                } catch (OperationException e) {
+                    // The withdrawal exceeded the balance, so it was rejected.
+                }
+            }
+            return accepted;
+        });
+
+        assertHistoryConsistent(registry.getAccount(ACCOUNT_ID), acceptedCents);
+    }
+
+    @Test
+    public void depositAndWithdraw_manyThreadsOnOneAccount_losesNoUpdate() throws Exception {
+        ConcurrentAccount handle = new ConcurrentAccount(new BankAccount());
+
+        long acceptedCents = runConcurrently(() -> {
+            long accepted = 0;
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                long cents = ThreadLocalRandom.current().nextLong(1, MAX_CENTS);
+                try {
+                    if (ThreadLocalRandom.current().nextInt(3) > 0) {
+                        handle.deposit(Money.ofCents(cents));
+                        accepted += cents;
+                    } else {
+                        handle.withdraw(Money.ofCents(cents));
+                        accepted -= cents;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // The withdrawal exceeded the balance, so it was rejected.
+                }
+            }
+            return accepted;
+        });
+
+        assertHistoryConsistent(handle.get(), acceptedCents);
+    }
+
+    @Test
+    public void execute_withRecordingJournal_refusesUpdatesWithoutIt() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        Operation deposit = new OperationFactory().getOperation("d", "1");
+        List<ReadOnlyTransactionList> recorded = new ArrayList<>();
+
+        registry.execute(ACCOUNT_ID, deposit, new RecordingJournal(recorded, false));
+
+        ConcurrentAccount handle = registry.getHandle(ACCOUNT_ID);
+        assertThrows(IllegalStateException.class, () -> handle.execute(deposit));
+        assertThrows(IllegalStateException.class, () -> handle.deposit(Money.ofCents(100)));
+        assertThrows(IllegalStateException.class, () -> registry.execute(ACCOUNT_ID, deposit));
+        assertEquals(1, recorded.size());
+        assertEquals(1, handle.get().getTransactions().size());
+    }
+
+    @Test
+    public void execute_journalFails_leavesAccountUnchanged() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        Operation deposit = new OperationFactory().getOperation("d", "1");
+        List<ReadOnlyTransactionList> recorded = new ArrayList<>();
+        registry.execute(ACCOUNT_ID, deposit, new RecordingJournal(recorded, false));
+        BankAccount before = registry.getAccount(ACCOUNT_ID);
+
+        assertThrows(IOException.class,
+            () -> registry.execute(ACCOUNT_ID, deposit, new RecordingJournal(recorded, true)));
+
+        assertSame(before, registry.getAccount(ACCOUNT_ID));
+        assertEquals(1, recorded.size());
+    }
+
+    /**
+     * Runs the task on {@value #THREADS} threads started at the same time and returns the sum of their results.
+     */
+    private static long runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run();
+                }));
+            }
+            start.countDown();
+
+            long sum = 0;
+            for (Future<Long> future : futures) {
+                sum += future.get();
+            }
+            return sum;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Checks that the history holds every accepted update, that each balance follows from the one before it,
+     * and that no balance along the way was negative.
+     */
+    private static void assertHistoryConsistent(BankAccount account, long acceptedCents) {
+        long balance = 0;
+        for (Transaction transaction : account.getTransactions()) {
+            balance += transaction.amount.getCents();
+            assertEquals(balance, transaction.balance.getCents());
+            assertTrue(balance >= 0, "Balance went negative: " + balance);
+        }
+        assertEquals(acceptedCents, balance);
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        long run() throws Exception;
+    }
+
+    /**
+     * Represents a journal that keeps the transactions in memory, or fails every write.
+     */
+    private static final class RecordingJournal implements Journal {
+        private final List<ReadOnlyTransactionList> recorded;
+        private final boolean isFailing;
+
+        private RecordingJournal(List<ReadOnlyTransactionList> recorded, boolean isFailing) {
+            this.recorded = recorded;
+            this.isFailing = isFailing;
+        }
+
+        @Override
+        public BankAccount recover() {
+            return new BankAccount();
+        }
+
+        @Override
+        public void append(ReadOnlyTransactionList transactions) throws IOException {
+            if (this.isFailing) {
+                throw new IOException("The journal is failing.");
+            }
+            this.recorded.add(transactions);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package awesomegic.bank.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.operation.OperationEntry;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationRegistry;
+import awesomegic.bank.registry.AccountRegistry;
+
+public class BankServerTest {
+    private static final int CLIENTS = 64;
+    private static final int ACCOUNTS = 8;
+    private static final int DEPOSITS_PER_CLIENT = 500;
+    private static final int WORKERS = 4;
+    private static final long DEPOSIT_CENTS = 100;
+    private static final int SOCKET_TIMEOUT_MILLIS = 30_000;
+    private static final String DEPOSIT_ACKNOWLEDGEMENT = "has been deposited to your account.";
+    private static final String EXIT_MESSAGE = "Thank you for banking with AwesomeGIC Bank.";
+    private static final String UNEXPECTED_ERROR = "The operation could not be completed.";
+    private static final String FAILING_KEY = "x";
+    private static final int STATEMENT_DEPOSITS = 2_000;
+    private static final int STATEMENTS = 100;
+    private static final String STATEMENT_HEADER = "Date";
+
+    @Test
+    public void serve_manyPipelinedClients_acknowledgesEveryDeposit() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        try (BankServer server = new BankServer(registry, address, WORKERS)) {
+            server.start();
+            int port = server.getPort();
+
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                List<Future<Integer>> acknowledgements = new ArrayList<>();
+                for (int i = 0; i < CLIENTS; i++) {
+                    String accountId = accountId(i % ACCOUNTS);
+                    acknowledgements.add(executor.submit(() -> {
+                        start.await();
+                        return runClient(port, accountId);
+                    }));
+                }
+                start.countDown();
+
+                for (Future<Integer> acknowledged : acknowledgements) {
+                    assertEquals(DEPOSITS_PER_CLIENT, (int) acknowledged.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        int expectedDeposits = CLIENTS / ACCOUNTS * DEPOSITS_PER_CLIENT;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ReadOnlyTransactionList transactions = registry.getAccount(accountId(i)).getTransactions();
+            assertEquals(expectedDeposits, transactions.size());
+            assertEquals(expectedDeposits * DEPOSIT_CENTS, transactions.get(expectedDeposits - 1).balance.getCents());
+        }
+    }
+
+    @Test
+    public void serve_operationThrows_reportsErrorAndKeepsSession() throws Exception {
+        OperationFactory factory = new OperationFactory(OperationRegistry.withDefaults()
+            .register(OperationEntry.of(FAILING_KEY, account -> {
+                throw new IllegalStateException();
+            })));
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        try (BankServer server = new BankServer(new AccountRegistry(), address, 1, factory)) {
+            server.start();
+
+            String output = exchange(server.getPort(), "account\n" + FAILING_KEY + "\nd\n1\nq\n");
+
+            assertTrue(output.contains(UNEXPECTED_ERROR), output);
+            assertTrue(output.contains(DEPOSIT_ACKNOWLEDGEMENT), output);
+            assertTrue(output.contains(EXIT_MESSAGE), output);
+        }
+    }
+
+    @Test
+    public void serve_sessionThrows_closesOnlyThatSession() throws Exception {
+        OperationFactory factory = new OperationFactory(OperationRegistry.withDefaults()
+            .register(OperationEntry.withArgument(FAILING_KEY, "Argument:", argument -> {
+                throw new IllegalStateException();
+            })));
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        try (BankServer server = new BankServer(new AccountRegistry(), address, 1, factory)) {
+            server.start();
+
+            String failed = exchange(server.getPort(), "account\n" + FAILING_KEY + "\nargument\nd\n1\n");
+            String served = exchange(server.getPort(), "account\nd\n1\nq\n");
+
+            assertFalse(failed.contains(DEPOSIT_ACKNOWLEDGEMENT), failed);
+            assertTrue(served.contains(DEPOSIT_ACKNOWLEDGEMENT), served);
+            assertTrue(served.contains(EXIT_MESSAGE), served);
+        }
+    }
+
+    @Test
+    public void serve_pipelinedStatementsExceedPendingOutput_sendsEveryStatement() throws Exception {
+        StringBuilder script = new StringBuilder("account\n");
+        for (int i = 0; i < STATEMENT_DEPOSITS; i++) {
+            script.append("d\n").append(Money.ofCents(DEPOSIT_CENTS)).append('\n');
+        }
+        for (int i = 0; i < STATEMENTS; i++) {
+            script.append("p\n");
+        }
+        script.append("q\n");
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        try (BankServer server = new BankServer(new AccountRegistry(), address, 1)) {
+            server.start();
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+                // The server stops reading while the client is behind, so the script is written concurrently.
+                Future<?> written = executor.submit(() -> {
+                    OutputStream out = socket.getOutputStream();
+                    out.write(script.toString().getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    return null;
+                });
+
+                BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                int statements = 0;
+                int rows = 0;
+                boolean hasExited = false;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.contains(STATEMENT_HEADER)) {
+                        statements++;
+                    } else if (line.contains(DEPOSIT_ACKNOWLEDGEMENT)) {
+                        continue;
+                    } else if (line.contains(Money.ofCents(DEPOSIT_CENTS).toString())) {
+                        rows++;
+                    } else if (line.contains(EXIT_MESSAGE)) {
+                        hasExited = true;
+                    }
+                }
+                written.get();
+
+                assertEquals(STATEMENTS, statements);
+                assertEquals(STATEMENTS * STATEMENT_DEPOSITS, rows);
+                assertTrue(hasExited, "The server closed the connection before the client quit.");
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static String accountId(int index) {
+        return "account-" + index;
+    }
+
+    /**
+     * Sends the script in one write and returns everything the server sends back until it closes the connection.
+     */
+    private static String exchange(int port, String script) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+            socket.getOutputStream().write(script.getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Sends every deposit of one client in a single write without waiting for the replies, then quits and
+     * returns the number of deposits the server acknowledged before saying goodbye.
+     */
+    private static int runClient(int port, String accountId) throws IOException {
+        StringBuilder request = new StringBuilder(accountId).append('\n');
+        for (int i = 0; i < DEPOSITS_PER_CLIENT; i++) {
+            request.append("d\n").append(Money.ofCents(DEPOSIT_CENTS)).append('\n');
+        }
+        request.append("q\n");
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            int acknowledged = 0;
+            boolean hasExited = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.contains(DEPOSIT_ACKNOWLEDGEMENT)) {
+                    acknowledged++;
+                } else if (line.contains(EXIT_MESSAGE)) {
+                    hasExited = true;
+                }
+            }
+            assertTrue(hasExited, "The server closed the connection before the client quit.");
+            return acknowledged;
+        }
+    }
+}
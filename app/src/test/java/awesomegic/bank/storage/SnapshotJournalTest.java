@@ -0,0 +1,179 @@
+package awesomegic.bank.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+
+public class SnapshotJournalTest {
+    private static final String SEGMENT_FILE_NAME = "journal.bin";
+    private static final Money AMOUNT = Money.ofCents(123);
+    private static final int SEGMENT_CAPACITY = 1 << 20;
+    private static final int SNAPSHOT_INTERVAL = 10_000;
+    private static final int SMALL_HISTORY = 10_000;
+    private static final int LARGE_HISTORY = 1_000_000;
+    private static final int TAIL = 1_000;
+    private static final int RECOVERIES = 5;
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void recover_largerSnapshot_takesComparableTime() throws IOException {
+        Path small = this.directory.resolve("small");
+        Path large = this.directory.resolve("large");
+        writeHistory(small, SMALL_HISTORY);
+        writeHistory(large, LARGE_HISTORY);
+
+        long smallNanos = Long.MAX_VALUE;
+        long largeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < RECOVERIES; i++) {
+            smallNanos = Math.min(smallNanos, timeRecovery(small, SMALL_HISTORY + TAIL));
+            largeNanos = Math.min(largeNanos, timeRecovery(large, LARGE_HISTORY + TAIL));
+        }
+
+        // Replaying a hundred times as many transactions would take about a hundred times as long.
+        assertTrue(largeNanos < smallNanos * 5 + 20_000_000L,
+            "Recovering " + LARGE_HISTORY + " snapshotted transactions took " + largeNanos / 1_000 + " us, "
+                + SMALL_HISTORY + " took " + smallNanos / 1_000 + " us");
+    }
+
+    @Test
+    public void recover_tornLastRecord_recoversEverythingBeforeIt() throws IOException {
+        Path path = this.directory.resolve("torn");
+        int count = 10;
+        long lastRecordEnd;
+        try (SnapshotJournal journal = newJournal(path)) {
+            BankAccount account = journal.recover();
+            for (int i = 0; i < count; i++) {
+                BankAccount updated = account.deposit(AMOUNT);
+                journal.append(updated.getTransactions().subList(i, i + 1));
+                account = updated;
+            }
+        }
+        lastRecordEnd = findEnd(path.resolve(SEGMENT_FILE_NAME));
+
+        try (FileChannel channel = FileChannel.open(path.resolve(SEGMENT_FILE_NAME), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), lastRecordEnd - 4);
+        }
+
+        try (SnapshotJournal journal = newJournal(path)) {
+            BankAccount account = journal.recover();
+            assertEquals(count - 1, account.getTransactions().size());
+
+            BankAccount updated = account.deposit(AMOUNT);
+            journal.append(updated.getTransactions().subList(count - 1, count));
+        }
+        try (SnapshotJournal journal = newJournal(path)) {
+            assertEquals(count, journal.recover().getTransactions().size());
+        }
+    }
+
+    @Test
+    public void recover_afterSnapshot_ignoresRecordsFromBeforeIt() throws IOException {
+        Path path = this.directory.resolve("reused");
+        int count = SNAPSHOT_INTERVAL + 10;
+        try (SnapshotJournal journal = newJournal(path)) {
+            BankAccount account = journal.recover();
+            for (int i = 0; i < count; i++) {
+                BankAccount updated = account.deposit(AMOUNT);
+                journal.append(updated.getTransactions().subList(i, i + 1));
+                account = updated;
+            }
+        }
+
+        try (SnapshotJournal journal = newJournal(path)) {
+            ReadOnlyTransactionList transactions = journal.recover().getTransactions();
+            assertEquals(count, transactions.size());
+            assertEquals(AMOUNT.getCents() * count, transactions.get(count - 1).balance.getCents());
+        }
+    }
+
+    @Test
+    public void append_groupCommit_recoversEveryOperation() throws IOException {
+        Path path = this.directory.resolve("group");
+        try (SnapshotJournal journal = new SnapshotJournal(path, FsyncPolicy.groupCommit(1, 4),
+                SEGMENT_CAPACITY, SNAPSHOT_INTERVAL)) {
+            BankAccount account = journal.recover();
+            for (int i = 0; i < 10; i++) {
+                BankAccount updated = account.deposit(AMOUNT);
+                journal.append(updated.getTransactions().subList(i, i + 1));
+                account = updated;
+            }
+        }
+
+        try (SnapshotJournal journal = newJournal(path)) {
+            assertEquals(10, journal.recover().getTransactions().size());
+        }
+    }
+
+    /**
+     * Writes a history of the specified number of snapshotted transactions followed by {@value #TAIL}
+     * transactions left in the journal segment.
+     */
+    private static void writeHistory(Path path, int snapshotted) throws IOException {
+        try (SnapshotJournal journal = newJournal(path)) {
+            BankAccount account = journal.recover();
+            account = appendDeposits(journal, account, snapshotted);
+            assertEquals(0, snapshotted % SNAPSHOT_INTERVAL);
+            appendDeposits(journal, account, TAIL);
+        }
+    }
+
+    private static BankAccount appendDeposits(SnapshotJournal journal, BankAccount account, int count)
+            throws IOException {
+        for (int appended = 0; appended < count; appended += TAIL) {
+            BankAccount.Batch batch = account.batch();
+            for (int i = 0; i < TAIL; i++) {
+                batch.deposit(AMOUNT);
+            }
+            BankAccount updated = batch.build();
+            ReadOnlyTransactionList transactions = updated.getTransactions();
+            journal.append(transactions.subList(account.getTransactions().size(), transactions.size()));
+            account = updated;
+        }
+        return account;
+    }
+
+    private static long timeRecovery(Path path, int expectedSize) throws IOException {
+        try (SnapshotJournal journal = newJournal(path)) {
+            long started = System.nanoTime();
+            BankAccount account = journal.recover();
+            long elapsed = System.nanoTime() - started;
+            assertEquals(expectedSize, account.getTransactions().size());
+            return elapsed;
+        }
+    }
+
+    private static SnapshotJournal newJournal(Path path) {
+        return new SnapshotJournal(path, FsyncPolicy.perOperation(), SEGMENT_CAPACITY, SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Returns the position just after the last non-zero byte of the file.
+     */
+    private static long findEnd(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                // Keeps reading until the whole file is in memory.
+            }
+            int end = bytes.limit();
+            while (end > 0 && bytes.get(end - 1) == 0) {
+                end--;
+            }
+            return end;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package awesomegic.bank.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+
+public class WriteAheadLogTest {
+    private static final Money AMOUNT = Money.ofCents(100);
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void recover_tornLastRecord_truncatesOnlyTheTornRecord() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 3);
+        long sizeAfterThree = Files.size(path);
+        writeUnforcedDeposits(path, 1);
+
+        truncate(path, Files.size(path) - 5);
+
+        assertEquals(3, recover(path).getTransactions().size());
+        assertEquals(sizeAfterThree, Files.size(path));
+    }
+
+    @Test
+    public void recover_garbageAfterLastRecord_truncatesGarbage() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 3);
+        long validSize = Files.size(path);
+        Files.write(path, new byte[64], StandardOpenOption.APPEND);
+
+        assertEquals(3, recover(path).getTransactions().size());
+        assertEquals(validSize, Files.size(path));
+    }
+
+    @Test
+    public void recover_corruptRecordFollowedByValidRecords_throwsAndKeepsLog() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 1);
+        long secondRecord = Files.size(path);
+        writeDeposits(path, 3);
+        long size = Files.size(path);
+
+        flipByte(path, secondRecord + 12);
+
+        assertThrows(IOException.class, () -> recover(path));
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    public void recover_corruptLengthFollowedByValidRecords_throws() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 1);
+        long secondRecord = Files.size(path);
+        writeDeposits(path, 3);
+
+        flipByte(path, secondRecord);
+
+        assertThrows(IOException.class, () -> recover(path));
+    }
+
+    @Test
+    public void recover_tornMultiTransactionOperation_recoversNoneOfIt() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 1);
+        long sizeAfterDeposit = Files.size(path);
+        byte[] forcedPosition = Files.readAllBytes(forcedPositionPath(path));
+        try (WriteAheadLog log = new WriteAheadLog(path, FsyncPolicy.perOperation())) {
+            BankAccount account = log.recover();
+            BankAccount updated = account.batch().deposit(AMOUNT).withdraw(AMOUNT).deposit(AMOUNT).build();
+            ReadOnlyTransactionList transactions = updated.getTransactions();
+            log.append(transactions.subList(account.getTransactions().size(), transactions.size()));
+        }
+        Files.write(forcedPositionPath(path), forcedPosition);
+
+        truncate(path, Files.size(path) - 1);
+
+        assertEquals(1, recover(path).getTransactions().size());
+        assertEquals(sizeAfterDeposit, Files.size(path));
+    }
+
+    @Test
+    public void recover_damagedUnforcedRecordFollowedByValidRecords_truncatesThem() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 1);
+        long forcedSize = Files.size(path);
+        writeUnforcedDeposits(path, 3);
+
+        // Unforced records can reach the disk out of order, leaving a hole before valid records.
+        flipByte(path, forcedSize + 12);
+
+        assertEquals(1, recover(path).getTransactions().size());
+        assertEquals(forcedSize, Files.size(path));
+    }
+
+    @Test
+    public void recover_forcedRecordMissing_throws() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 3);
+
+        truncate(path, Files.size(path) - 5);
+
+        assertThrows(IOException.class, () -> recover(path));
+    }
+
+    @Test
+    public void recover_logRemoved_startsAnewDespiteForcedPosition() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        writeDeposits(path, 3);
+        Files.delete(path);
+
+        assertEquals(0, recover(path).getTransactions().size());
+        writeDeposits(path, 1);
+        assertEquals(1, recover(path).getTransactions().size());
+    }
+
+    @Test
+    public void recover_afterGroupCommit_recoversEveryOperation() throws IOException {
+        Path path = this.directory.resolve("account.wal");
+        try (WriteAheadLog log = new WriteAheadLog(path, FsyncPolicy.groupCommit(1, 4))) {
+            BankAccount account = log.recover();
+            for (int i = 0; i < 10; i++) {
+                BankAccount updated = account.deposit(AMOUNT);
+                log.append(updated.getTransactions().subList(i, i + 1));
+                account = updated;
+            }
+        }
+
+        assertEquals(10, recover(path).getTransactions().size());
+    }
+
+    private static void writeDeposits(Path path, int count) throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(path, FsyncPolicy.perOperation())) {
+            BankAccount account = log.recover();
+            for (int i = 0; i < count; i++) {
+                BankAccount updated = account.deposit(AMOUNT);
+                int size = updated.getTransactions().size();
+                log.append(updated.getTransactions().subList(size - 1, size));
+                account = updated;
+            }
+        }
+    }
+
+    /**
+     * Writes deposits as if the process had crashed before they were forced, by restoring the position the
+     * log was known to be forced up to.
+     */
+    private static void writeUnforcedDeposits(Path path, int count) throws IOException {
+        byte[] forcedPosition = Files.readAllBytes(forcedPositionPath(path));
+        writeDeposits(path, count);
+        Files.write(forcedPositionPath(path), forcedPosition);
+    }
+
+    private static Path forcedPositionPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".forced");
+    }
+
+    private static BankAccount recover(Path path) throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(path, FsyncPolicy.perOperation())) {
+            return log.recover();
+        }
+    }
+
+    private static void truncate(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static void flipByte(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) ~buffer.get(0));
+            channel.write(buffer.rewind(), position);
+        }
+    }
+}
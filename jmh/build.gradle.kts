@@ -0,0 +1,38 @@
+/*
+ * Benchmarks for the hot paths of the bank system, run with the JMH Gradle plugin:
+ *
+ *     ./gradlew :jmh:jmh
+ *
+ * Results are written to build/results/jmh/results.json.
+ */
+
+plugins {
+    id("java")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+repositories {
+    // Use Maven Central for resolving dependencies.
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":app"))
+}
+
+// Benchmark with the same Java version the application is built for.
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(11)
+    }
+}
+
+jmh {
+    jmhVersion = "1.37"
+    // Report the allocation rate next to the throughput of every benchmark.
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+}
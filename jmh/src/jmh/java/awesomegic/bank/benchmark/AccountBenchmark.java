@@ -0,0 +1,64 @@
+package awesomegic.bank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Measures adding a transaction to accounts and transaction lists with histories of various sizes.
+ * Every invocation derives a new version from the same account, so the history does not grow during a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountBenchmark {
+    private static final Money AMOUNT = Money.ofCents(100);
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int historySize;
+
+    private BankAccount account;
+    private TransactionList transactions;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        this.account = Histories.accountWithHistory(this.historySize);
+
+        TransactionList transactions = new TransactionList();
+        for (Transaction existing : this.account.getTransactions()) {
+            transactions = transactions.add(existing);
+        }
+        this.transactions = transactions;
+
+        Transaction last = this.account.getTransactions().get(this.historySize - 1);
+        this.transaction = new Transaction(AMOUNT, last.balance.add(AMOUNT), last.dateTime.plusSeconds(1));
+    }
+
+    @Benchmark
+    public BankAccount deposit() {
+        return this.account.deposit(AMOUNT);
+    }
+
+    @Benchmark
+    public BankAccount withdraw() {
+        return this.account.withdraw(AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionList addTransaction() {
+        return this.transactions.add(this.transaction);
+    }
+}
@@ -0,0 +1,105 @@
+package awesomegic.bank.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.CommandPipeline;
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.metrics.Metrics;
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.operation.DepositOperation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.PrintStatementOperation;
+import awesomegic.bank.operation.QuitOperation;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.registry.AccountRegistry;
+import awesomegic.bank.storage.Journal;
+
+/**
+ * Compares running a batch script through the serial loop of the interactive mode and through the
+ * {@link CommandPipeline}. The script mixes deposits with a statement every {@value #COMMANDS_PER_STATEMENT}
+ * commands, so that rendering takes a large share of the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchSessionBenchmark {
+    private static final String ACCOUNT_ID = "benchmark";
+    private static final int COMMANDS_PER_SCRIPT = 1 << 14;
+    private static final int COMMANDS_PER_STATEMENT = 64;
+
+    @Param({"1000", "100000"})
+    public int historySize;
+
+    private BankAccount account;
+    private String script;
+    private Metrics metrics;
+
+    @Setup
+    public void setUp() {
+        this.account = Histories.accountWithHistory(this.historySize);
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < COMMANDS_PER_SCRIPT; i++) {
+            if (i % COMMANDS_PER_STATEMENT == COMMANDS_PER_STATEMENT - 1) {
+                script.append(PrintStatementOperation.OPERATION_KEY).append('\n');
+            } else {
+                script.append(DepositOperation.OPERATION_KEY).append("\n1.23\n");
+            }
+        }
+        this.script = script.append(QuitOperation.OPERATION_KEY).append('\n').toString();
+        this.metrics = new Metrics();
+    }
+
+    @Benchmark
+    public AccountRegistry runSerially() throws IOException {
+        Cli cli = new Cli(new StringReader(this.script), Writer.nullWriter(), false);
+        OperationFactory factory = new OperationFactory(cli);
+        AccountRegistry registry = this.newRegistry();
+        Journal journal = Journal.none();
+        while (true) {
+            try {
+                String option = cli.readOperationOption(factory);
+                OperationResult result = registry.execute(ACCOUNT_ID, factory.getOperation(option), journal);
+                if (result.exit) {
+                    break;
+                }
+                cli.showResult(result);
+                this.metrics.recordSuccess();
+            } catch (InputException e) {
+                cli.showInputError(e);
+            } catch (OperationException e) {
+                cli.showOperationError(e);
+            }
+        }
+        cli.close();
+        return registry;
+    }
+
+    @Benchmark
+    public AccountRegistry runPipelined() {
+        Cli cli = new Cli(new StringReader(this.script), Writer.nullWriter(), false);
+        AccountRegistry registry = this.newRegistry();
+        new CommandPipeline(cli, registry, ACCOUNT_ID, Journal.none(), this.metrics, new OperationFactory(cli)).run();
+        cli.close();
+        return registry;
+    }
+
+    private AccountRegistry newRegistry() {
+        AccountRegistry registry = new AccountRegistry();
+        registry.register(ACCOUNT_ID, this.account);
+        return registry;
+    }
+}
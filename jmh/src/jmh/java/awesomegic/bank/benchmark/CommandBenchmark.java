@@ -0,0 +1,102 @@
+package awesomegic.bank.benchmark;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.cli.CommandParser;
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.operation.DepositOperation;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.exceptions.OperationException;
+
+/**
+ * Measures turning command lines into operations and running them, as the batch mode does for every command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandBenchmark {
+    private static final int COMMANDS_PER_SCRIPT = 1 << 16;
+    private static final String MALFORMED_AMOUNT = "12a4.5";
+    private static final String OPTION_LINE = " D ";
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int historySize;
+
+    @Param({"100", "1234.56", "1e2"})
+    public String amount;
+
+    private BankAccount account;
+    private OperationFactory factory;
+    private String script;
+    private Cli cli;
+    private OperationFactory cliFactory;
+    private int remainingCommands;
+
+    @Setup
+    public void setUp() {
+        this.account = Histories.accountWithHistory(this.historySize);
+        this.factory = new OperationFactory();
+        this.script = (DepositOperation.OPERATION_KEY + "\n" + this.amount + "\n").repeat(COMMANDS_PER_SCRIPT);
+        this.restartScript();
+    }
+
+    @Benchmark
+    public Money parseTransactionAmount() throws InputException {
+        return CommandParser.parseTransactionAmount(this.amount);
+    }
+
+    @Benchmark
+    public long parseCents() {
+        return CommandParser.parseCents(this.amount);
+    }
+
+    @Benchmark
+    public long parseMalformedCents() {
+        return CommandParser.parseCents(MALFORMED_AMOUNT);
+    }
+
+    @Benchmark
+    public String parseOperationOption() throws InputException {
+        return CommandParser.parseOperationOption(OPTION_LINE, this.factory);
+    }
+
+    @Benchmark
+    public Operation getOperation() throws InputException {
+        return this.factory.getOperation(DepositOperation.OPERATION_KEY, this.amount);
+    }
+
+    @Benchmark
+    public OperationResult readAndExecuteCommand() throws InputException, OperationException {
+        if (this.remainingCommands == 0) {
+            this.restartScript();
+        }
+        this.remainingCommands--;
+
+        String option = this.cli.readOperationOption(this.cliFactory);
+        return this.cliFactory.getOperation(option).execute(this.account);
+    }
+
+    private void restartScript() {
+        Reader in = new StringReader(this.script);
+        this.cli = new Cli(in, Writer.nullWriter(), false);
+        this.cliFactory = new OperationFactory(this.cli);
+        this.remainingCommands = COMMANDS_PER_SCRIPT;
+    }
+}
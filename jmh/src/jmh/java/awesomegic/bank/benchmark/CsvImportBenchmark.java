@@ -0,0 +1,54 @@
+package awesomegic.bank.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionList;
+import awesomegic.bank.storage.CsvImport;
+
+/**
+ * Compares importing CSV files of various sizes on the calling thread and on the common fork-join pool.
+ * The file is held in memory so that only parsing and checking the lines is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CsvImportBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int historySize;
+
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        TransactionList transactions = Histories.transactionsOverYears(this.historySize);
+        StringBuilder csv = new StringBuilder("date,amount,balance\n");
+        for (Transaction transaction : transactions) {
+            csv.append(transaction.dateTime).append(',')
+                .append(transaction.amount).append(',')
+                .append(transaction.balance).append('\n');
+        }
+        this.csv = csv.toString();
+    }
+
+    @Benchmark
+    public CsvImport.Result importSequentially() throws IOException {
+        return CsvImport.readSequentially(new StringReader(this.csv));
+    }
+
+    @Benchmark
+    public CsvImport.Result importInParallel() throws IOException {
+        return CsvImport.read(new StringReader(this.csv));
+    }
+}
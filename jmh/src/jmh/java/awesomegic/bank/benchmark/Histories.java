@@ -0,0 +1,48 @@
+package awesomegic.bank.benchmark;
+
+import java.time.LocalDateTime;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.money.Money;
+import awesomegic.bank.model.transaction.Transaction;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Builds the accounts the benchmarks run against.
+ */
+final class Histories {
+    private static final Money DEPOSIT_AMOUNT = Money.ofCents(1234);
+    private static final Money WITHDRAWAL_AMOUNT = Money.ofCents(-1000);
+    private static final LocalDateTime START = LocalDateTime.of(2015, 1, 1, 9, 0);
+    private static final long HISTORY_SECONDS = 10L * 365 * 24 * 60 * 60;
+
+    private Histories() {
+    }
+
+    /**
+     * Returns an account with the specified number of deposits in its history.
+     */
+    static BankAccount accountWithHistory(int size) {
+        BankAccount.Batch batch = new BankAccount().batch();
+        for (int i = 0; i < size; i++) {
+            batch.deposit(DEPOSIT_AMOUNT);
+        }
+        return batch.build();
+    }
+
+    /**
+     * Returns a history of the specified number of alternating deposits and withdrawals, spread evenly over
+     * ten years so that it covers 120 months.
+     */
+    static TransactionList transactionsOverYears(int size) {
+        TransactionList transactions = new TransactionList();
+        Money balance = Money.ZERO;
+        long step = Math.max(1, HISTORY_SECONDS / size);
+        for (int i = 0; i < size; i++) {
+            Money amount = i % 2 == 0 ? DEPOSIT_AMOUNT : WITHDRAWAL_AMOUNT;
+            balance = balance.add(amount);
+            transactions = transactions.add(new Transaction(amount, balance, START.plusSeconds(i * step)));
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,61 @@
+package awesomegic.bank.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.transaction.TransactionList;
+import awesomegic.bank.storage.HistoryReader;
+import awesomegic.bank.storage.HistoryWriter;
+
+/**
+ * Measures exporting and importing histories of various sizes in the binary history format, in memory so
+ * that only the encoding is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HistoryFileBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int historySize;
+
+    private TransactionList transactions;
+    private byte[] exported;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.transactions = Histories.transactionsOverYears(this.historySize);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HistoryWriter writer = new HistoryWriter(out)) {
+            writer.writeAll(this.transactions);
+        }
+        this.exported = out.toByteArray();
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        try (HistoryWriter writer = new HistoryWriter(OutputStream.nullOutputStream())) {
+            writer.writeAll(this.transactions);
+            return writer.getRowCount();
+        }
+    }
+
+    @Benchmark
+    public BankAccount importAccount() throws IOException {
+        try (HistoryReader reader = new HistoryReader(new ByteArrayInputStream(this.exported))) {
+            return reader.readAccount();
+        }
+    }
+}
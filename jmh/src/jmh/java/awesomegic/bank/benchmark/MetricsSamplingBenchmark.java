@@ -0,0 +1,78 @@
+package awesomegic.bank.benchmark;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.cli.Cli;
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.metrics.Metrics;
+import awesomegic.bank.operation.DepositOperation;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.registry.AccountRegistry;
+
+/**
+ * Measures what the latency metrics cost an operation. Both benchmarks parse, execute and show a deposit the
+ * way the console loop of the bank system does: one without timing it, and one that times a sampled one in
+ * {@value Metrics#DEFAULT_SAMPLING_INTERVAL} operations. The two should be within a few percent of each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetricsSamplingBenchmark {
+    private static final String ACCOUNT_ID = "benchmark";
+    private static final String AMOUNT = "1.23";
+
+    private final OperationFactory factory = new OperationFactory();
+    private final Cli cli = new Cli(Reader.nullReader(), Writer.nullWriter(), false);
+    private AccountRegistry registry;
+    private Metrics metrics;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // A new registry for every iteration keeps the history from growing for the whole run.
+        this.registry = new AccountRegistry();
+        this.metrics = new Metrics(Metrics.DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    @Benchmark
+    public boolean processUntimed() throws InputException, OperationException {
+        Operation operation = this.factory.getOperation(DepositOperation.OPERATION_KEY, AMOUNT);
+        OperationResult result = this.registry.execute(ACCOUNT_ID, operation);
+        this.cli.showResult(result);
+        this.metrics.recordSuccess();
+        return result.exit;
+    }
+
+    @Benchmark
+    public boolean processSampled() throws InputException, OperationException {
+        boolean isTimed = this.metrics.shouldTime();
+        long started = isTimed ? System.nanoTime() : 0;
+        Operation operation = this.factory.getOperation(DepositOperation.OPERATION_KEY, AMOUNT);
+        long parsed = isTimed ? System.nanoTime() : 0;
+
+        OperationResult result = this.registry.execute(ACCOUNT_ID, operation);
+        long executed = isTimed ? System.nanoTime() : 0;
+
+        this.cli.showResult(result);
+        this.metrics.recordSuccess();
+        if (isTimed) {
+            long rendered = System.nanoTime();
+            this.metrics.recordLatencies(
+                operation.getClass(), parsed - started, executed - parsed, rendered - executed);
+        }
+        return result.exit;
+    }
+}
@@ -0,0 +1,49 @@
+package awesomegic.bank.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.model.account.MonthlySummaries;
+import awesomegic.bank.model.account.MonthlySummary;
+import awesomegic.bank.model.transaction.TransactionList;
+
+/**
+ * Compares summarizing the months of histories of various sizes on the calling thread and on the common
+ * fork-join pool. Every history covers ten years of transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MonthlySummaryBenchmark {
+    private static final BigDecimal INTEREST_RATE = new BigDecimal("2.5");
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int historySize;
+
+    private TransactionList transactions;
+
+    @Setup
+    public void setUp() {
+        this.transactions = Histories.transactionsOverYears(this.historySize);
+    }
+
+    @Benchmark
+    public List<MonthlySummary> summarizeSequentially() {
+        return MonthlySummaries.summarizeSequentially(this.transactions, INTEREST_RATE);
+    }
+
+    @Benchmark
+    public List<MonthlySummary> summarizeInParallel() {
+        return MonthlySummaries.summarize(this.transactions, INTEREST_RATE);
+    }
+}
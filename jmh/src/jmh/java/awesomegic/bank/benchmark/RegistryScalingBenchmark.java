@@ -0,0 +1,133 @@
+package awesomegic.bank.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import awesomegic.bank.cli.exceptions.InputException;
+import awesomegic.bank.model.account.BankAccount;
+import awesomegic.bank.model.transaction.ReadOnlyTransactionList;
+import awesomegic.bank.operation.DepositOperation;
+import awesomegic.bank.operation.Operation;
+import awesomegic.bank.operation.OperationFactory;
+import awesomegic.bank.operation.OperationResult;
+import awesomegic.bank.operation.exceptions.OperationException;
+import awesomegic.bank.registry.AccountRegistry;
+import awesomegic.bank.storage.Journal;
+
+/**
+ * Measures how the throughput of the account registry scales with the number of threads when every thread
+ * updates its own account in its own shard. Operations go through the shard locks, as they do with a
+ * recording journal, using a journal that records nothing so that only the registry is measured. With
+ * distinct shards the total throughput should grow almost linearly with the threads, up to the number of
+ * processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegistryScalingBenchmark {
+    private static final int SHARD_COUNT = 1 << 10;
+    private static final String ACCOUNT_ID_PREFIX = "account-";
+
+    private final AtomicInteger nextThread = new AtomicInteger();
+    private AccountRegistry registry;
+    private Operation deposit;
+    private Journal journal;
+
+    @Setup
+    public void setUp() throws InputException {
+        this.deposit = new OperationFactory().getOperation(DepositOperation.OPERATION_KEY, "1.23");
+        this.journal = new DiscardingJournal();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetAccounts() {
+        // A new registry for every iteration keeps the histories from growing for the whole run.
+        this.registry = new AccountRegistry(SHARD_COUNT);
+        this.nextThread.set(0);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public OperationResult deposit1Thread(ThreadAccount account) throws OperationException, IOException {
+        return this.deposit(account);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public OperationResult deposit2Threads(ThreadAccount account) throws OperationException, IOException {
+        return this.deposit(account);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OperationResult deposit4Threads(ThreadAccount account) throws OperationException, IOException {
+        return this.deposit(account);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public OperationResult deposit8Threads(ThreadAccount account) throws OperationException, IOException {
+        return this.deposit(account);
+    }
+
+    private OperationResult deposit(ThreadAccount account) throws OperationException, IOException {
+        return this.registry.execute(account.accountId, this.deposit, this.journal);
+    }
+
+    /**
+     * Holds the account of a benchmark thread, chosen so that no two threads share a shard.
+     */
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        private String accountId;
+
+        @Setup(Level.Iteration)
+        public void setUp(RegistryScalingBenchmark benchmark) {
+            int thread = benchmark.nextThread.getAndIncrement();
+            this.accountId = accountInShard(thread);
+            benchmark.registry.register(this.accountId, new BankAccount());
+        }
+
+        /**
+         * Returns an account ID that falls in the specified shard, mirroring how the registry spreads IDs.
+         */
+        private static String accountInShard(int shard) {
+            for (int i = 0; ; i++) {
+                String accountId = ACCOUNT_ID_PREFIX + i;
+                int hash = accountId.hashCode();
+                if (((hash ^ (hash >>> 16)) & (SHARD_COUNT - 1)) == shard) {
+                    return accountId;
+                }
+            }
+        }
+    }
+
+    /**
+     * Represents a recording journal that discards what it records.
+     */
+    private static final class DiscardingJournal implements Journal {
+        @Override
+        public BankAccount recover() {
+            return new BankAccount();
+        }
+
+        @Override
+        public void append(ReadOnlyTransactionList transactions) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package awesomegic.bank.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import awesomegic.bank.model.account.AccountStatement;
+import awesomegic.bank.model.account.BankAccount;
+
+/**
+ * Measures generating and rendering the statements of accounts with histories of various sizes.
+ * Rendering the full statement again reuses its cached table, so the uncached benchmark renders a fresh
+ * view of every transaction, measuring its column widths and formatting every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StatementBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int historySize;
+
+    private BankAccount account;
+    private AccountStatement statement;
+
+    @Setup
+    public void setUp() {
+        this.account = Histories.accountWithHistory(this.historySize);
+        this.statement = this.account.generateStatement();
+    }
+
+    @Benchmark
+    public AccountStatement generateStatement() {
+        return this.account.generateStatement();
+    }
+
+    @Benchmark
+    public String renderToString() {
+        return this.statement.toString();
+    }
+
+    @Benchmark
+    public void renderToWriter() throws IOException {
+        this.statement.writeTo(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void renderUncachedToWriter() throws IOException {
+        this.statement.last(this.historySize).writeTo(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public AccountStatement selectLastPage() {
+        return this.statement.last(10);
+    }
+}
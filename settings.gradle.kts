@@ -11,4 +11,4 @@ plugins {
 }
 
 rootProject.name = "GIC_TG_IAP"
-include("app")
+include("app", "jmh")